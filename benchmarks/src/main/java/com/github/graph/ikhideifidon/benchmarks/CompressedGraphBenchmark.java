@@ -0,0 +1,127 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.CompressedGraph;
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.DepthFirstTraversal;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.IntAdjacency;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding every edge of a CompressedGraph, in bulk and through IntAdjacency, against reading the int arrays of the
+ * CsrGraph it was built from, and a breadth first and a depth first search on both. The depth first search reads each
+ * list from its last edge back to its first, resuming it after every vertex it discovers, which RMAT's hubs make
+ * costly without the skip tables of the compressed lists. Vertices are inserted in random order, then kept
+ * (NONE) or relabeled by CsrGraph.reorder(), which shrinks the gaps. The setup prints the bytes per edge of both
+ * layouts, and of the compressed graph without costs.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CompressedGraphBenchmark {
+
+    @Param({"GRID", "RMAT"})
+    private GraphGenerators.Shape shape;
+
+    @Param({"NONE", "REORDERED"})
+    private String layout;
+
+    @Param({"1000000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    private CsrGraph<Integer> csr;
+    private CompressedGraph compressed;
+    private int[] buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csr = GraphGenerators.generate(shape, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 53)
+                .shuffled(53).toGraph(Graph.TYPE.UNDIRECTED, false).freeze();
+        if (layout.equals("REORDERED"))
+            csr = csr.reorder();
+        compressed = CompressedGraph.of(csr);
+        int maximumDegree = 0;
+        for (int v = 0; v < csr.vertexCount(); v++)
+            maximumDegree = Math.max(maximumDegree, csr.degree(v));
+        buffer = new int[maximumDegree];
+
+        final long csrBytes = 4L * (csr.vertexCount() + 1 + 2L * csr.edgeCount());
+        final CompressedGraph unweighted = CompressedGraph.of(new IntAdjacency() {
+            @Override
+            public int vertexCount() { return csr.vertexCount(); }
+            @Override
+            public int edgeCount() { return csr.edgeCount(); }
+            @Override
+            public int degree(int vertex) { return csr.degree(vertex); }
+            @Override
+            public int target(int vertex, int i) { return csr.target(vertex, i); }
+            @Override
+            public int cost(int vertex, int i) { return 1; }
+        });
+        System.out.printf("%nCSR: %.2f bytes per edge, %s, without costs %.2f%n",
+                (double) csrBytes / csr.edgeCount(), compressed, unweighted.bytesPerEdge());
+    }
+
+    @Benchmark
+    public long scanCsr() {
+        long sum = 0;
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            for (int e = csr.firstEdge(v); e < csr.endEdge(v); e++)
+                sum += csr.target(e) + csr.cost(e);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long scanCompressed() {
+        long sum = 0;
+        for (int v = 0; v < compressed.vertexCount(); v++) {
+            final int degree = compressed.targets(v, buffer);
+            for (int i = 0; i < degree; i++)
+                sum += buffer[i];
+            compressed.costs(v, buffer);
+            for (int i = 0; i < degree; i++)
+                sum += buffer[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long scanCompressedAdjacency() {
+        long sum = 0;
+        for (int v = 0; v < compressed.vertexCount(); v++) {
+            for (int i = 0, degree = compressed.degree(v); i < degree; i++)
+                sum += compressed.target(v, i) + compressed.cost(v, i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int[] breadthFirstSearchCsr() {
+        return BreadthFirstTraversal.breadthFirstSearchIds(csr, 0);
+    }
+
+    @Benchmark
+    public int[] breadthFirstSearchCompressed() {
+        return BreadthFirstTraversal.breadthFirstSearchIds(compressed, 0);
+    }
+
+    @Benchmark
+    public int[] depthFirstSearchCsr() {
+        return DepthFirstTraversal.depthFirstSearchIds(csr, 0);
+    }
+
+    @Benchmark
+    public int[] depthFirstSearchCompressed() {
+        return DepthFirstTraversal.depthFirstSearchIds(compressed, 0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.ConcurrentGraph;
+import com.github.graph.ikhideifidon.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read and write throughput: ConcurrentGraph against a Graph behind one global lock, as used until now.
+ * Writers add random edges while readers query degrees, neighbors and edges of random vertices. Run with a larger
+ * -t, or change the group threads, to see how each scales with cores.
+ **/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentGraphBenchmark {
+
+    @Param({"100000"})
+    private int vertexCount;
+
+    @Param({"4"})
+    private int averageDegree;
+
+    private ConcurrentGraph<Integer> concurrent;
+    private Graph<Integer> locked;
+    private final Object lock = new Object();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // Rebuilt every iteration, so the writers do not grow the graphs without bound.
+        final GraphGenerators.EdgeList edges = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount,
+                averageDegree, Graph.TYPE.UNDIRECTED, 17);
+        concurrent = new ConcurrentGraph<>(Graph.TYPE.UNDIRECTED);
+        for (int i = 0; i < edges.vertexCount(); i++)
+            concurrent.addVertex(i);
+        for (int i = 0; i < edges.edgeCount(); i++)
+            concurrent.addEdge(edges.from()[i], edges.to()[i], edges.cost()[i]);
+        locked = edges.toGraph(Graph.TYPE.UNDIRECTED, true);
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(1)
+    public void concurrentWrite() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        concurrent.addEdge(random.nextInt(vertexCount), random.nextInt(vertexCount), random.nextInt(100));
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(3)
+    public int concurrentRead() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int value = random.nextInt(vertexCount);
+        return concurrent.degree(value) + concurrent.neighbors(value).size()
+                + (concurrent.edgeExists(value, random.nextInt(vertexCount)) ? 1 : 0);
+    }
+
+    @Benchmark
+    @Group("globalLock")
+    @GroupThreads(1)
+    public void lockedWrite() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int cost = random.nextInt(100);
+        synchronized (lock) {
+            final Graph.Vertex<Integer> from = locked.getVertex(random.nextInt(vertexCount));
+            final Graph.Vertex<Integer> to = locked.getVertex(random.nextInt(vertexCount));
+            locked.addEdge(new Graph.Edge<>(cost, from, to));
+        }
+    }
+
+    @Benchmark
+    @Group("globalLock")
+    @GroupThreads(3)
+    public int lockedRead() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        synchronized (lock) {
+            final Graph.Vertex<Integer> vertex = locked.getVertex(random.nextInt(vertexCount));
+            return locked.degree(vertex) + locked.neighbors(vertex).size()
+                    + (locked.edgeExists(vertex, locked.getVertex(random.nextInt(vertexCount))) ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.ConnectivityIndex;
+import com.github.graph.ikhideifidon.DepthFirstPaths;
+import com.github.graph.ikhideifidon.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reachability between two random vertices of an UNDIRECTED graph: one union-find lookup of the connectivity index
+ * against a depth first search from one of them, and the cost of adding an edge with and without the index kept
+ * current. The graphs are indexed, so addEdge finds its end vertices by hash. offlineBuild indexes the loaded graph
+ * from scratch, with 1 to 16 threads.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ConnectivityIndexBenchmark {
+
+    @Param({"ERDOS_RENYI", "RMAT"})
+    private GraphGenerators.Shape shape;
+
+    @Param({"1000000"})
+    private int vertexCount;
+
+    @Param({"4"})
+    private int averageDegree;
+
+    private GraphGenerators.EdgeList edges;
+    private Graph<Integer> graph;
+    private Graph<Integer> tracked;
+    private ConnectivityIndex<Integer> index;
+    private List<Graph.Vertex<Integer>> vertices;
+    private List<Graph.Vertex<Integer>> trackedVertices;
+    private final SplittableRandom random = new SplittableRandom(29);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edges = GraphGenerators.generate(shape, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 29);
+        graph = edges.toGraph(Graph.TYPE.UNDIRECTED, true);
+        vertices = graph.getAllVertices();
+        tracked = edges.toGraph(Graph.TYPE.UNDIRECTED, true);
+        index = tracked.trackConnectivity();
+        trackedVertices = tracked.getAllVertices();
+        System.out.printf("%n%s%n", index);
+    }
+
+    @Benchmark
+    public boolean connectedQuery() {
+        return index.connected(trackedVertices.get(random.nextInt(vertexCount)),
+                trackedVertices.get(random.nextInt(vertexCount)));
+    }
+
+    @Benchmark
+    public boolean depthFirstQuery() {
+        return new DepthFirstPaths<>(graph, vertices.get(random.nextInt(vertexCount)))
+                .hasPathTo(vertices.get(random.nextInt(vertexCount)));
+    }
+
+    @Benchmark
+    public void addEdgeUntracked() {
+        graph.addEdge(new Graph.Edge<>(1, vertices.get(random.nextInt(vertexCount)),
+                vertices.get(random.nextInt(vertexCount))));
+    }
+
+    @Benchmark
+    public void addEdgeTracked() {
+        tracked.addEdge(new Graph.Edge<>(1, trackedVertices.get(random.nextInt(vertexCount)),
+                trackedVertices.get(random.nextInt(vertexCount))));
+    }
+
+    /** A freshly loaded graph for every call, so each one indexes it from scratch as a first trackConnectivity does. **/
+    @State(Scope.Thread)
+    public static class OfflineBuild {
+        @Param({"1", "4", "16"})
+        private int threads;
+
+        private ForkJoinPool pool;
+        private Graph<Integer> fresh;
+
+        @Setup(Level.Trial)
+        public void startPool() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @Setup(Level.Invocation)
+        public void load(ConnectivityIndexBenchmark benchmark) {
+            fresh = benchmark.edges.toGraph(Graph.TYPE.UNDIRECTED, true);
+        }
+
+        @TearDown(Level.Trial)
+        public void stopPool() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ConnectivityIndex<Integer> offlineBuild(OfflineBuild build) {
+        return build.pool.invoke(ForkJoinTask.adapt(build.fresh::trackConnectivity));
+    }
+}
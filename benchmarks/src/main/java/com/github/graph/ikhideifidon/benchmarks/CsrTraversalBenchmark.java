@@ -0,0 +1,80 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.DepthFirstPaths;
+import com.github.graph.ikhideifidon.DepthFirstTraversal;
+import com.github.graph.ikhideifidon.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Traversals over the pointer based Graph against the same traversals over a Graph snapshot and a CSR snapshot. **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+@State(Scope.Benchmark)
+public class CsrTraversalBenchmark {
+
+    @Param({"100000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    private Graph<Integer> graph;
+    private CsrGraph<Integer> csr;
+    private Graph.Vertex<Integer> source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 11)
+                .toGraph(Graph.TYPE.UNDIRECTED, true);
+        csr = graph.freeze();
+        source = graph.getAllVertices().get(0);
+        System.out.printf("%nCSR footprint: %d bytes for %d vertices and %d edges%n",
+                csr.footprintBytes(), csr.vertexCount(), csr.edgeCount());
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearchGraph() {
+        return BreadthFirstTraversal.breadthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearchCsr() {
+        return BreadthFirstTraversal.breadthFirstSearch(csr, source.getValue());
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearchSnapshot() {
+        return BreadthFirstTraversal.breadthFirstSearch(graph.snapshot(), source);
+    }
+
+    @Benchmark
+    public Object[] depthFirstSearchGraph() {
+        return DepthFirstTraversal.depthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public Object[] depthFirstSearchCsr() {
+        return DepthFirstTraversal.depthFirstSearch(csr, source.getValue());
+    }
+
+    @Benchmark
+    public Object[] depthFirstSearchSnapshot() {
+        return DepthFirstTraversal.depthFirstSearch(graph.snapshot(), source);
+    }
+
+    @Benchmark
+    public DepthFirstPaths<Integer> depthFirstPathsCsr() {
+        return new DepthFirstPaths<>(csr, source.getValue());
+    }
+
+    @Benchmark
+    public CsrGraph<Integer> freeze() {
+        return graph.freeze();
+    }
+}
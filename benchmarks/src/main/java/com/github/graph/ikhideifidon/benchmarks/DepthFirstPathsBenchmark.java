@@ -0,0 +1,58 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.DepthFirstPaths;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.GraphBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Search and path queries on a long chain, which a recursive search cannot handle past a few thousand vertices. **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DepthFirstPathsBenchmark {
+
+    @Param({"1000000"})
+    private int chainLength;
+
+    private Graph<Integer> graph;
+    private DepthFirstPaths<Integer> paths;
+    private List<Graph.Vertex<Integer>> destinations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<Graph.Vertex<Integer>> vertices = new ArrayList<>(chainLength);
+        for (int i = 0; i < chainLength; i++)
+            vertices.add(new Graph.Vertex<>(i));
+        final GraphBuilder<Integer> builder = new GraphBuilder<Integer>(Graph.TYPE.DIRECTED).addVertices(vertices);
+        for (int i = 0; i + 1 < chainLength; i++)
+            builder.addEdge(new Graph.Edge<>(1, vertices.get(i), vertices.get(i + 1)));
+        graph = builder.build();
+        paths = new DepthFirstPaths<>(graph, vertices.get(0));
+
+        destinations = new ArrayList<>();
+        for (int i = chainLength - 1; i > 0; i /= 2)
+            destinations.add(vertices.get(i));
+    }
+
+    @Benchmark
+    public DepthFirstPaths<Integer> search() {
+        return new DepthFirstPaths<>(graph, graph.getAllVertices().get(0));
+    }
+
+    @Benchmark
+    public boolean hasPathTo() {
+        return paths.hasPathTo(destinations.get(0));
+    }
+
+    @Benchmark
+    public List<Iterable<Graph.Vertex<Integer>>> batchPathsTo() {
+        return paths.pathsTo(destinations);
+    }
+}
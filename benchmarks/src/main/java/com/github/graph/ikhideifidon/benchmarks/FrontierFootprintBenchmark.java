@@ -0,0 +1,99 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frontier memory of breadth and depth first searches on power law graphs, whose hubs made the former searches, that
+ * queued every neighbour and checked for visited vertices on dequeue, hold one entry per edge scanned. The peak
+ * frontier of those searches, reproduced here, and of the library's, which mark vertices on discovery, is printed at
+ * the start of each trial. Run with -prof gc to compare the bytes allocated per search as well.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FrontierFootprintBenchmark {
+
+    @Param({"100000"})
+    private int vertexCount;
+
+    @Param({"16", "64"})
+    private int averageDegree;
+
+    private Graph<Integer> graph;
+    private Graph.Vertex<Integer> source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerators.generate(GraphGenerators.Shape.RMAT, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED,
+                61).toGraph(Graph.TYPE.UNDIRECTED, false);
+        // The largest hub, where the frontier of the former searches grew fastest.
+        source = graph.getAllVertices().get(0);
+        for (Graph.Vertex<Integer> vertex : graph.getAllVertices()) {
+            if (vertex.getEdges().size() > source.getEdges().size())
+                source = vertex;
+        }
+
+        final Map<String, Integer> peaks = new HashMap<>();
+        Instrumentation.setListener(metrics -> peaks.put(metrics.operation(), metrics.peakFrontier()));
+        BreadthFirstTraversal.breadthFirstSearch(graph, source);
+        DepthFirstTraversal.depthFirstSearch(graph, source);
+        Instrumentation.setListener(null);
+        System.out.printf("%nEdges: %d, peak frontier: BFS %d -> %d, DFS %d -> %d%n", graph.getAllEdges().size(),
+                pushAllPeak(graph, source, true), peaks.get("BreadthFirstTraversal.breadthFirstSearch"),
+                pushAllPeak(graph, source, false), peaks.get("DepthFirstTraversal.depthFirstSearch"));
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearch() {
+        return BreadthFirstTraversal.breadthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearchPushAll() {
+        return pushAll(graph, source, true, null);
+    }
+
+    @Benchmark
+    public Object[] depthFirstSearch() {
+        return DepthFirstTraversal.depthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public Object[] depthFirstSearchPushAll() {
+        return pushAll(graph, source, false, null);
+    }
+
+    private static int pushAllPeak(Graph<Integer> graph, Graph.Vertex<Integer> source, boolean breadthFirst) {
+        final int[] peak = new int[1];
+        pushAll(graph, source, breadthFirst, peak);
+        return peak[0];
+    }
+
+    /** The former searches: every neighbour is queued or pushed, visited vertices are skipped when taken out. **/
+    private static Object[] pushAll(Graph<Integer> graph, Graph.Vertex<Integer> source, boolean breadthFirst, int[] peak) {
+        final Deque<Graph.Vertex<Integer>> frontier = new ArrayDeque<>();
+        final Set<Graph.Vertex<Integer>> visited = new HashSet<>();
+        final Object[] result = new Object[graph.getAllVertices().size()];
+        frontier.add(source);
+
+        int i = 0;
+        while (!frontier.isEmpty()) {
+            final Graph.Vertex<Integer> current = breadthFirst ? frontier.pollFirst() : frontier.pollLast();
+            if (visited.add(current)) {
+                result[i++] = current.getValue();
+                for (Graph.Edge<Integer> edge : current.getEdges())
+                    frontier.addLast(edge.getTo());
+                if (peak != null)
+                    peak[0] = Math.max(peak[0], frontier.size());
+            }
+        }
+        return result;
+    }
+}
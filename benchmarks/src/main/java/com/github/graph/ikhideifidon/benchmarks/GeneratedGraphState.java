@@ -0,0 +1,45 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+/**
+ * A generated graph shared by the benchmark suites, e.g. -p shape=RMAT -p scale=1000000 -p averageDegree=16.
+ * Vertex i of getAllVertices() holds the value i and has the CSR id i.
+ **/
+@State(Scope.Benchmark)
+public class GeneratedGraphState {
+
+    @Param({"ERDOS_RENYI", "RMAT", "GRID", "CHAIN"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"100000"})
+    public int scale;
+
+    @Param({"8"})
+    public int averageDegree;
+
+    @Param({"UNDIRECTED"})
+    public Graph.TYPE type;
+
+    @Param({"42"})
+    public long seed;
+
+    public GraphGenerators.EdgeList edgeList;
+    public Graph<Integer> graph;
+    public CsrGraph<Integer> csr;
+    public List<Graph.Vertex<Integer>> vertices;
+    public Graph.Vertex<Integer> source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edgeList = GraphGenerators.generate(shape, scale, averageDegree, type, seed);
+        graph = edgeList.toGraph(type, false);
+        csr = graph.freeze();
+        vertices = graph.getAllVertices();
+        source = vertices.get(0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.GraphBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk construction time against the number of builder threads. Building mutates the vertices, so every
+ * measurement gets fresh input and runs once.
+ **/
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class GraphBuilderBenchmark {
+
+    @Param({"ERDOS_RENYI", "RMAT"})
+    private GraphGenerators.Shape shape;
+
+    @Param({"1000000"})
+    private int scale;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    @Param({"NONE", "HASH"})
+    private GraphBuilder.Dedup dedup;
+
+    private GraphGenerators.EdgeList edgeList;
+    private List<Graph.Vertex<Integer>> vertices;
+    private List<Graph.Edge<Integer>> edges;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        edgeList = GraphGenerators.generate(shape, scale, averageDegree, Graph.TYPE.UNDIRECTED, 3);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        vertices = edgeList.newVertices();
+        edges = edgeList.newEdges(vertices);
+    }
+
+    @Benchmark
+    public Graph<Integer> builder() {
+        return new GraphBuilder<Integer>()
+                .addVertices(vertices)
+                .addEdges(edges)
+                .dedup(dedup)
+                .parallelism(threads)
+                .build();
+    }
+
+    @Benchmark
+    public Graph<Integer> constructor() {
+        return new Graph<>(vertices, edges);
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graph equality on a million edge graph: telling apart graphs of the same size that differ by one edge, which the
+ * fingerprint does in O(1), against confirming two equal graphs, which still compares everything. Also hashCode and
+ * the HashSet lookup used to deduplicate graphs.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GraphEqualityBenchmark {
+
+    @Param({"250000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    private Graph<Integer> graph;
+    private Graph<Integer> reordered;           // Equal to graph, its vertices inserted in reverse order.
+    private Graph<Integer> oneEdgeMoved;
+    private Set<Graph<Integer>> cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final GraphGenerators.EdgeList edges = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount,
+                averageDegree, Graph.TYPE.UNDIRECTED, 43);
+        graph = edges.toGraph(Graph.TYPE.UNDIRECTED, false);
+
+        // Adjacency lists keep their order, as Vertex.equals compares edge costs in order.
+        final List<Graph.Vertex<Integer>> vertices = edges.newVertices();
+        final List<Graph.Edge<Integer>> wired = edges.newEdges(vertices);
+        final List<Graph.Vertex<Integer>> reversed = new ArrayList<>(vertices);
+        Collections.reverse(reversed);
+        reordered = new Graph<>(Graph.TYPE.UNDIRECTED, reversed, wired);
+
+        // Same counts, so the size checks pass and only the fingerprint can tell them apart quickly.
+        final int[] to = edges.to().clone();
+        to[0] = (to[0] + 1) % vertexCount;
+        oneEdgeMoved = new GraphGenerators.EdgeList(vertexCount, edges.from(), to, edges.cost())
+                .toGraph(Graph.TYPE.UNDIRECTED, false);
+
+        cache = new HashSet<>();
+        cache.add(graph);
+        System.out.printf("%nEdges: %d, equal: %b%n", graph.getAllEdges().size(), graph.equals(reordered));
+    }
+
+    @Benchmark
+    public boolean equalsMismatch() {
+        return graph.equals(oneEdgeMoved);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public boolean equalsEqual() {
+        return graph.equals(reordered);
+    }
+
+    @Benchmark
+    public int hashCodeGraph() {
+        return graph.hashCode();
+    }
+
+    @Benchmark
+    public boolean cacheMiss() {
+        return cache.contains(oneEdgeMoved);
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.GraphFile;
+import com.github.graph.ikhideifidon.MappedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost: rebuilding a Graph from a text edge list against mapping the binary graph file, and what it costs to
+ * then traverse the mapping, read it back into a Graph or write it.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphFileBenchmark {
+
+    @Param({"100000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    private Graph<Integer> graph;
+    private Path text;
+    private Path binary;
+    private Path scratch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final GraphGenerators.EdgeList edges = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount,
+                averageDegree, Graph.TYPE.UNDIRECTED, 29);
+        graph = edges.toGraph(Graph.TYPE.UNDIRECTED, false);
+
+        // The text format: the vertex count, then one "from to cost" line per edge.
+        text = Files.createTempFile("graph", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(text)) {
+            writer.write(Integer.toString(edges.vertexCount()));
+            writer.newLine();
+            for (int i = 0; i < edges.from().length; i++) {
+                writer.write(edges.from()[i] + " " + edges.to()[i] + " " + edges.cost()[i]);
+                writer.newLine();
+            }
+        }
+        binary = Files.createTempFile("graph", ".ugdf");
+        GraphFile.write(graph, binary, GraphFile.Codec.INTEGER);
+        scratch = Files.createTempFile("graph", ".ugdf");
+        System.out.printf("%nText file: %d bytes, binary file: %d bytes%n", Files.size(text), Files.size(binary));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(text);
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(scratch);
+    }
+
+    @Benchmark
+    public Graph<Integer> loadFromText() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(text)) {
+            final int n = Integer.parseInt(reader.readLine());
+            final List<Graph.Vertex<Integer>> vertices = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                vertices.add(new Graph.Vertex<>(i));
+            final List<Graph.Edge<Integer>> edges = new ArrayList<>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final String[] fields = line.split(" ");
+                edges.add(new Graph.Edge<>(Integer.parseInt(fields[2]), vertices.get(Integer.parseInt(fields[0])),
+                        vertices.get(Integer.parseInt(fields[1]))));
+            }
+            return new Graph<>(Graph.TYPE.UNDIRECTED, vertices, edges);
+        }
+    }
+
+    // Mappings are only released by the garbage collector, so the opening benchmarks time single calls rather than
+    // piling up thousands of mappings per second.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 50)
+    public MappedGraph<Integer> openMapped() throws IOException {
+        return MappedGraph.open(binary, GraphFile.Codec.INTEGER);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 50)
+    public int[] openMappedAndTraverse() throws IOException {
+        return BreadthFirstTraversal.breadthFirstSearchIds(MappedGraph.open(binary, GraphFile.Codec.INTEGER), 0);
+    }
+
+    @Benchmark
+    public Graph<Integer> readBackGraph() throws IOException {
+        return MappedGraph.open(binary, GraphFile.Codec.INTEGER).toGraph();
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        GraphFile.write(graph, scratch, GraphFile.Codec.INTEGER);
+        return scratch;
+    }
+}
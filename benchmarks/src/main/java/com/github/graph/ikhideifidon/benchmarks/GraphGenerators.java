@@ -0,0 +1,199 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.GraphBuilder;
+import com.github.graph.ikhideifidon.IntGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded synthetic graphs for the benchmarks. A generator produces a plain edge list over the vertex values
+ * 0 .. vertexCount - 1, which can then be turned into fresh Vertex and Edge objects (for the Graph constructor) or
+ * into a Graph built by GraphBuilder. The same seed always gives the same graph.
+ **/
+public final class GraphGenerators {
+
+    public enum Shape {
+        /** G(n, m): every edge joins a uniformly random pair of vertices. **/
+        ERDOS_RENYI,
+        /** R-MAT with (a, b, c, d) = (0.57, 0.19, 0.19, 0.05): power law degrees, a few huge hubs. **/
+        RMAT,
+        /** A square grid with random costs, road network like, of high diameter. **/
+        GRID,
+        /** A single path through the vertices in random order, the worst case for depth. **/
+        CHAIN,
+    }
+
+    /** Edge i joins from[i] to to[i] at cost[i]. **/
+    public record EdgeList(int vertexCount, int[] from, int[] to, int[] cost) {
+
+        int edgeCount() { return from.length; }
+
+        List<Graph.Vertex<Integer>> newVertices() {
+            final List<Graph.Vertex<Integer>> vertices = new ArrayList<>(vertexCount);
+            for (int i = 0; i < vertexCount; i++)
+                vertices.add(new Graph.Vertex<>(i));
+            return vertices;
+        }
+
+        List<Graph.Edge<Integer>> newEdges(List<Graph.Vertex<Integer>> vertices) {
+            final List<Graph.Edge<Integer>> edges = new ArrayList<>(from.length);
+            for (int i = 0; i < from.length; i++)
+                edges.add(new Graph.Edge<>(cost[i], vertices.get(from[i]), vertices.get(to[i])));
+            return edges;
+        }
+
+        /**
+         * The same graph with its vertex ids randomly permuted, as if the vertices had been inserted in an order
+         * unrelated to the edges.
+         **/
+        EdgeList shuffled(long seed) {
+            final int[] id = new int[vertexCount];
+            for (int i = 0; i < vertexCount; i++)
+                id[i] = i;
+            final Random random = new Random(seed);
+            for (int i = vertexCount - 1; i > 0; i--) {
+                final int j = random.nextInt(i + 1);
+                final int swap = id[i];
+                id[i] = id[j];
+                id[j] = swap;
+            }
+            final int[] newFrom = new int[from.length];
+            final int[] newTo = new int[to.length];
+            for (int i = 0; i < from.length; i++) {
+                newFrom[i] = id[from[i]];
+                newTo[i] = id[to[i]];
+            }
+            return new EdgeList(vertexCount, newFrom, newTo, cost);
+        }
+
+        /** A Graph whose getAllVertices() lists vertex i at index i. **/
+        Graph<Integer> toGraph(Graph.TYPE type, boolean indexed) {
+            final List<Graph.Vertex<Integer>> vertices = newVertices();
+            return new GraphBuilder<Integer>(type)
+                    .addVertices(vertices)
+                    .addEdges(newEdges(vertices))
+                    .indexed(indexed)
+                    .build();
+        }
+
+        /** The same graph as an IntGraph, whose vertex i has key i and index i. **/
+        IntGraph toIntGraph(Graph.TYPE type) {
+            final IntGraph graph = new IntGraph(type, vertexCount);
+            for (int i = 0; i < vertexCount; i++)
+                graph.addVertex(i);
+            for (int i = 0; i < from.length; i++)
+                graph.addEdge(from[i], to[i], cost[i]);
+            graph.trimToSize();
+            return graph;
+        }
+    }
+
+    private GraphGenerators() { }
+
+    /**
+     * A graph of the given shape with about scale vertices and averageDegree edges per vertex in the built Graph
+     * (for an UNDIRECTED Graph, half as many input edges, as each one is also stored reversed).
+     **/
+    static EdgeList generate(Shape shape, int scale, int averageDegree, Graph.TYPE type, long seed) {
+        final long edgeCount = type == Graph.TYPE.UNDIRECTED ? (long) scale * averageDegree / 2 : (long) scale * averageDegree;
+        return switch (shape) {
+            case ERDOS_RENYI -> erdosRenyi(scale, edgeCount, seed);
+            case RMAT -> rmat(32 - Integer.numberOfLeadingZeros(Math.max(1, scale - 1)), edgeCount, seed);
+            case GRID -> {
+                final int side = (int) Math.ceil(Math.sqrt(scale));
+                yield grid(side, side, 10, seed);
+            }
+            case CHAIN -> chain(scale, seed);
+        };
+    }
+
+    static EdgeList erdosRenyi(int vertexCount, long edgeCount, long seed) {
+        final Random random = new Random(seed);
+        final int m = Math.toIntExact(edgeCount);
+        final int[] from = new int[m], to = new int[m], cost = new int[m];
+        for (int e = 0; e < m; e++) {
+            from[e] = random.nextInt(vertexCount);
+            to[e] = random.nextInt(vertexCount);
+            cost[e] = 1 + random.nextInt(100);
+        }
+        return new EdgeList(vertexCount, from, to, cost);
+    }
+
+    /** R-MAT over 2^scale vertices (Chakrabarti, Zhan and Faloutsos). **/
+    static EdgeList rmat(int scale, long edgeCount, long seed) {
+        final double a = 0.57, b = 0.19, c = 0.19;
+        final Random random = new Random(seed);
+        final int m = Math.toIntExact(edgeCount);
+        final int[] from = new int[m], to = new int[m], cost = new int[m];
+        for (int e = 0; e < m; e++) {
+            int u = 0, v = 0;
+            for (int bit = scale - 1; bit >= 0; bit--) {
+                final double p = random.nextDouble();
+                if (p < a)
+                    continue;
+                if (p < a + b)
+                    v |= 1 << bit;
+                else if (p < a + b + c)
+                    u |= 1 << bit;
+                else {
+                    u |= 1 << bit;
+                    v |= 1 << bit;
+                }
+            }
+            from[e] = u;
+            to[e] = v;
+            cost[e] = 1 + random.nextInt(100);
+        }
+        return new EdgeList(1 << scale, from, to, cost);
+    }
+
+    /** A width x height grid with random costs in 1..maxCost. Vertex y * width + x sits at (x, y). **/
+    static EdgeList grid(int width, int height, int maxCost, long seed) {
+        final Random random = new Random(seed);
+        final int m = (width - 1) * height + width * (height - 1);
+        final int[] from = new int[m], to = new int[m], cost = new int[m];
+        int e = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                final int v = y * width + x;
+                if (x + 1 < width) {
+                    from[e] = v;
+                    to[e] = v + 1;
+                    cost[e++] = 1 + random.nextInt(maxCost);
+                }
+                if (y + 1 < height) {
+                    from[e] = v;
+                    to[e] = v + width;
+                    cost[e++] = 1 + random.nextInt(maxCost);
+                }
+            }
+        }
+        return new EdgeList(width * height, from, to, cost);
+    }
+
+    /** A path visiting all vertices in a random order, starting at vertex 0. **/
+    static EdgeList chain(int vertexCount, long seed) {
+        final Random random = new Random(seed);
+        final int[] order = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++)
+            order[i] = i;
+        for (int i = vertexCount - 1; i > 1; i--) {
+            final int j = 1 + random.nextInt(i);
+            final int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        final int m = Math.max(0, vertexCount - 1);
+        final int[] from = new int[m], to = new int[m], cost = new int[m];
+        for (int e = 0; e < m; e++) {
+            from[e] = order[e];
+            to[e] = order[e + 1];
+            cost[e] = 1 + random.nextInt(100);
+        }
+        return new EdgeList(vertexCount, from, to, cost);
+    }
+}
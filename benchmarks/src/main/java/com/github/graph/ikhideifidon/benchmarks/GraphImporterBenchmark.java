@@ -0,0 +1,90 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.GraphImporter;
+import com.github.graph.ikhideifidon.IntGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import of a SNAP edge list: the chunked byte level importer, at each parallelism, against a BufferedReader
+ * that splits every line into Strings. The file size is printed at setup, so the scores convert to MB/s.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class GraphImporterBenchmark {
+
+    @Param({"200000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private Path text;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final GraphGenerators.EdgeList edges = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount,
+                averageDegree, Graph.TYPE.DIRECTED, 31);
+        text = Files.createTempFile("graph", ".snap");
+        try (BufferedWriter writer = Files.newBufferedWriter(text)) {
+            writer.write("# Directed graph: " + edges.vertexCount() + " nodes");
+            writer.newLine();
+            for (int i = 0; i < edges.from().length; i++) {
+                writer.write(edges.from()[i] + "\t" + edges.to()[i] + "\t" + edges.cost()[i]);
+                writer.newLine();
+            }
+        }
+        System.out.printf("%nEdge list: %d bytes, %d edges%n", Files.size(text), edges.from().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(text);
+    }
+
+    @Benchmark
+    public IntGraph importIntGraph() throws IOException {
+        return new GraphImporter(GraphImporter.Format.SNAP, Graph.TYPE.DIRECTED).parallelism(parallelism)
+                .readIntGraph(text);
+    }
+
+    @Benchmark
+    public Graph<Integer> importGraph() throws IOException {
+        return new GraphImporter(GraphImporter.Format.SNAP, Graph.TYPE.DIRECTED).parallelism(parallelism).read(text);
+    }
+
+    /** The same Graph, read line by line with String.split and Integer.parseInt. **/
+    @Benchmark
+    public Graph<Integer> splitLines() throws IOException {
+        final Map<Integer, Graph.Vertex<Integer>> vertices = new HashMap<>();
+        final List<Graph.Edge<Integer>> edges = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(text)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith("#"))
+                    continue;
+                final String[] fields = line.split("\t");
+                final Graph.Vertex<Integer> from = vertices.computeIfAbsent(Integer.parseInt(fields[0]), Graph.Vertex::new);
+                final Graph.Vertex<Integer> to = vertices.computeIfAbsent(Integer.parseInt(fields[1]), Graph.Vertex::new);
+                edges.add(new Graph.Edge<>(Integer.parseInt(fields[2]), from, to));
+            }
+        }
+        final List<Graph.Vertex<Integer>> sorted = new ArrayList<>(vertices.values());
+        sorted.sort(Comparator.comparing(Graph.Vertex::getValue));
+        return new Graph<>(Graph.TYPE.DIRECTED, sorted, edges);
+    }
+}
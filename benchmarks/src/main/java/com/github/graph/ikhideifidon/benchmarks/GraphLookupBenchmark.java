@@ -0,0 +1,67 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Indexed lookups against the linear scans of an unindexed Graph. **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphLookupBenchmark {
+
+    @Param({"1000", "100000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private Graph<Integer> graph;
+    private List<Graph.Vertex<Integer>> vertices;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 7)
+                .toGraph(Graph.TYPE.UNDIRECTED, indexed);
+        vertices = graph.getAllVertices();
+    }
+
+    private Graph.Vertex<Integer> anyVertex() {
+        return vertices.get(random.nextInt(vertexCount));
+    }
+
+    @Benchmark
+    public List<Graph.Edge<Integer>> neighbors() {
+        return graph.neighbors(anyVertex());
+    }
+
+    @Benchmark
+    public int degree() {
+        return graph.degree(anyVertex());
+    }
+
+    @Benchmark
+    public boolean edgeExists() {
+        return graph.edgeExists(anyVertex(), anyVertex());
+    }
+
+    @Benchmark
+    public Graph.Edge<Integer> getEdge() {
+        return anyVertex().getEdge(anyVertex());
+    }
+
+    @Benchmark
+    public boolean pathTo() {
+        return anyVertex().pathTo(anyVertex());
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.GraphStatistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Graph queries on every generated shape. Reports throughput and, through SampleTime, latency percentiles.
+ * Add -prof gc for allocation per operation.
+ **/
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class GraphOperationsBenchmark {
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Graph<Integer> graph;
+    private Graph<Integer> copy;
+    private List<Graph.Vertex<Integer>> vertices;
+    private final Random random = new Random(29);
+
+    @Setup(Level.Trial)
+    public void setUp(GeneratedGraphState state) {
+        graph = indexed ? state.edgeList.toGraph(state.type, true) : state.graph;
+        copy = state.edgeList.toGraph(state.type, false);
+        vertices = graph.getAllVertices();
+    }
+
+    private Graph.Vertex<Integer> anyVertex() {
+        return vertices.get(random.nextInt(vertices.size()));
+    }
+
+    @Benchmark
+    public List<Graph.Edge<Integer>> neighbors() {
+        return graph.neighbors(anyVertex());
+    }
+
+    @Benchmark
+    public int degree() {
+        return graph.degree(anyVertex());
+    }
+
+    @Benchmark
+    public boolean edgeExists() {
+        return graph.edgeExists(anyVertex(), anyVertex());
+    }
+
+    @Benchmark
+    public int maximumDegree() {
+        return graph.maximumDegree();
+    }
+
+    @Benchmark
+    public int numberOfSelfLoop() {
+        return graph.numberOfSelfLoop();
+    }
+
+    /** The full scan that maximumDegree and numberOfSelfLoop used to run, now only done to validate the statistics. **/
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GraphStatistics recomputeStatistics() {
+        return graph.recomputeStatistics();
+    }
+
+    @Benchmark
+    public boolean equalsStructuralCopy() {
+        return graph.equals(copy);
+    }
+
+    @Benchmark
+    public int hashCodeGraph() {
+        return graph.hashCode();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void constructor(ConstructorInput input, Blackhole blackhole) {
+        blackhole.consume(new Graph<>(input.type, input.vertices, input.edges));
+    }
+
+    /** Fresh vertices and edges for every constructor call, since connecting them mutates the vertices. **/
+    @State(Scope.Thread)
+    public static class ConstructorInput {
+        Graph.TYPE type;
+        List<Graph.Vertex<Integer>> vertices;
+        List<Graph.Edge<Integer>> edges;
+
+        @Setup(Level.Iteration)
+        public void setUp(GeneratedGraphState state) {
+            type = state.type;
+            vertices = state.edgeList.newVertices();
+            edges = state.edgeList.newEdges(vertices);
+        }
+    }
+}
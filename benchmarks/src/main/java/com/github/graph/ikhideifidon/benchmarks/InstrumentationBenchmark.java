@@ -0,0 +1,88 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The cost of Instrumentation on traversals and lookups: disabled, reporting to a listener, and emitting JFR events.
+ * For the disabled case to be compared with no instrumentation at all, run TraversalContextBenchmark and
+ * GraphLookupBenchmark on this and on the previous version of the library.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+
+    public enum Mode {
+        DISABLED, LISTENER, FLIGHT_RECORDER,
+    }
+
+    @Param({"DISABLED", "LISTENER", "FLIGHT_RECORDER"})
+    private Mode mode;
+
+    @Param({"10000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    private Graph<Integer> graph;
+    private CsrGraph<Integer> csr;
+    private TraversalContext context;
+    private Graph.Vertex<Integer> source;
+    private Graph.Vertex<Integer> probe;
+    private final LongAdder visited = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Not indexed, so that degree is the scan Instrumentation reports on.
+        graph = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, averageDegree,
+                Graph.TYPE.UNDIRECTED, 59).toGraph(Graph.TYPE.UNDIRECTED, false);
+        csr = graph.freeze();
+        context = new TraversalContext();
+        final List<Graph.Vertex<Integer>> vertices = graph.getAllVertices();
+        source = vertices.get(0);
+        probe = vertices.get(vertexCount / 2);
+
+        Instrumentation.setListener(mode == Mode.LISTENER ? metrics -> visited.add(metrics.verticesVisited()) : null);
+        Instrumentation.setFlightRecorderEnabled(mode == Mode.FLIGHT_RECORDER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Instrumentation.setListener(null);
+        Instrumentation.setFlightRecorderEnabled(false);
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearchGraph() {
+        return BreadthFirstTraversal.breadthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public int breadthFirstSearchContext() {
+        return BreadthFirstTraversal.breadthFirstSearchIds(csr, 0, context);
+    }
+
+    @Benchmark
+    public int depthFirstSearchContext() {
+        return DepthFirstTraversal.depthFirstSearchIds(csr, 0, context);
+    }
+
+    @Benchmark
+    public DepthFirstPaths<Integer> depthFirstPathsCsr() {
+        return new DepthFirstPaths<>(csr, 0);
+    }
+
+    @Benchmark
+    public int degreeScan() {
+        return graph.degree(probe);
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.DepthFirstTraversal;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.IntGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * IntGraph against Graph&lt;Integer&gt; on the same edges: building, traversing and looking up.
+ * The setup prints the retained heap per vertex of both, measured around a full collection.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+@State(Scope.Benchmark)
+public class IntGraphBenchmark {
+
+    @Param({"100000"})
+    private int vertexCount;
+
+    @Param({"0", "8"})
+    private int averageDegree;
+
+    @Param({"UNDIRECTED"})
+    private Graph.TYPE type;
+
+    private GraphGenerators.EdgeList edges;
+    private Graph<Integer> graph;
+    private IntGraph intGraph;
+    private Graph.Vertex<Integer> source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edges = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, averageDegree, type, 13);
+        final long graphBytes = retained(() -> edges.toGraph(type, true));
+        final long intGraphBytes = retained(() -> edges.toIntGraph(type));
+        System.out.printf("%nRetained heap per vertex: Graph %d bytes, IntGraph %d bytes%n",
+                graphBytes / vertexCount, intGraphBytes / vertexCount);
+
+        graph = edges.toGraph(type, true);
+        intGraph = edges.toIntGraph(type);
+        source = graph.getAllVertices().get(0);
+    }
+
+    private static long retained(Supplier<Object> factory) {
+        final Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        final long before = runtime.totalMemory() - runtime.freeMemory();
+        final Object kept = factory.get();
+        System.gc();
+        final long after = runtime.totalMemory() - runtime.freeMemory();
+        if (kept.hashCode() == 42)      // Keeps the graph reachable until the second measurement.
+            System.out.print("");
+        return after - before;
+    }
+
+    @Benchmark
+    public Graph<Integer> buildGraph() {
+        return edges.toGraph(type, true);
+    }
+
+    @Benchmark
+    public IntGraph buildIntGraph() {
+        return edges.toIntGraph(type);
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearchGraph() {
+        return BreadthFirstTraversal.breadthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public int[] breadthFirstSearchIntGraph() {
+        return BreadthFirstTraversal.breadthFirstSearch(intGraph, 0);
+    }
+
+    @Benchmark
+    public Object[] depthFirstSearchGraph() {
+        return DepthFirstTraversal.depthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public int[] depthFirstSearchIntGraph() {
+        return DepthFirstTraversal.depthFirstSearch(intGraph, 0);
+    }
+
+    @Benchmark
+    public int degreeSumGraph() {
+        int sum = 0;
+        for (Graph.Vertex<Integer> vertex : graph.getAllVertices())
+            sum += graph.degree(vertex);
+        return sum;
+    }
+
+    @Benchmark
+    public int degreeSumIntGraph() {
+        int sum = 0;
+        for (int key = 0; key < vertexCount; key++)
+            sum += intGraph.degreeOf(key);
+        return sum;
+    }
+}
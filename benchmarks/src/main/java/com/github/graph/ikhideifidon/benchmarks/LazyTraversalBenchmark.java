@@ -0,0 +1,60 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.LazyTraversal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/** "First match within a few hops" answered by the lazy traversal against a full eager search. **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LazyTraversalBenchmark {
+
+    @Param({"100000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    @Param({"3"})
+    private int maxDepth;
+
+    private Graph<Integer> graph;
+    private Graph.Vertex<Integer> source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 17)
+                .toGraph(Graph.TYPE.UNDIRECTED, true);
+        source = graph.getAllVertices().get(0);
+    }
+
+    private static boolean matches(Integer value) {
+        return value % 1000 == 999;
+    }
+
+    @Benchmark
+    public Optional<Integer> lazyFirstMatch() {
+        return LazyTraversal.breadthFirst(source).maxDepth(maxDepth).stream()
+                .filter(LazyTraversalBenchmark::matches)
+                .findFirst();
+    }
+
+    @Benchmark
+    public Integer eagerFirstMatch() {
+        // The eager search returns an Object[] typed as T[], so it must not be read as an Integer[].
+        final Object[] visited = BreadthFirstTraversal.breadthFirstSearch(graph, source);
+        for (Object value : visited) {
+            if (value != null && matches((Integer) value))
+                return (Integer) value;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.MinimumSpanningForest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the parallel Boruvka minimum spanning forest with the number of threads, against the sequential
+ * filter-Kruskal and against Kruskal over the sorted Graph.getAllEdges(). The total costs are checked to agree at the
+ * start of each trial. Raise vertexCount and averageDegree (-p vertexCount=10000000 -p averageDegree=20
+ * -jvmArgs -Xmx48g) to reach 100M edge graphs.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MinimumSpanningForestBenchmark {
+
+    @Param({"1000000"})
+    private int vertexCount;
+
+    @Param({"16"})
+    private int averageDegree;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int threads;
+
+    private Graph<Integer> graph;
+    private CsrGraph<Integer> csr;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 67)
+                .toGraph(Graph.TYPE.UNDIRECTED, true);
+        csr = graph.freeze();
+
+        final long boruvka = MinimumSpanningForest.boruvka(csr, threads).totalCost();
+        final long filterKruskal = MinimumSpanningForest.filterKruskal(csr).totalCost();
+        final long sortedEdges = sortedEdges(graph);
+        if (boruvka != filterKruskal || boruvka != sortedEdges)
+            throw new IllegalStateException("Total costs differ: " + boruvka + ", " + filterKruskal + ", " + sortedEdges);
+        System.out.printf("%nEdges: %d, forest cost: %d%n", csr.edgeCount(), boruvka);
+    }
+
+    @Benchmark
+    public MinimumSpanningForest.Result boruvka() {
+        return MinimumSpanningForest.boruvka(csr, threads);
+    }
+
+    @Benchmark
+    public MinimumSpanningForest.Result filterKruskal() {
+        return MinimumSpanningForest.filterKruskal(csr);
+    }
+
+    @Benchmark
+    public long sortedEdges() {
+        return sortedEdges(graph);
+    }
+
+    /** Kruskal as it could be written before: sort every Edge, then join the trees with a boxed union-find. **/
+    private static long sortedEdges(Graph<Integer> graph) {
+        final List<Graph.Edge<Integer>> edges = new ArrayList<>(graph.getAllEdges());
+        edges.sort(Comparator.comparingInt(Graph.Edge::getCost));
+        final Map<Graph.Vertex<Integer>, Graph.Vertex<Integer>> parent = new HashMap<>();
+        long total = 0;
+        for (Graph.Edge<Integer> edge : edges) {
+            final Graph.Vertex<Integer> from = find(parent, edge.getFrom());
+            final Graph.Vertex<Integer> to = find(parent, edge.getTo());
+            if (from != to) {
+                parent.put(from, to);
+                total += edge.getCost();
+            }
+        }
+        return total;
+    }
+
+    private static Graph.Vertex<Integer> find(Map<Graph.Vertex<Integer>, Graph.Vertex<Integer>> parent, Graph.Vertex<Integer> vertex) {
+        Graph.Vertex<Integer> root = vertex;
+        for (Graph.Vertex<Integer> next; (next = parent.get(root)) != null; )
+            root = next;
+        while (vertex != root) {
+            final Graph.Vertex<Integer> next = parent.get(vertex);
+            parent.put(vertex, root);
+            vertex = next;
+        }
+        return root;
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.MultiSourceBreadthFirstTraversal;
+import com.github.graph.ikhideifidon.TraversalContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of sources searched together by the bit parallel engine, against one BreadthFirstTraversal per source
+ * with a reused TraversalContext, which only records the visiting order and so does less work per source.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MultiSourceBreadthFirstBenchmark {
+
+    @Param({"ERDOS_RENYI", "RMAT"})
+    private GraphGenerators.Shape shape;
+
+    @Param({"100000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    @Param({"64", "512"})
+    private int sourceCount;
+
+    private CsrGraph<Integer> graph;
+    private int[] sources;
+    private final TraversalContext context = new TraversalContext();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerators.generate(shape, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 47)
+                .toGraph(Graph.TYPE.UNDIRECTED, false).freeze();
+        final Random random = new Random(47);
+        sources = new int[sourceCount];
+        for (int s = 0; s < sourceCount; s++)
+            sources[s] = random.nextInt(graph.vertexCount());
+    }
+
+    @Benchmark
+    public long perSourceLoop() {
+        long visited = 0;
+        for (int source : sources)
+            visited += BreadthFirstTraversal.breadthFirstSearchIds(graph, source, context);
+        return visited;
+    }
+
+    @Benchmark
+    public int[][] multiSourceDistances() {
+        return MultiSourceBreadthFirstTraversal.distances(graph, sources);
+    }
+
+    @Benchmark
+    public BitSet[] multiSourceReachable() {
+        return MultiSourceBreadthFirstTraversal.reachable(graph, sources);
+    }
+}
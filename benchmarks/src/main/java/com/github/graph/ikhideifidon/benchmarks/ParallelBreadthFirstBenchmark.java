@@ -0,0 +1,53 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.ParallelBreadthFirstTraversal;
+import com.github.graph.ikhideifidon.TraversalContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the direction optimizing parallel BFS with the number of threads, against the sequential CSR search.
+ * Raise vertexCount and averageDegree (-p vertexCount=10000000 -p averageDegree=16 -jvmArgs -Xmx32g) to reach the
+ * 100M+ edge graphs the search is meant for.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ParallelBreadthFirstBenchmark {
+
+    @Param({"1000000"})
+    private int vertexCount;
+
+    @Param({"16"})
+    private int averageDegree;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int threads;
+
+    private CsrGraph<Integer> csr;
+    private final TraversalContext context = new TraversalContext();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csr = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 13)
+                .toGraph(Graph.TYPE.UNDIRECTED, true).freeze();
+        csr.transpose();
+    }
+
+    @Benchmark
+    public ParallelBreadthFirstTraversal.Result parallel() {
+        return ParallelBreadthFirstTraversal.search(csr, 0, threads);
+    }
+
+    @Benchmark
+    public int sequential() {
+        return BreadthFirstTraversal.breadthFirstSearchIds(csr, 0, context);
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.DepthFirstPaths;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.QueryCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * hasPathTo queries whose sources follow a Zipf distribution, as in skewed production traffic: a fresh search per
+ * query against the LRU and W-TinyLFU query caches. The hit rates are printed at the end of each trial.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryCacheBenchmark {
+
+    public enum Cache {
+        NONE, LRU, TINY_LFU,
+    }
+
+    @Param({"NONE", "LRU", "TINY_LFU"})
+    private Cache cache;
+
+    @Param({"128"})
+    private int cacheSize;
+
+    /** Exponent of the Zipf distribution of the sources. **/
+    @Param({"0.9"})
+    private double skew;
+
+    @Param({"5000"})
+    private int vertexCount;
+
+    private static final int QUERIES = 1 << 16;
+
+    private Graph<Integer> graph;
+    private QueryCache<Integer> queryCache;
+    private List<Graph.Vertex<Integer>> sources;
+    private List<Graph.Vertex<Integer>> destinations;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        graph = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, 4, Graph.TYPE.DIRECTED, 47)
+                .toGraph(Graph.TYPE.DIRECTED, false);
+        queryCache = cache == Cache.NONE ? null
+                : new QueryCache<>(graph, cacheSize, cache == Cache.LRU ? QueryCache.Policy.LRU : QueryCache.Policy.TINY_LFU);
+
+        // Rank r is drawn with a probability proportional to 1 / r^skew.
+        final double[] cumulative = new double[vertexCount];
+        double sum = 0;
+        for (int r = 0; r < vertexCount; r++)
+            cumulative[r] = sum += 1 / Math.pow(r + 1, skew);
+
+        final List<Graph.Vertex<Integer>> vertices = graph.getAllVertices();
+        final Random random = new Random(53);
+        sources = new ArrayList<>(QUERIES);
+        destinations = new ArrayList<>(QUERIES);
+        for (int q = 0; q < QUERIES; q++) {
+            final int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            // Ranks are scattered over the vertices so that the hot sources are not the first ones generated.
+            sources.add(vertices.get((int) ((rank < 0 ? -rank - 1 : rank) * 7919L % vertexCount)));
+            destinations.add(vertices.get(random.nextInt(vertexCount)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (queryCache != null)
+            System.out.printf("%n%s: %s, hit rate %.3f%n", cache, queryCache.stats(), queryCache.stats().hitRate());
+    }
+
+    @Benchmark
+    public boolean hasPathTo() {
+        final int q = next++ & (QUERIES - 1);
+        if (queryCache == null)
+            return new DepthFirstPaths<>(graph, sources.get(q)).hasPathTo(destinations.get(q));
+        return queryCache.hasPathTo(sources.get(q), destinations.get(q));
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.ShortestPaths;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Single pair routing queries and one to all distances on a road network like grid. **/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShortestPathsBenchmark {
+
+    @Param({"300"})
+    private int side;
+
+    private CsrGraph<Integer> grid;
+    private ShortestPaths shortestPaths;
+    private ShortestPaths.Heuristic manhattan;
+    private final Random random = new Random(19);
+    private int source;
+    private int target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = GraphGenerators.grid(side, side, 10, 23).toGraph(Graph.TYPE.UNDIRECTED, false).freeze();
+        shortestPaths = new ShortestPaths(grid);
+        // Every cost is at least 1, so the Manhattan distance never overestimates.
+        final int width = side;
+        manhattan = (v, t) -> Math.abs(v % width - t % width) + Math.abs(v / width - t / width);
+    }
+
+    @Setup(Level.Invocation)
+    public void pickQuery() {
+        source = random.nextInt(grid.vertexCount());
+        target = random.nextInt(grid.vertexCount());
+    }
+
+    @Benchmark
+    public long dijkstra() {
+        return shortestPaths.distance(source, target);
+    }
+
+    @Benchmark
+    public long aStar() {
+        return shortestPaths.distance(source, target, manhattan);
+    }
+
+    @Benchmark
+    public long bidirectionalDijkstra() {
+        return shortestPaths.bidirectionalDistance(source, target);
+    }
+
+    @Benchmark
+    public long[] oneToAll() {
+        return shortestPaths.distancesFrom(source);
+    }
+}
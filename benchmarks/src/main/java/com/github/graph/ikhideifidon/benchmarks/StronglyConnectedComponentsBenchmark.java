@@ -0,0 +1,65 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.StronglyConnectedComponents;
+import com.github.graph.ikhideifidon.TopologicalSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strongly connected components of DIRECTED graphs: the iterative Tarjan against the parallel forward-backward search
+ * with 1 to 16 threads, and the condensation DAG with its topological order. CHAIN is a single path as deep as the
+ * graph is large, which a recursive search could not follow.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StronglyConnectedComponentsBenchmark {
+
+    @Param({"RMAT", "CHAIN"})
+    private GraphGenerators.Shape shape;
+
+    @Param({"1000000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    @Param({"1", "4", "16"})
+    private int threads;
+
+    private CsrGraph<Integer> csr;
+    private StronglyConnectedComponents.Result components;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csr = GraphGenerators.generate(shape, vertexCount, averageDegree, Graph.TYPE.DIRECTED, 71)
+                .toGraph(Graph.TYPE.DIRECTED, true).freeze();
+        csr.transpose();
+        components = StronglyConnectedComponents.tarjan(csr);
+        int largest = 0;
+        for (int size : components.sizes())
+            largest = Math.max(largest, size);
+        System.out.printf("%nEdges: %d, components: %d, largest: %d%n", csr.edgeCount(), components.componentCount(), largest);
+    }
+
+    @Benchmark
+    public StronglyConnectedComponents.Result tarjan() {
+        return StronglyConnectedComponents.tarjan(csr);
+    }
+
+    @Benchmark
+    public StronglyConnectedComponents.Result forwardBackward() {
+        return StronglyConnectedComponents.forwardBackward(csr, threads);
+    }
+
+    @Benchmark
+    public TopologicalSort.Result condensationOrder() {
+        return TopologicalSort.sort(StronglyConnectedComponents.condensation(csr, components));
+    }
+}
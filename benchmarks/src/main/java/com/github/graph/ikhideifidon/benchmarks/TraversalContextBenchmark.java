@@ -0,0 +1,67 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.DepthFirstTraversal;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.TraversalContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of repeated traversals with and without a reused TraversalContext. Run with -prof gc: once warmed up,
+ * the context variants should report a gc.alloc.rate.norm of (close to) zero bytes per operation.
+ **/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TraversalContextBenchmark {
+
+    @Param({"10000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    private Graph<Integer> graph;
+    private CsrGraph<Integer> csr;
+    private Graph.Vertex<Integer> source;
+    private final TraversalContext context = new TraversalContext();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerators.generate(GraphGenerators.Shape.ERDOS_RENYI, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 5)
+                .toGraph(Graph.TYPE.UNDIRECTED, true);
+        csr = graph.freeze();
+        source = graph.getAllVertices().get(0);
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearchGraph() {
+        return BreadthFirstTraversal.breadthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public int[] breadthFirstSearchIds() {
+        return BreadthFirstTraversal.breadthFirstSearchIds(csr, 0);
+    }
+
+    @Benchmark
+    public int breadthFirstSearchContext() {
+        return BreadthFirstTraversal.breadthFirstSearchIds(csr, 0, context);
+    }
+
+    @Benchmark
+    public Object[] depthFirstSearchGraph() {
+        return DepthFirstTraversal.depthFirstSearch(graph, source);
+    }
+
+    @Benchmark
+    public int depthFirstSearchContext() {
+        return DepthFirstTraversal.depthFirstSearchIds(csr, 0, context);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every traversal on every generated shape, from one fixed source. Reports throughput and latency percentiles;
+ * add -prof gc for allocation per traversal. The recursive search needs the large stack set below on chains.
+ **/
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Xss512m"})
+@State(Scope.Thread)
+public class TraversalSuiteBenchmark {
+
+    private GeneratedGraphState state;
+    private final TraversalContext context = new TraversalContext();
+    private ShortestPaths shortestPaths;
+
+    @Setup(Level.Trial)
+    public void setUp(GeneratedGraphState state) {
+        this.state = state;
+        shortestPaths = new ShortestPaths(state.csr);
+        state.csr.transpose();
+    }
+
+    @Benchmark
+    public Object[] breadthFirstSearch() {
+        return BreadthFirstTraversal.breadthFirstSearch(state.graph, state.source);
+    }
+
+    @Benchmark
+    public int breadthFirstSearchCsr() {
+        return BreadthFirstTraversal.breadthFirstSearchIds(state.csr, 0, context);
+    }
+
+    @Benchmark
+    public ParallelBreadthFirstTraversal.Result parallelBreadthFirstSearch() {
+        return ParallelBreadthFirstTraversal.search(state.csr, 0);
+    }
+
+    @Benchmark
+    public long lazyBreadthFirstSearch() {
+        return LazyTraversal.breadthFirst(state.source).stream().count();
+    }
+
+    @Benchmark
+    public Object[] depthFirstSearch() {
+        return DepthFirstTraversal.depthFirstSearch(state.graph, state.source);
+    }
+
+    @Benchmark
+    public List<Integer> depthFirstSearchRecursively() {
+        return DepthFirstTraversal.depthFirstSearchRecursively(state.graph, state.source);
+    }
+
+    @Benchmark
+    public int depthFirstSearchCsr() {
+        return DepthFirstTraversal.depthFirstSearchIds(state.csr, 0, context);
+    }
+
+    @Benchmark
+    public DepthFirstPaths<Integer> depthFirstPaths() {
+        return new DepthFirstPaths<>(state.graph, state.source);
+    }
+
+    @Benchmark
+    public DepthFirstPaths<Integer> depthFirstPathsCsr() {
+        return new DepthFirstPaths<>(state.csr, 0);
+    }
+
+    @Benchmark
+    public long[] dijkstraOneToAll() {
+        return shortestPaths.distancesFrom(0);
+    }
+}
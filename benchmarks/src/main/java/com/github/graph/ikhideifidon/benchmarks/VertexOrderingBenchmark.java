@@ -0,0 +1,66 @@
+package com.github.graph.ikhideifidon.benchmarks;
+
+import com.github.graph.ikhideifidon.BreadthFirstTraversal;
+import com.github.graph.ikhideifidon.CsrGraph;
+import com.github.graph.ikhideifidon.Graph;
+import com.github.graph.ikhideifidon.ShortestPaths;
+import com.github.graph.ikhideifidon.VertexOrdering;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breadth first search and Dijkstra on a graph whose vertices were inserted in random order, as is (NONE) and
+ * relabeled by each VertexOrdering strategy. The setup prints the average id gap across edges of each layout.
+ * Run with -prof perfnorm on Linux to see the cache misses per operation behind the times.
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class VertexOrderingBenchmark {
+
+    @Param({"GRID", "ERDOS_RENYI", "RMAT"})
+    private GraphGenerators.Shape shape;
+
+    @Param({"NONE", "REVERSE_CUTHILL_MCKEE", "DEGREE", "BREADTH_FIRST", "AUTOMATIC"})
+    private String ordering;
+
+    @Param({"1000000"})
+    private int vertexCount;
+
+    @Param({"8"})
+    private int averageDegree;
+
+    private CsrGraph<Integer> csr;
+    private ShortestPaths shortestPaths;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csr = GraphGenerators.generate(shape, vertexCount, averageDegree, Graph.TYPE.UNDIRECTED, 43)
+                .shuffled(43).toGraph(Graph.TYPE.UNDIRECTED, false).freeze();
+        if (!ordering.equals("NONE")) {
+            final long start = System.nanoTime();
+            final VertexOrdering order = VertexOrdering.of(csr, VertexOrdering.Strategy.valueOf(ordering));
+            csr = csr.relabel(order);
+            System.out.printf("%n%s and relabel: %d ms", order, (System.nanoTime() - start) / 1_000_000);
+        }
+        System.out.printf("%nAverage gap: %.2f bits over %d edges%n", VertexOrdering.averageGapBits(csr), csr.edgeCount());
+        shortestPaths = new ShortestPaths(csr);
+        // The same vertex in every layout.
+        source = csr.idOf(0);
+    }
+
+    @Benchmark
+    public int[] breadthFirstSearch() {
+        return BreadthFirstTraversal.breadthFirstSearchIds(csr, source);
+    }
+
+    @Benchmark
+    public long[] dijkstra() {
+        return shortestPaths.distancesFrom(source);
+    }
+}
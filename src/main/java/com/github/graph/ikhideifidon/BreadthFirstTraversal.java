@@ -1,28 +1,126 @@
 package com.github.graph.ikhideifidon;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class BreadthFirstTraversal {
     public static <T extends Object & Comparable<T>> T[] breadthFirstSearch(Graph<T> graph, Graph.Vertex<T> source) {
-        List<Graph.Vertex<T>> vertices = new ArrayList<>(graph.getAllVertices());
-        Set<T> visited = new HashSet<>();
-        Deque<Graph.Vertex<T>> queue = new LinkedList<>();
+        return breadthFirstSearch(source, graph.getAllVertices().size(), Graph.Vertex::getEdges);
+    }
+
+    /**
+     * Breadth first search over a snapshot, in the same order as over the Graph at that point in time. Writers may keep
+     * adding vertices and edges while it runs, the search neither sees nor blocks them.
+     **/
+    public static <T extends Object & Comparable<T>> T[] breadthFirstSearch(GraphSnapshot<T> snapshot, Graph.Vertex<T> source) {
+        return breadthFirstSearch(source, snapshot.vertexCount(), snapshot::edges);
+    }
+
+    private static <T extends Object & Comparable<T>> T[] breadthFirstSearch(
+            Graph.Vertex<T> source, int vertexCount, Function<Graph.Vertex<T>, List<Graph.Edge<T>>> edgesOf) {
+        // Values are marked as soon as they are queued. In FIFO order this visits them exactly as marking on dequeue
+        // would, but the queue never holds more than |V| vertices instead of one per edge scanned.
+        final Instrumentation.Probe probe = Instrumentation.start("BreadthFirstTraversal.breadthFirstSearch");
+        final Set<T> visited = new HashSet<>();
+        final Deque<Graph.Vertex<T>> queue = new ArrayDeque<>();
         @SuppressWarnings("unchecked")
-        T[] result = (T[]) new Object[vertices.size()];
+        final T[] result = (T[]) new Object[vertexCount];
+        visited.add(source.getValue());
         queue.offer(source);
 
         int i = 0;
+        long scanned = 0;
         while (!queue.isEmpty()) {
-            Graph.Vertex<T> current = queue.poll();
-
-            if (!visited.contains(current.getValue())) {
-                visited.add(current.getValue());
-                result[i++] = current.getValue();
+            final Graph.Vertex<T> current = queue.poll();
+            result[i++] = current.getValue();
 
-                for (Graph.Edge<T> edge : current.getEdges())
+            final List<Graph.Edge<T>> edges = edgesOf.apply(current);
+            for (Graph.Edge<T> edge : edges) {
+                // Most targets are already marked: testing first saves the store of a put per edge.
+                final T value = edge.getTo().getValue();
+                if (!visited.contains(value)) {
+                    visited.add(value);
                     queue.offer(edge.getTo());
+                }
             }
+            scanned += edges.size();
+            if (probe != null)
+                probe.frontier(queue.size());
         }
+        if (probe != null)
+            probe.finish(i, scanned);
+        return result;
+    }
+
+    /** The same visiting order as breadthFirstSearch, produced lazily. See LazyTraversal for depth limits and early stops. **/
+    public static <T extends Object & Comparable<T>> Stream<T> breadthFirstStream(Graph.Vertex<T> source) {
+        return LazyTraversal.breadthFirst(source).stream();
+    }
+
+    /** Breadth first search over a CSR snapshot. The result has the same layout as for a Graph. **/
+    public static <T extends Object & Comparable<T>> T[] breadthFirstSearch(CsrGraph<T> graph, T source) {
+        final int sourceId = graph.idOf(source);
+        if (sourceId < 0)
+            throw new IllegalArgumentException("Source " + source + " is not a vertex of the graph.");
+
+        final int[] order = breadthFirstSearchIds(graph, sourceId);
+        @SuppressWarnings("unchecked")
+        T[] result = (T[]) new Object[graph.vertexCount()];
+        for (int i = 0; i < order.length; i++)
+            result[i] = graph.valueOf(order[i]);
         return result;
     }
+
+    /** Breadth first search over an IntGraph, returning the keys of the visited vertices in visiting order. **/
+    public static int[] breadthFirstSearch(IntGraph graph, int sourceKey) {
+        final int source = graph.indexOf(sourceKey);
+        if (source < 0)
+            throw new IllegalArgumentException("Source " + sourceKey + " is not a vertex of the graph.");
+
+        final int[] order = breadthFirstSearchIds(graph, source);
+        for (int i = 0; i < order.length; i++)
+            order[i] = graph.key(order[i]);
+        return order;
+    }
+
+    /** Breadth first search over a CSR snapshot or an IntGraph, returning the ids of the visited vertices in visiting order. **/
+    public static int[] breadthFirstSearchIds(IntAdjacency graph, int source) {
+        final TraversalContext context = new TraversalContext();
+        breadthFirstSearchIds(graph, source, context);
+        return context.visitedIds();
+    }
+
+    /**
+     * Breadth first search over an IntAdjacency using the working memory of a context. Returns the number of visited
+     * vertices, whose ids are then available from the context. Allocates nothing once the context has grown.
+     **/
+    public static int breadthFirstSearchIds(IntAdjacency graph, int source, TraversalContext context) {
+        // A vertex is marked as soon as it is enqueued. In FIFO order this visits vertices exactly as
+        // marking on dequeue would, but the queue never holds more than |V| ids.
+        final Instrumentation.Probe probe = Instrumentation.start("BreadthFirstTraversal.breadthFirstSearchIds");
+        context.reset(graph.vertexCount());
+        final IntDeque queue = context.queue;
+        context.visit(source);
+        queue.addLast(source);
+
+        while (!queue.isEmpty()) {
+            final int current = queue.pollFirst();
+            for (int i = 0, degree = graph.degree(current); i < degree; i++) {
+                final int next = graph.target(current, i);
+                if (context.visit(next))
+                    queue.addLast(next);
+            }
+            if (probe != null)
+                probe.frontier(queue.size());
+        }
+        if (probe != null) {
+            // Every edge of a visited vertex was scanned. Marked on enqueue, so no vertex is queued twice.
+            long scanned = 0;
+            for (int i = 0; i < context.visitedCount(); i++)
+                scanned += graph.degree(context.visited(i));
+            probe.finish(context.visitedCount(), scanned);
+        }
+        return context.visitedCount();
+    }
 }
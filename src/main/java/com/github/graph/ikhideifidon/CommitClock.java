@@ -0,0 +1,94 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * The commit lock and version counter of a Graph. Every insertion of a vertex into a Graph or of an edge into a
+ * vertex is a commit: it is stamped with the next version under the lock, and that version is published once the
+ * commit is complete, so snapshots read it without locking.
+ * A vertex commits on the clock of the first Graph it joins, or on one of its own if it is changed before. When it
+ * joins a Graph with another clock the two clocks are merged, as in a union-find: graphs that share vertices share one
+ * clock from then on, so a commit never takes more than one lock, while graphs that share nothing never wait for each
+ * other. The merged clock continues from the greater of the two versions, so the versions of every vertex only grow.
+ **/
+final class CommitClock {
+
+    private static final AtomicLong CLOCKS = new AtomicLong();
+
+    private final long id = CLOCKS.incrementAndGet();     // Merges lock the older of two clocks first.
+    private volatile long committed = 0;
+    private volatile CommitClock mergedInto = null;
+
+    /** The clock that this one was merged into, or this one. **/
+    CommitClock resolve() {
+        CommitClock clock = this;
+        CommitClock next;
+        while ((next = clock.mergedInto) != null) {
+            // Path halving: only merged clocks are relinked, to a clock they were merged into as well.
+            final CommitClock after = next.mergedInto;
+            if (after != null)
+                clock.mergedInto = after;
+            clock = next;
+        }
+        return clock;
+    }
+
+    /** The last version published. Time Complexity: O(1), amortized over merges. **/
+    long committed() {
+        return resolve().committed;
+    }
+
+    /** Runs a write as one commit: everything it adds is stamped with the given version, published at the end. **/
+    void commit(LongConsumer write) {
+        while (true) {
+            final CommitClock clock = resolve();
+            synchronized (clock) {
+                // Merged while waiting for the lock: the commit belongs to the other clock.
+                if (clock.mergedInto != null)
+                    continue;
+                final long version = clock.committed + 1;
+                write.accept(version);
+                clock.committed = version;
+                return;
+            }
+        }
+    }
+
+    /** Runs an action under the lock, without a version of its own. **/
+    void exclusive(Runnable action) {
+        while (true) {
+            final CommitClock clock = resolve();
+            synchronized (clock) {
+                if (clock.mergedInto != null)
+                    continue;
+                action.run();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Makes another clock one with this one, unless they are already. Takes both locks, so it must not be called
+     * within a commit.
+     **/
+    void merge(CommitClock other) {
+        while (true) {
+            final CommitClock into = resolve();
+            final CommitClock from = other.resolve();
+            if (into == from)
+                return;
+            final CommitClock first = into.id < from.id ? into : from;
+            final CommitClock second = first == into ? from : into;
+            synchronized (first) {
+                synchronized (second) {
+                    if (into.mergedInto != null || from.mergedInto != null)
+                        continue;
+                    into.committed = Math.max(into.committed, from.committed);
+                    from.mergedInto = into;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+
+/**
+ * A read only adjacency compressed with gap and varint coding, for graphs too large for a CsrGraph or even a
+ * MappedGraph's four bytes per target and cost.
+ * The targets of a vertex are sorted and stored after its degree as gaps: the first one relative to the vertex
+ * itself, zigzag coded, the others relative to the previous target. Each number takes as many bytes as its 7 bit
+ * groups. Costs follow the sorted targets in a parallel stream of zigzag varints, left out altogether when every
+ * edge costs the same. A per-vertex offset into each stream gives random access to any vertex: 32 bits from an anchor
+ * every 64 vertices. Lists of over 64 edges are split in runs of 64, and start with a skip table giving, in fixed
+ * width ints, where each run after the first starts in the list and, for targets, the target before it.
+ *
+ * Gaps are small when neighbors have close ids, so a graph relabeled by a VertexOrdering compresses best. As an
+ * IntAdjacency the int id traversals run on it unchanged: target(v, i) and cost(v, i) decode the run holding edge i
+ * into a buffer per thread, so reading a list in any order decodes each run once, and resuming a list at any position,
+ * as depth first searches do, decodes at most 64 edges. targets and costs decode a whole list at once.
+ * Vertex ids are those of the source adjacency, whose valueOf maps them back to values. Safe for concurrent readers.
+ **/
+public final class CompressedGraph implements IntAdjacency {
+
+    // Streams are split into pages of up to 1 GiB, each holding whole lists, so a stream can exceed an array.
+    private static final int PAGE_BITS = 30;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+    // Longest varint coding of an int.
+    private static final int MAX_VARINT_BYTES = 5;
+    // Edges decoded together by target(v, i) and cost(v, i), and reachable from the skip table of their list.
+    private static final int RUN_BITS = 6;
+    private static final int RUN_LENGTH = 1 << RUN_BITS;
+    private static final int RUN_MASK = RUN_LENGTH - 1;
+
+    private final int vertexCount;
+    private final int edgeCount;
+    private final byte[][] targetPages;
+    private final Offsets targetOffsets;        // Position of the degree of each vertex.
+    private final byte[][] costPages;           // null when every edge costs constantCost.
+    private final Offsets costOffsets;
+    private final int constantCost;
+    private final ThreadLocal<Cursor> cursors = ThreadLocal.withInitial(Cursor::new);
+
+    private CompressedGraph(int vertexCount, int edgeCount, byte[][] targetPages, Offsets targetOffsets,
+                            byte[][] costPages, Offsets costOffsets, int constantCost) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.targetPages = targetPages;
+        this.targetOffsets = targetOffsets;
+        this.costPages = costPages;
+        this.costOffsets = costOffsets;
+        this.constantCost = constantCost;
+    }
+
+    /**
+     * Compresses any adjacency: a CsrGraph, an IntGraph, or a MappedGraph, which is read sequentially and never
+     * needs to fit the heap uncompressed.
+     * Time Complexity: O(|V| + |E| log(maximum degree)).
+     **/
+    public static CompressedGraph of(IntAdjacency graph) {
+        final int vertexCount = graph.vertexCount();
+        // A first pass finds the largest list, and whether every edge costs the same.
+        boolean constant = true;
+        boolean first = true;
+        int constantCost = 0;
+        int maximumDegree = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            final int degree = graph.degree(v);
+            maximumDegree = Math.max(maximumDegree, degree);
+            for (int i = 0; i < degree && constant; i++) {
+                final int cost = graph.cost(v, i);
+                if (first)
+                    constantCost = cost;
+                else if (cost != constantCost)
+                    constant = false;
+                first = false;
+            }
+        }
+
+        final Stream targets = new Stream();
+        final Stream costs = constant ? null : new Stream();
+        final Offsets targetOffsets = new Offsets(vertexCount);
+        final Offsets costOffsets = constant ? null : new Offsets(vertexCount);
+        final long[] sorted = new long[maximumDegree];          // target << 32 | position in the source list
+        final int[] listCosts = new int[maximumDegree];
+        final int[] codes = new int[maximumDegree];             // The gaps, then the zigzag costs.
+        int edgeCount = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            final int degree = graph.degree(v);
+            for (int i = 0; i < degree; i++) {
+                sorted[i] = (long) graph.target(v, i) << 32 | i;
+                if (!constant)
+                    listCosts[i] = graph.cost(v, i);
+            }
+            Arrays.sort(sorted, 0, degree);
+
+            final int skips = skips(degree);
+            targetOffsets.set(v, targets.reserve(MAX_VARINT_BYTES * (degree + 1L) + 8L * skips));
+            int previous = v;
+            for (int i = 0; i < degree; i++) {
+                final int target = (int) (sorted[i] >>> 32);
+                codes[i] = i == 0 ? zigzag(target - previous) : target - previous;
+                previous = target;
+            }
+            targets.write(degree);
+            // Each entry: where the run starts, from the start of the list, and the target before it.
+            int position = varintBytes(degree) + 8 * skips;
+            for (int i = 0; i < degree; i++) {
+                if (i > 0 && (i & RUN_MASK) == 0) {
+                    targets.writeInt(position);
+                    targets.writeInt((int) (sorted[i - 1] >>> 32));
+                }
+                position += varintBytes(codes[i]);
+            }
+            for (int i = 0; i < degree; i++)
+                targets.write(codes[i]);
+
+            if (!constant) {
+                costOffsets.set(v, costs.reserve((long) MAX_VARINT_BYTES * degree + 4L * skips));
+                position = 4 * skips;
+                for (int i = 0; i < degree; i++) {
+                    codes[i] = zigzag(listCosts[(int) sorted[i]]);
+                    if (i > 0 && (i & RUN_MASK) == 0)
+                        costs.writeInt(position);
+                    position += varintBytes(codes[i]);
+                }
+                for (int i = 0; i < degree; i++)
+                    costs.write(codes[i]);
+            }
+            edgeCount += degree;
+        }
+        return new CompressedGraph(vertexCount, edgeCount, targets.pages(), targetOffsets,
+                constant ? null : costs.pages(), costOffsets, constantCost);
+    }
+
+    // Getters
+    @Override
+    public int vertexCount() { return vertexCount; }
+
+    @Override
+    public int edgeCount() { return edgeCount; }
+
+    @Override
+    public int degree(int vertex) {
+        final long offset = targetOffsets.get(vertex);
+        final byte[] page = targetPages[(int) (offset >>> PAGE_BITS)];
+        int index = (int) offset & PAGE_MASK;
+        int b = page[index++];
+        int value = b & 0x7F;
+        for (int shift = 7; b < 0; shift += 7) {
+            b = page[index++];
+            value |= (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    /** The targets of a vertex are sorted by id, which is the order traversals take them in. **/
+    @Override
+    public int target(int vertex, int i) {
+        final Cursor cursor = cursors.get();
+        final int run = i >>> RUN_BITS;
+        if (cursor.vertex != vertex || cursor.run != run)
+            cursor.decodeTargets(vertex, run);
+        return cursor.targets[i & RUN_MASK];
+    }
+
+    @Override
+    public int cost(int vertex, int i) {
+        if (costPages == null)
+            return constantCost;
+        final Cursor cursor = cursors.get();
+        final int run = i >>> RUN_BITS;
+        if (cursor.costVertex != vertex || cursor.costRun != run)
+            cursor.decodeCosts(vertex, run);
+        return cursor.costs[i & RUN_MASK];
+    }
+
+    /**
+     * Decodes the targets of a vertex into a buffer of at least degree(vertex) ints, in increasing order, and
+     * returns their number.
+     **/
+    public int targets(int vertex, int[] buffer) {
+        final long offset = targetOffsets.get(vertex);
+        final byte[] page = targetPages[(int) (offset >>> PAGE_BITS)];
+        int index = (int) offset & PAGE_MASK;
+        int degree = 0;
+        int previous = vertex;
+        // count == -1 while the degree itself is read.
+        for (int count = -1; count < degree; count++) {
+            int b = page[index++];
+            int value = b & 0x7F;
+            for (int shift = 7; b < 0; shift += 7) {
+                b = page[index++];
+                value |= (b & 0x7F) << shift;
+            }
+            if (count == -1) {
+                degree = value;
+                index += 8 * skips(degree);
+            } else {
+                previous += count == 0 ? unzigzag(value) : value;
+                buffer[count] = previous;
+            }
+        }
+        return degree;
+    }
+
+    /** Decodes the costs of a vertex into a buffer of at least degree(vertex) ints, in the order of its targets. **/
+    public int costs(int vertex, int[] buffer) {
+        final int degree = degree(vertex);
+        if (costPages == null) {
+            Arrays.fill(buffer, 0, degree, constantCost);
+            return degree;
+        }
+        final long offset = costOffsets.get(vertex);
+        final byte[] page = costPages[(int) (offset >>> PAGE_BITS)];
+        int index = ((int) offset & PAGE_MASK) + 4 * skips(degree);
+        for (int i = 0; i < degree; i++) {
+            int b = page[index++];
+            int value = b & 0x7F;
+            for (int shift = 7; b < 0; shift += 7) {
+                b = page[index++];
+                value |= (b & 0x7F) << shift;
+            }
+            buffer[i] = unzigzag(value);
+        }
+        return degree;
+    }
+
+    /** Approximate heap footprint in bytes: both streams and their offsets. **/
+    public long footprintBytes() {
+        long bytes = targetOffsets.footprintBytes() + pagesBytes(targetPages);
+        if (costPages != null)
+            bytes += costOffsets.footprintBytes() + pagesBytes(costPages);
+        return bytes;
+    }
+
+    /** Average footprint per stored edge, offsets included. **/
+    public double bytesPerEdge() {
+        return edgeCount == 0 ? 0.0 : (double) footprintBytes() / edgeCount;
+    }
+
+    private static long pagesBytes(byte[][] pages) {
+        long bytes = 0;
+        for (byte[] page : pages)
+            bytes += 16 + page.length;
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompressedGraph[vertices=%d, edges=%d, %.2f bytes per edge%s]", vertexCount, edgeCount,
+                bytesPerEdge(), costPages == null ? ", every cost " + constantCost : "");
+    }
+
+    // Coding
+
+    // Maps small negative and positive numbers alike to small unsigned ones: 0, -1, 1, -2 ... to 0, 1, 2, 3 ...
+    private static int zigzag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    private static int unzigzag(int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static int varintBytes(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /** Number of skip table entries of a list: one per run after the first. **/
+    private static int skips(int degree) {
+        return degree == 0 ? 0 : (degree - 1) >>> RUN_BITS;
+    }
+
+    private static int readInt(byte[] page, int index) {
+        return page[index] & 0xFF | (page[index + 1] & 0xFF) << 8 | (page[index + 2] & 0xFF) << 16 | page[index + 3] << 24;
+    }
+
+    /** The runs of the lists one thread read last, decoded. **/
+    private final class Cursor {
+        final int[] targets = new int[RUN_LENGTH];
+        int vertex = -1;
+        int run;
+
+        final int[] costs = new int[RUN_LENGTH];
+        int costVertex = -1;
+        int costRun;
+
+        private byte[] page;
+        private int index;
+
+        void decodeTargets(int vertex, int run) {
+            final long offset = targetOffsets.get(vertex);
+            page = targetPages[(int) (offset >>> PAGE_BITS)];
+            final int start = (int) offset & PAGE_MASK;
+            index = start;
+            final int degree = read();
+            final int first = run << RUN_BITS;
+            int previous;
+            if (run == 0) {
+                previous = vertex;
+                index += 8 * skips(degree);
+                targets[0] = previous += unzigzag(read());
+            } else {
+                final int entry = index + 8 * (run - 1);
+                index = start + readInt(page, entry);
+                previous = readInt(page, entry + 4);
+                targets[0] = previous += read();
+            }
+            for (int k = 1, count = Math.min(RUN_LENGTH, degree - first); k < count; k++)
+                targets[k] = previous += read();
+            this.vertex = vertex;
+            this.run = run;
+        }
+
+        void decodeCosts(int vertex, int run) {
+            final int degree = degree(vertex);
+            final long offset = costOffsets.get(vertex);
+            page = costPages[(int) (offset >>> PAGE_BITS)];
+            final int start = (int) offset & PAGE_MASK;
+            index = run == 0 ? start + 4 * skips(degree) : start + readInt(page, start + 4 * (run - 1));
+            for (int k = 0, count = Math.min(RUN_LENGTH, degree - (run << RUN_BITS)); k < count; k++)
+                costs[k] = unzigzag(read());
+            this.costVertex = vertex;
+            this.costRun = run;
+        }
+
+        private int read() {
+            int b = page[index++];
+            int value = b & 0x7F;
+            for (int shift = 7; b < 0; shift += 7) {
+                b = page[index++];
+                value |= (b & 0x7F) << shift;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Stream positions, page << PAGE_BITS | index, increasing with the vertex: a full position every 64 vertices and
+     * an unsigned 32 bit distance from it for each vertex.
+     **/
+    private static final class Offsets {
+        private static final int BLOCK_BITS = 6;
+
+        private final long[] anchors;
+        private final int[] distances;
+
+        Offsets(int vertexCount) {
+            this.anchors = new long[(vertexCount + (1 << BLOCK_BITS) - 1) >>> BLOCK_BITS];
+            this.distances = new int[vertexCount];
+        }
+
+        /** Sets the position of a vertex, after those of every vertex before it. **/
+        void set(int vertex, long position) {
+            if ((vertex & (1 << BLOCK_BITS) - 1) == 0)
+                anchors[vertex >>> BLOCK_BITS] = position;
+            final long distance = position - anchors[vertex >>> BLOCK_BITS];
+            if (distance >>> 32 != 0)
+                throw new IllegalArgumentException("Over 4 GiB of edges in the 64 vertices from "
+                        + (vertex & -(1 << BLOCK_BITS)));
+            distances[vertex] = (int) distance;
+        }
+
+        long get(int vertex) {
+            return anchors[vertex >>> BLOCK_BITS] + Integer.toUnsignedLong(distances[vertex]);
+        }
+
+        long footprintBytes() {
+            return 8L * anchors.length + 4L * distances.length;
+        }
+    }
+
+    /** A growing byte stream split into pages, none of which a reserved list straddles. **/
+    private static final class Stream {
+        private byte[][] pages = new byte[1][];
+        private int pageCount = 0;
+        private byte[] page = new byte[1 << 16];
+        private int index = 0;
+
+        /** Makes room for up to the given number of bytes in one page, and returns the position they start at. **/
+        long reserve(long bytes) {
+            if (bytes > 1 << PAGE_BITS)
+                throw new IllegalArgumentException("A list of " + bytes + " bytes does not fit a page");
+            if (index + bytes > page.length) {
+                if (index + bytes <= 1 << PAGE_BITS) {
+                    page = Arrays.copyOf(page, (int) Math.min(1 << PAGE_BITS, Math.max(index + bytes, 2L * page.length)));
+                } else {
+                    seal();
+                    page = new byte[(int) Math.max(bytes, 1 << 16)];
+                    index = 0;
+                }
+            }
+            return (long) pageCount << PAGE_BITS | index;
+        }
+
+        /** A fixed width int, little endian, as read by readInt. **/
+        void writeInt(int value) {
+            for (int i = 0; i < 4; i++, value >>>= 8)
+                page[index++] = (byte) value;
+        }
+
+        void write(int value) {
+            while ((value & ~0x7F) != 0) {
+                page[index++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            page[index++] = (byte) value;
+        }
+
+        private void seal() {
+            if (pageCount == pages.length)
+                pages = Arrays.copyOf(pages, 2 * pageCount);
+            pages[pageCount++] = Arrays.copyOf(page, index);
+        }
+
+        byte[][] pages() {
+            seal();
+            return Arrays.copyOf(pages, pageCount);
+        }
+    }
+}
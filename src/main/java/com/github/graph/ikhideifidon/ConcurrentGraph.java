@@ -0,0 +1,229 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A Graph that ingest threads can grow while query threads traverse it, without a global lock.
+ * Vertices live in a ConcurrentHashMap. The adjacency of a vertex is append only: a writer appends under the lock of
+ * that one vertex, so writers to different vertices never contend, and readers take no lock at all.
+ *
+ * Visibility: addVertex and addEdge happen-before any read that observes their effect, and an edge is visible to
+ * every read of its source that starts after addEdge returned. A read concurrent with addEdge sees the edge or not,
+ * but never a partially written one. An UNDIRECTED edge is appended to its two endpoints one after the other, so a
+ * reader may briefly see one direction only. Edges and vertices are never removed.
+ **/
+public final class ConcurrentGraph<T extends Object & Comparable<T>> {
+
+    private final Graph.TYPE type;
+    private final ConcurrentHashMap<T, Vertex<T>> vertices = new ConcurrentHashMap<>();
+    private final LongAdder edgeCount = new LongAdder();
+
+    /** An Undirected ConcurrentGraph without Vertex and Edge. **/
+    public ConcurrentGraph() { this(Graph.TYPE.UNDIRECTED); }
+
+    public ConcurrentGraph(Graph.TYPE type) { this.type = type; }
+
+    /** A vertex whose adjacency only grows. Published entries are never modified. **/
+    public static final class Vertex<T extends Object & Comparable<T>> {
+        private final T value;
+        private volatile int weight;
+
+        // Only written under the lock of this vertex. A writer fills the slot first and publishes it by the volatile
+        // write of size; a reader reads size first, so targets and costs are at least as recent as that write. A
+        // grown array is a complete copy published through its volatile field, and the entries below size stay
+        // valid in the old one, so a reader may see either.
+        private volatile Vertex<T>[] targets;
+        private volatile int[] costs;
+        private volatile int size = 0;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Vertex(T value, int weight) {
+            this.value = value;
+            this.weight = weight;
+            this.targets = new Vertex[2];
+            this.costs = new int[2];
+        }
+
+        public T getValue() { return value; }
+
+        public int getWeight() { return weight; }
+
+        public void setWeight(int weight) { this.weight = weight; }
+
+        public int degree() { return size; }
+
+        /** Calls the action with the value and cost of every edge visible when the call starts. **/
+        public void forEachEdge(ObjIntConsumer<T> action) {
+            final int n = size;
+            final Vertex<T>[] targets = this.targets;
+            final int[] costs = this.costs;
+            for (int i = 0; i < n; i++)
+                action.accept(targets[i].value, costs[i]);
+        }
+
+        private synchronized void append(Vertex<T> to, int cost) {
+            final int n = size;
+            Vertex<T>[] targets = this.targets;
+            int[] costs = this.costs;
+            if (n == targets.length) {
+                targets = Arrays.copyOf(targets, n * 2);
+                costs = Arrays.copyOf(costs, n * 2);
+                this.targets = targets;
+                this.costs = costs;
+            }
+            targets[n] = to;
+            costs[n] = cost;
+            size = n + 1;
+        }
+
+        @Override
+        public String toString() {
+            return "Value = " + value + " weight = " + weight + " degree = " + size;
+        }
+    }
+
+    // Getters
+    public Graph.TYPE getType() { return type; }
+
+    public int vertexCount() { return vertices.size(); }
+
+    /** Number of addEdge calls that completed, each counting once whatever the type. **/
+    public long edgeCount() { return edgeCount.sum(); }
+
+    /** The vertex holding the value, or null. **/
+    public Vertex<T> getVertex(T value) { return vertices.get(value); }
+
+    public boolean containsVertex(T value) { return vertices.containsKey(value); }
+
+    /** A weakly consistent view of the vertices: it reflects some, all or none of the concurrent insertions. **/
+    public Collection<Vertex<T>> getAllVertices() {
+        return Collections.unmodifiableCollection(vertices.values());
+    }
+
+    /** Adds a vertex of weight 0. Returns the vertex holding the value, which may have been added by another thread. **/
+    public Vertex<T> addVertex(T value) { return addVertex(value, 0); }
+
+    /** Adds a vertex unless the value already is one. Returns the vertex holding the value. **/
+    public Vertex<T> addVertex(T value, int weight) {
+        Objects.requireNonNull(value, "Vertex value cannot be null");
+        final Vertex<T> vertex = vertices.get(value);
+        return vertex != null ? vertex : vertices.computeIfAbsent(value, key -> new Vertex<>(key, weight));
+    }
+
+    /**
+     * Adds an edge, and its reciprocal if the graph is UNDIRECTED. Missing endpoints are added with weight 0, so
+     * ingest threads need not coordinate the order of their vertices and edges.
+     **/
+    public void addEdge(T from, T to, int cost) {
+        final Vertex<T> source = addVertex(from);
+        final Vertex<T> target = addVertex(to);
+        source.append(target, cost);
+        if (type == Graph.TYPE.UNDIRECTED)
+            target.append(source, cost);
+        edgeCount.increment();
+    }
+
+    /** The values the vertex has edges to, as visible when the call starts, or null if the value is not a vertex. **/
+    public List<T> neighbors(T value) {
+        final Vertex<T> vertex = vertices.get(value);
+        if (vertex == null)
+            return null;
+        final List<T> neighbors = new ArrayList<>(vertex.degree());
+        vertex.forEachEdge((to, cost) -> neighbors.add(to));
+        return neighbors;
+    }
+
+    /** Number of outgoing edges, 0 if the value is not a vertex. **/
+    public int degree(T value) {
+        final Vertex<T> vertex = vertices.get(value);
+        return vertex == null ? 0 : vertex.degree();
+    }
+
+    public boolean edgeExists(T from, T to) {
+        final Vertex<T> source = vertices.get(from);
+        final Vertex<T> target = vertices.get(to);
+        if (source == null || target == null)
+            return false;
+        final int n = source.size;
+        final Vertex<T>[] targets = source.targets;
+        for (int i = 0; i < n; i++) {
+            if (targets[i] == target)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Breadth first search from a source value, returning the reached values in visiting order, or an empty list if
+     * the source is not a vertex. It runs concurrently with writers and sees the edges visible as it expands each
+     * vertex.
+     **/
+    public List<T> breadthFirstSearch(T source) {
+        final Vertex<T> start = vertices.get(source);
+        if (start == null)
+            return Collections.emptyList();
+
+        final Set<Vertex<T>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final ArrayDeque<Vertex<T>> queue = new ArrayDeque<>();
+        final List<T> result = new ArrayList<>();
+        visited.add(start);
+        queue.addLast(start);
+        while (!queue.isEmpty()) {
+            final Vertex<T> current = queue.pollFirst();
+            result.add(current.value);
+            final int n = current.size;
+            final Vertex<T>[] targets = current.targets;
+            for (int i = 0; i < n; i++) {
+                if (visited.add(targets[i]))
+                    queue.addLast(targets[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A Graph copy of the vertices and edges visible while copying, e.g. to freeze() it once ingestion is over.
+     * The copy holds every edge once per direction stored here, so it matches a Graph built by the same addEdge calls.
+     **/
+    public Graph<T> toGraph() {
+        final Map<Vertex<T>, Graph.Vertex<T>> copies = new IdentityHashMap<>();
+        for (Vertex<T> vertex : vertices.values())
+            copies.put(vertex, new Graph.Vertex<>(vertex.value, vertex.weight));
+
+        final List<Graph.Edge<T>> edges = new ArrayList<>();
+        for (Map.Entry<Vertex<T>, Graph.Vertex<T>> entry : copies.entrySet()) {
+            final Vertex<T> vertex = entry.getKey();
+            final Graph.Vertex<T> from = entry.getValue();
+            final int n = vertex.size;
+            final Vertex<T>[] targets = vertex.targets;
+            final int[] costs = vertex.costs;
+            for (int i = 0; i < n; i++) {
+                final Graph.Vertex<T> to = copies.get(targets[i]);
+                // A target added after the copies were made is left out.
+                if (to == null)
+                    continue;
+                final Graph.Edge<T> edge = new Graph.Edge<>(costs[i], from, to);
+                from.addEdge(edge);
+                edges.add(edge);
+            }
+        }
+
+        final Graph<T> graph = new Graph<>(type, true);
+        graph.load(copies.values(), edges);
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (Vertex<T> vertex : vertices.values()) {
+            builder.append(vertex).append("\n");
+            vertex.forEachEdge((to, cost) -> builder.append("\t\t\t").append("[").append(vertex.value).append("]")
+                    .append(" -> ").append("[").append(to).append("]").append(" = ").append(cost).append("\n"));
+        }
+        return builder.toString();
+    }
+}
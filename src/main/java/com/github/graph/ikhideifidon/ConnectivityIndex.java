@@ -0,0 +1,156 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The connected components of a Graph, kept current as vertices and edges are added, on a union-find with union by
+ * rank and path compression. connected, componentOf, componentSize and componentCount take near constant amortized
+ * time, where a DepthFirstPaths search is O(|V| + |E|) per query. Edges can only be added to a Graph, so components
+ * only ever merge. Edge directions are ignored: the components of a DIRECTED Graph are its weakly connected ones.
+ *
+ * Obtained from Graph.trackConnectivity() or GraphBuilder.connectivity(true), and updated within the commit of every
+ * vertex and edge added to the Graph, whether through the Graph or through Vertex.addEdge. An edge counts as soon as
+ * both of its ends are in the Graph, whichever joined last, so the index always matches one built from scratch: the
+ * edges of the Graph's vertices that lead out of it are kept aside until the vertex they lead to joins.
+ * Vertices are looked up by identity. Safe for concurrent use: queries compress paths, so they take the lock of the
+ * index as updates do.
+ **/
+public final class ConnectivityIndex<T extends Object & Comparable<T>> {
+
+    // Below this many vertices the initial build is not worth splitting across threads.
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    private final Map<Graph.Vertex<?>, Integer> ids;
+    private final UnionFind sets;
+    private final Map<Graph.Vertex<?>, IntDeque> pending;      // Vertex out of the Graph -> ids of those leading to it.
+
+    private ConnectivityIndex(Map<Graph.Vertex<?>, Integer> ids, UnionFind sets, Map<Graph.Vertex<?>, IntDeque> pending) {
+        this.ids = ids;
+        this.sets = sets;
+        this.pending = pending;
+    }
+
+    /**
+     * Builds the index of a list of vertices and the edges between them. Large lists are scanned in parallel, with
+     * lock free unions.
+     * Time Complexity: O((|V| + |E|) * alpha(|V|)).
+     **/
+    static <T extends Object & Comparable<T>> ConnectivityIndex<T> build(List<Graph.Vertex<T>> vertices) {
+        final Map<Graph.Vertex<?>, Integer> ids = new IdentityHashMap<>(vertices.size() * 2);
+        for (Graph.Vertex<T> vertex : vertices)
+            ids.putIfAbsent(vertex, ids.size());
+        final Graph.Vertex<?>[] distinct = new Graph.Vertex<?>[ids.size()];
+        for (Map.Entry<Graph.Vertex<?>, Integer> entry : ids.entrySet())
+            distinct[entry.getValue()] = entry.getKey();
+
+        final UnionFind sets = new UnionFind(distinct.length);
+        final Map<Graph.Vertex<?>, IntDeque> pending = new IdentityHashMap<>();
+        if (distinct.length < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < distinct.length; i++)
+                unionEdges(ids, sets, pending, distinct[i], i);
+        } else {
+            // The map of ids is only read from here on, which is safe from several threads. Edges leading out of the
+            // Graph are rare, so the pending ones are recorded under a lock.
+            IntStream.range(0, distinct.length).parallel().forEach(i -> {
+                for (Graph.Edge<?> edge : distinct[i].getEdges()) {
+                    final Integer j = ids.get(edge.getTo());
+                    if (j != null) {
+                        sets.concurrentUnion(i, j);
+                    } else {
+                        synchronized (pending) {
+                            await(pending, edge.getTo(), i);
+                        }
+                    }
+                }
+            });
+            sets.finishConcurrentUnions();
+        }
+        return new ConnectivityIndex<>(ids, sets, pending);
+    }
+
+    // Queries
+
+    /** Whether a path joins two vertices of the Graph. False if either is not in the Graph. **/
+    public synchronized boolean connected(Graph.Vertex<T> u, Graph.Vertex<T> v) {
+        final Integer a = ids.get(u);
+        final Integer b = ids.get(v);
+        return a != null && b != null && sets.find(a) == sets.find(b);
+    }
+
+    /**
+     * A number identifying the component of a vertex, -1 if it is not in the Graph. Two vertices get the same number
+     * exactly when they are connected, until the next insertion: merging components may change it.
+     **/
+    public synchronized int componentOf(Graph.Vertex<T> vertex) {
+        final Integer id = ids.get(vertex);
+        return id == null ? -1 : sets.find(id);
+    }
+
+    /** Number of vertices in the component of a vertex, 0 if it is not in the Graph. **/
+    public synchronized int componentSize(Graph.Vertex<T> vertex) {
+        final Integer id = ids.get(vertex);
+        return id == null ? 0 : sets.sizeOf(id);
+    }
+
+    /** Number of connected components, isolated vertices included. **/
+    public synchronized int componentCount() {
+        return sets.setCount();
+    }
+
+    /** Number of distinct vertices indexed. **/
+    public synchronized int vertexCount() {
+        return sets.elementCount();
+    }
+
+    // Updates, called by the Graph within a commit.
+
+    /** A vertex joined the Graph, with the edges it already has and those that already lead to it. **/
+    synchronized void vertexAdded(Graph.Vertex<?> vertex) {
+        if (ids.containsKey(vertex))
+            return;
+        final int id = sets.add();
+        ids.put(vertex, id);
+        final IntDeque sources = pending.remove(vertex);
+        if (sources != null) {
+            while (!sources.isEmpty())
+                sets.union(id, sources.pollLast());
+        }
+        unionEdges(ids, sets, pending, vertex, id);
+    }
+
+    /** An edge was added from a vertex of the Graph. **/
+    synchronized void edgeAdded(Graph.Vertex<?> from, Graph.Vertex<?> to) {
+        final Integer a = ids.get(from);
+        if (a == null)
+            return;
+        final Integer b = ids.get(to);
+        if (b != null)
+            sets.union(a, b);
+        else
+            await(pending, to, a);
+    }
+
+    private static void unionEdges(Map<Graph.Vertex<?>, Integer> ids, UnionFind sets,
+                                   Map<Graph.Vertex<?>, IntDeque> pending, Graph.Vertex<?> vertex, int id) {
+        for (Graph.Edge<?> edge : vertex.getEdges()) {
+            final Integer target = ids.get(edge.getTo());
+            if (target != null)
+                sets.union(id, target);
+            else
+                await(pending, edge.getTo(), id);
+        }
+    }
+
+    /** Records an edge from the vertex of the given id to a vertex out of the Graph, to count once it joins. **/
+    private static void await(Map<Graph.Vertex<?>, IntDeque> pending, Graph.Vertex<?> to, int id) {
+        pending.computeIfAbsent(to, vertex -> new IntDeque(2)).addLast(id);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ConnectivityIndex[vertices=" + sets.elementCount() + ", components=" + sets.setCount() + "]";
+    }
+}
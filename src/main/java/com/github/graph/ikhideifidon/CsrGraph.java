@@ -0,0 +1,271 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * An immutable compressed sparse row (CSR) snapshot of a Graph.
+ * Vertices are renumbered to dense int ids 0..|V|-1 in the order of Graph.getAllVertices(). The outgoing edges of
+ * vertex v occupy the slots offsets[v] .. offsets[v + 1] - 1 of the targets and costs arrays, in the same order as
+ * Vertex.getEdges(), so traversals visit vertices in the same order as they do on the Graph itself.
+ **/
+public final class CsrGraph<T extends Object & Comparable<T>> implements IntAdjacency {
+
+    private final Graph.TYPE type;
+    private final T[] values;                   // id -> value
+    private final Map<T, Integer> ids;          // value -> id
+    private final int[] weights;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] costs;
+    private final int[] positions;              // Position of each edge in Vertex.getEdges(), null if none was left out.
+    private volatile CsrGraph<T> transposed = null;
+
+    private CsrGraph(Graph.TYPE type, T[] values, Map<T, Integer> ids, int[] weights, int[] offsets, int[] targets,
+                     int[] costs, int[] positions) {
+        this.type = type;
+        this.values = values;
+        this.ids = ids;
+        this.weights = weights;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.costs = costs;
+        this.positions = positions;
+    }
+
+    /**
+     * Freezes the current state of a Graph, as the CSR of one snapshot of it: writers may keep adding vertices and
+     * edges meanwhile, the result is the Graph at a single point in time. An edge leading to a vertex that is not in
+     * the Graph, as Vertex.addEdge can create, is left out, like IntGraph.of leaves it out: ids are only given to the
+     * vertices of the Graph. Time Complexity: O(|V| + |E|).
+     **/
+    public static <T extends Object & Comparable<T>> CsrGraph<T> of(Graph<T> graph) {
+        return of(graph.snapshot());
+    }
+
+    /** Freezes a snapshot, leaving out the edges that lead to a vertex outside of it. **/
+    public static <T extends Object & Comparable<T>> CsrGraph<T> of(GraphSnapshot<T> snapshot) {
+        return of(snapshot.getType(), snapshot.getAllVertices(), snapshot::edges);
+    }
+
+    /** Freezes the given vertices, with the edges of each read once from edgesOf, which must not change them. **/
+    private static <T extends Object & Comparable<T>> CsrGraph<T> of(
+            Graph.TYPE type, List<Graph.Vertex<T>> vertices, Function<Graph.Vertex<T>, List<Graph.Edge<T>>> edgesOf) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Graph.Vertex<T>[] members = vertices.toArray(new Graph.Vertex[0]);
+        final int vertexCount = members.length;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final T[] values = (T[]) new Comparable[vertexCount];
+        final Map<T, Integer> ids = new HashMap<>(vertexCount * 2);
+        final Map<Graph.Vertex<T>, Integer> vertexIds = new IdentityHashMap<>(vertexCount * 2);
+        final int[] weights = new int[vertexCount];
+        final int[] offsets = new int[vertexCount + 1];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final List<Graph.Edge<T>>[] rows = new List[vertexCount];
+
+        for (int id = 0; id < vertexCount; id++) {
+            final Graph.Vertex<T> vertex = members[id];
+            values[id] = vertex.getValue();
+            weights[id] = vertex.getWeight();
+            ids.putIfAbsent(vertex.getValue(), id);
+            vertexIds.put(vertex, id);
+        }
+
+        boolean dropped = false;
+        for (int id = 0; id < vertexCount; id++) {
+            rows[id] = edgesOf.apply(members[id]);
+            int kept = 0;
+            for (Graph.Edge<T> e : rows[id]) {
+                if (vertexIds.containsKey(e.getTo()))
+                    kept++;
+            }
+            dropped |= kept < rows[id].size();
+            offsets[id + 1] = offsets[id] + kept;
+        }
+
+        final int[] targets = new int[offsets[vertexCount]];
+        final int[] costs = new int[offsets[vertexCount]];
+        final int[] positions = dropped ? new int[offsets[vertexCount]] : null;
+        int edge = 0;
+        for (int id = 0; id < vertexCount; id++) {
+            int position = 0;
+            for (Graph.Edge<T> e : rows[id]) {
+                final Integer target = vertexIds.get(e.getTo());
+                if (target != null) {
+                    targets[edge] = target;
+                    costs[edge] = e.getCost();
+                    if (positions != null)
+                        positions[edge] = position;
+                    edge++;
+                }
+                position++;
+            }
+        }
+        return new CsrGraph<>(type, values, ids, weights, offsets, targets, costs, positions);
+    }
+
+    /**
+     * The same vertices with every edge reversed, so that the edges of vertex v are its incoming edges.
+     * Computed once, in O(|V| + |E|), and shared afterwards.
+     **/
+    public CsrGraph<T> transpose() {
+        CsrGraph<T> result = transposed;
+        if (result == null) {
+            final int vertexCount = vertexCount();
+            final int[] reverseOffsets = new int[vertexCount + 1];
+            for (int target : targets)
+                reverseOffsets[target + 1]++;
+            for (int v = 0; v < vertexCount; v++)
+                reverseOffsets[v + 1] += reverseOffsets[v];
+
+            final int[] cursor = Arrays.copyOf(reverseOffsets, vertexCount);
+            final int[] reverseTargets = new int[targets.length];
+            final int[] reverseCosts = new int[costs.length];
+            for (int v = 0; v < vertexCount; v++) {
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    final int slot = cursor[targets[e]]++;
+                    reverseTargets[slot] = v;
+                    reverseCosts[slot] = costs[e];
+                }
+            }
+            result = new CsrGraph<>(type, values, ids, weights, reverseOffsets, reverseTargets, reverseCosts, null);
+            result.transposed = this;
+            transposed = result;
+        }
+        return result;
+    }
+
+    /**
+     * The same graph with its vertices renumbered by an ordering: vertex v of this graph is vertex ordering.newId(v)
+     * of the result. Values, weights and costs follow their vertices, so valueOf and idOf still map ids to the
+     * original values. The edges of each vertex are sorted by target id, which is the order traversals take them in.
+     * Time Complexity: O(|V| + |E|).
+     **/
+    public CsrGraph<T> relabel(VertexOrdering ordering) {
+        final int vertexCount = vertexCount();
+        if (ordering.vertexCount() != vertexCount)
+            throw new IllegalArgumentException("Ordering of " + ordering.vertexCount() + " vertices for a graph of "
+                    + vertexCount + " vertices.");
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final T[] newValues = (T[]) new Comparable[vertexCount];
+        final int[] newWeights = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            final int old = ordering.oldId(v);
+            newValues[v] = values[old];
+            newWeights[v] = weights[old];
+        }
+        final Map<T, Integer> newIds = new HashMap<>(ids.size() * 2);
+        for (Map.Entry<T, Integer> entry : ids.entrySet())
+            newIds.put(entry.getKey(), ordering.newId(entry.getValue()));
+
+        // Two stable counting sorts: edges by new target, then by new source, leave every row sorted by target.
+        final int edgeCount = targets.length;
+        final int[] byTarget = new int[vertexCount + 1];
+        for (int target : targets)
+            byTarget[ordering.newId(target) + 1]++;
+        for (int v = 0; v < vertexCount; v++)
+            byTarget[v + 1] += byTarget[v];
+        final int[] cursor = Arrays.copyOf(byTarget, vertexCount);
+        final int[] sources = new int[edgeCount];
+        final int[] sourceCosts = new int[edgeCount];
+        for (int v = 0; v < vertexCount; v++) {
+            final int old = ordering.oldId(v);
+            for (int e = offsets[old]; e < offsets[old + 1]; e++) {
+                final int slot = cursor[ordering.newId(targets[e])]++;
+                sources[slot] = v;
+                sourceCosts[slot] = costs[e];
+            }
+        }
+
+        final int[] newOffsets = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++)
+            newOffsets[v + 1] = newOffsets[v] + degree(ordering.oldId(v));
+        System.arraycopy(newOffsets, 0, cursor, 0, vertexCount);
+        final int[] newTargets = new int[edgeCount];
+        final int[] newCosts = new int[edgeCount];
+        for (int t = 0; t < vertexCount; t++) {
+            for (int slot = byTarget[t]; slot < byTarget[t + 1]; slot++) {
+                final int e = cursor[sources[slot]]++;
+                newTargets[e] = t;
+                newCosts[e] = sourceCosts[slot];
+            }
+        }
+        return new CsrGraph<>(type, newValues, newIds, newWeights, newOffsets, newTargets, newCosts, null);
+    }
+
+    /** The graph relabeled by the ordering VertexOrdering chooses for it. **/
+    public CsrGraph<T> reorder() {
+        return relabel(VertexOrdering.of(this));
+    }
+
+    // Getters
+    public Graph.TYPE getType() { return type; }
+
+    @Override
+    public int vertexCount() { return values.length; }
+
+    @Override
+    public int edgeCount() { return targets.length; }
+
+    /** Returns the id of the vertex holding the given value, or -1. **/
+    public int idOf(T value) {
+        final Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    public T valueOf(int id) { return values[id]; }
+
+    public int weight(int id) { return weights[id]; }
+
+    @Override
+    public int degree(int id) { return offsets[id + 1] - offsets[id]; }
+
+    /** Index of the first outgoing edge of a vertex. **/
+    public int firstEdge(int id) { return offsets[id]; }
+
+    /** Index one past the last outgoing edge of a vertex. **/
+    public int endEdge(int id) { return offsets[id + 1]; }
+
+    /** The id of the vertex an edge leads to. **/
+    public int target(int edge) { return targets[edge]; }
+
+    public int cost(int edge) { return costs[edge]; }
+
+    /**
+     * The position in Vertex.getEdges(), on the Graph this was frozen from, of an edge of a vertex. The edges left out
+     * shift those after them. Only meaningful for a CsrGraph made by of, not for a transposed or relabeled one.
+     **/
+    int edgePosition(int id, int edge) {
+        return positions == null ? edge - offsets[id] : positions[edge];
+    }
+
+    @Override
+    public int target(int id, int i) { return targets[offsets[id] + i]; }
+
+    @Override
+    public int cost(int id, int i) { return costs[offsets[id] + i]; }
+
+    /** Approximate heap footprint of the arrays backing this snapshot, excluding the values themselves. **/
+    public long footprintBytes() {
+        return 4L * (weights.length + offsets.length + targets.length + costs.length + (positions == null ? 0 : positions.length))
+                + 8L * values.length            // value references
+                + 48L * ids.size();             // HashMap node, boxed id and table slot
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int v = 0; v < vertexCount(); v++) {
+            builder.append("Value = ").append(values[v]).append(" weight = ").append(weights[v]).append("\n");
+            for (int e = firstEdge(v); e < endEdge(v); e++) {
+                final int w = targets[e];
+                builder.append("\t\t\t").append("[").append(values[v]).append("(").append(weights[v]).append(")").append("]")
+                        .append(" -> ").append("[").append(values[w]).append("(").append(weights[w]).append(")").append("]")
+                        .append(" = ").append(costs[e]).append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
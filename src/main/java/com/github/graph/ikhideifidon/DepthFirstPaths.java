@@ -2,43 +2,210 @@ package com.github.graph.ikhideifidon;
 
 import java.util.*;
 
+/**
+ * Depth first paths from a source vertex.
+ * The search is iterative, so it cannot overflow the call stack on long chains, and reaches vertices in the same order
+ * as a recursive search would. Every vertex gets a dense id and edgeTo[id] records the id it was reached from, so
+ * hasPathTo runs in O(1) and pathTo in O(length of the path).
+ **/
 public class DepthFirstPaths<T extends Object & Comparable<T>> {
-    private final Map<Graph.Vertex<T>, Boolean> marked;
-    private final List<Graph.Vertex<T>> edgeTo;
-    private final Graph.Vertex<T> source;
+    private final int[] edgeTo;          // edgeTo[v] is the id v was reached from, -1 if unreachable.
+    private final int source;
+
+    // Graph or GraphSnapshot search: ids are positions in getAllVertices(). Edges leading outside of the graph are
+    // not followed.
+    private final Graph<T> graph;
+    private final GraphSnapshot<T> snapshot;
+    private final Map<Graph.Vertex<T>, Integer> ids;
+    private final Graph.Vertex<T>[] vertices;
+
+    // CsrGraph search
+    private final CsrGraph<T> csr;
 
     public DepthFirstPaths(Graph<T> graph, Graph.Vertex<T> source) {
-        marked = new HashMap<>();
-        edgeTo = new LinkedList<>();
-        this.source = source;
-        dfs(graph, source);
-    }
-
-    private void dfs(Graph<T> graph, Graph.Vertex<T> start) {
-        marked.put(start, true);
-        for (Graph.Edge<T> edge : graph.neighbors(start)) {
-            Graph.Vertex<T> vertex = edge.getTo();
-            if (!marked.containsKey(vertex)) {
-                marked.put(vertex, true);
-                edgeTo.add(start);
-                dfs(graph, vertex);
+        this(graph, null, graph.getAllVertices(), source);
+    }
+
+    /** Depth first paths over a snapshot, unaffected by the writers that keep changing the Graph. **/
+    public DepthFirstPaths(GraphSnapshot<T> snapshot, Graph.Vertex<T> source) {
+        this(null, snapshot, snapshot.getAllVertices(), source);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private DepthFirstPaths(Graph<T> graph, GraphSnapshot<T> snapshot, List<Graph.Vertex<T>> members, Graph.Vertex<T> source) {
+        this.graph = graph;
+        this.snapshot = snapshot;
+        this.csr = null;
+        this.vertices = members.toArray(new Graph.Vertex[0]);
+        this.ids = new IdentityHashMap<>(vertices.length * 2);
+        for (int id = 0; id < vertices.length; id++)
+            ids.putIfAbsent(vertices[id], id);
+
+        final Integer sourceId = ids.get(source);
+        if (sourceId == null)
+            throw new IllegalArgumentException("Source " + source.getValue() + " is not a vertex of the graph.");
+        this.source = sourceId;
+        this.edgeTo = new int[vertices.length];
+        dfs();
+    }
+
+    /** Depth first paths over a CSR snapshot. **/
+    public DepthFirstPaths(CsrGraph<T> graph, T source) {
+        this.graph = null;
+        this.snapshot = null;
+        this.csr = graph;
+        this.ids = null;
+        this.vertices = null;
+        this.source = graph.idOf(source);
+        if (this.source < 0)
+            throw new IllegalArgumentException("Source " + source + " is not a vertex of the graph.");
+        this.edgeTo = new int[graph.vertexCount()];
+        dfs();
+    }
+
+    private void dfs() {
+        // The stack holds the open vertices. next[v] is the position of the next edge of v to explore:
+        // an edge index for a CsrGraph, an index into getEdges() for a Graph.
+        final Instrumentation.Probe probe = Instrumentation.start("DepthFirstPaths");
+        Arrays.fill(edgeTo, -1);
+        final IntDeque stack = new IntDeque();
+        final int[] next = new int[edgeTo.length];
+        edgeTo[source] = source;
+        stack.addLast(source);
+        next[source] = csr != null ? csr.firstEdge(source) : 0;
+
+        long visited = 1;
+        long scanned = 0;
+        while (!stack.isEmpty()) {
+            final int current = stack.peekLast();
+            final int vertex;
+            if (csr != null) {
+                if (next[current] == csr.endEdge(current)) {
+                    stack.pollLast();
+                    continue;
+                }
+                vertex = csr.target(next[current]++);
+                scanned++;
+            } else {
+                final List<Graph.Edge<T>> edges = snapshot != null
+                        ? snapshot.edges(vertices[current])
+                        : vertices[current].getEdges();
+                if (next[current] == edges.size()) {
+                    stack.pollLast();
+                    continue;
+                }
+                final Integer id = ids.get(edges.get(next[current]++).getTo());
+                scanned++;
+                if (id == null)
+                    continue;
+                vertex = id;
+            }
+
+            if (edgeTo[vertex] < 0) {
+                edgeTo[vertex] = current;
+                next[vertex] = csr != null ? csr.firstEdge(vertex) : 0;
+                stack.addLast(vertex);
+                visited++;
+                if (probe != null)
+                    probe.frontier(stack.size());
             }
         }
+        // Only unvisited vertices are stacked.
+        if (probe != null)
+            probe.finish(visited, scanned);
+    }
+
+    private int idOf(Graph.Vertex<T> vertex) {
+        if (csr != null)
+            return csr.idOf(vertex.getValue());
+        final Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    private int idOf(T value) {
+        if (csr != null)
+            return csr.idOf(value);
+        if (snapshot != null) {
+            for (int id = 0; id < vertices.length; id++) {
+                if (vertices[id].getValue().equals(value))
+                    return id;
+            }
+            return -1;
+        }
+        final Graph.Vertex<T> vertex = graph.getVertex(value);
+        return vertex == null ? -1 : idOf(vertex);
+    }
+
+    private T valueOf(int id) {
+        return csr != null ? csr.valueOf(id) : vertices[id].getValue();
     }
 
     public boolean hasPathTo(Graph.Vertex<T> destination) {
-        return marked.get(destination);
+        final int id = idOf(destination);
+        return id >= 0 && edgeTo[id] >= 0;
+    }
+
+    /** Looks the destination up by value. O(|V|) for an unindexed Graph or a snapshot. **/
+    public boolean hasPathTo(T destination) {
+        final int id = idOf(destination);
+        return id >= 0 && edgeTo[id] >= 0;
     }
 
+    /** The vertices from the source to the destination, or null if there is no path. **/
     public Iterable<Graph.Vertex<T>> pathTo(Graph.Vertex<T> destination) {
-        if (!hasPathTo(destination)) return null;
-        Deque<Graph.Vertex<T>> path = new LinkedList<>();
-        for (Graph.Vertex<T> vertex : edgeTo) {
-            if (vertex != source)
-                path.push(vertex);
-            path.push(source);
-        }
+        if (csr != null)
+            throw new IllegalStateException("A CsrGraph search has no Vertex objects, query the path by value.");
+        final int[] path = path(idOf(destination));
+        if (path == null) return null;
+        final List<Graph.Vertex<T>> result = new ArrayList<>(path.length);
+        for (int id : path)
+            result.add(vertices[id]);
+        return result;
+    }
+
+    /** The values from the source to the destination, or null if there is no path. **/
+    public Iterable<T> pathTo(T destination) {
+        return values(path(idOf(destination)));
+    }
+
+    /** Paths to many destinations from the one search, in the order of the destinations. Null marks no path. **/
+    public List<Iterable<Graph.Vertex<T>>> pathsTo(List<Graph.Vertex<T>> destinations) {
+        final List<Iterable<Graph.Vertex<T>>> paths = new ArrayList<>(destinations.size());
+        for (Graph.Vertex<T> destination : destinations)
+            paths.add(pathTo(destination));
+        return paths;
+    }
+
+    /** Value paths to many destinations from the one search, in the order of the destinations. Null marks no path. **/
+    public List<Iterable<T>> valuePathsTo(List<T> destinations) {
+        final List<Iterable<T>> paths = new ArrayList<>(destinations.size());
+        for (T destination : destinations)
+            paths.add(pathTo(destination));
+        return paths;
+    }
+
+    /** The ids on the path from the source to the given id, or null. **/
+    private int[] path(int destination) {
+        if (destination < 0 || edgeTo[destination] < 0)
+            return null;
+
+        int length = 1;
+        for (int v = destination; v != source; v = edgeTo[v])
+            length++;
+
+        final int[] path = new int[length];
+        for (int v = destination, i = length - 1; i >= 0; v = edgeTo[v], i--)
+            path[i] = v;
         return path;
     }
 
+    private List<T> values(int[] path) {
+        if (path == null)
+            return null;
+        final List<T> result = new ArrayList<>(path.length);
+        for (int id : path)
+            result.add(valueOf(id));
+        return result;
+    }
+
 }
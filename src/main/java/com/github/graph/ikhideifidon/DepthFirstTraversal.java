@@ -1,30 +1,165 @@
 package com.github.graph.ikhideifidon;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class DepthFirstTraversal {
 
     public static <T extends Object & Comparable<T>> T[] depthFirstSearch(Graph<T> graph, Graph.Vertex<T> source) {
-        final List<Graph.Vertex<T>> vertices = new ArrayList<>(graph.getAllVertices());
-        final Deque<Graph.Vertex<T>> stack = new LinkedList<>();
-        @SuppressWarnings("unchecked") final T[] result = (T[]) new Object[vertices.size()];
-        final Set<Graph.Vertex<T>> visited = new HashSet<>();
-        stack.push(source);
+        return depthFirstSearch(source, graph.getAllVertices().size(), Graph.Vertex::currentEdges, new HashSet<>());
+    }
+
+    /**
+     * Depth first search over a snapshot, in the same order as over the Graph at that point in time. Writers may keep
+     * adding vertices and edges while it runs, the search neither sees nor blocks them.
+     **/
+    public static <T extends Object & Comparable<T>> T[] depthFirstSearch(GraphSnapshot<T> snapshot, Graph.Vertex<T> source) {
+        // Vertices are told apart by identity: their equals looks at edges that writers may be adding.
+        return depthFirstSearch(source, snapshot.vertexCount(), snapshot::edges,
+                Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * The preorder of a stack that every neighbour is pushed onto and that is checked for visited vertices on pop,
+     * which is a recursive search exploring the edges of each vertex from the last one to the first. The edges are
+     * explored in that order from a stack of open vertices and positions instead, marking vertices when they are
+     * discovered: each vertex is stacked at most once, so the stack is bounded by |V| rather than |E| + 1.
+     **/
+    private static <T extends Object & Comparable<T>> T[] depthFirstSearch(
+            Graph.Vertex<T> source, int vertexCount, Function<Graph.Vertex<T>, List<Graph.Edge<T>>> edgesOf,
+            Set<Graph.Vertex<T>> visited) {
+        final Instrumentation.Probe probe = Instrumentation.start("DepthFirstTraversal.depthFirstSearch");
+        @SuppressWarnings("unchecked") final T[] result = (T[]) new Object[vertexCount];
+        final List<List<Graph.Edge<T>>> stack = new ArrayList<>();     // The edges of each open vertex,
+        final IntDeque next = new IntDeque();                           // and how many are left to explore.
 
         int i = 0;
+        long scanned = 0;
+        visited.add(source);
+        result[i++] = source.getValue();
+        stack.add(edgesOf.apply(source));
+        next.addLast(stack.get(0).size());
         while (!stack.isEmpty()) {
-            Graph.Vertex<T> current = stack.pop();
-
-            if (!visited.contains(current)) {
-                visited.add(current);
-                result[i++] = current.getValue();
-                for (Graph.Edge<T> edge : current.getEdges())
-                    stack.push(edge.getTo());
+            // Skip the edges of the top vertex that lead to visited vertices.
+            final List<Graph.Edge<T>> top = stack.get(stack.size() - 1);
+            final int remaining = next.peekLast();
+            int position = remaining;
+            Graph.Vertex<T> to = null;
+            while (position > 0) {
+                final Graph.Vertex<T> candidate = top.get(--position).getTo();
+                if (!visited.contains(candidate)) {
+                    to = candidate;
+                    break;
+                }
+            }
+            scanned += remaining - position;
+            if (to == null) {
+                stack.remove(stack.size() - 1);
+                next.pollLast();
+                continue;
             }
+            next.setLast(position);
+
+            visited.add(to);
+            result[i++] = to.getValue();
+            // The edges of the vertex as it is visited: those appended later would not have been pushed either.
+            final List<Graph.Edge<T>> edges = edgesOf.apply(to);
+            stack.add(edges);
+            next.addLast(edges.size());
+            if (probe != null)
+                probe.frontier(stack.size());
         }
+        // Marked on discovery, so no vertex is stacked twice.
+        if (probe != null)
+            probe.finish(i, scanned);
+        return result;
+    }
+
+    /** The same visiting order as depthFirstSearch, produced lazily. See LazyTraversal for depth limits and early stops. **/
+    public static <T extends Object & Comparable<T>> Stream<T> depthFirstStream(Graph.Vertex<T> source) {
+        return LazyTraversal.depthFirst(source).stream();
+    }
+
+    /** Depth first search over a CSR snapshot. The result has the same layout as for a Graph. **/
+    public static <T extends Object & Comparable<T>> T[] depthFirstSearch(CsrGraph<T> graph, T source) {
+        final int sourceId = graph.idOf(source);
+        if (sourceId < 0)
+            throw new IllegalArgumentException("Source " + source + " is not a vertex of the graph.");
+
+        final int[] order = depthFirstSearchIds(graph, sourceId);
+        @SuppressWarnings("unchecked") final T[] result = (T[]) new Object[graph.vertexCount()];
+        for (int i = 0; i < order.length; i++)
+            result[i] = graph.valueOf(order[i]);
         return result;
     }
 
+    /** Depth first search over an IntGraph, returning the keys of the visited vertices in visiting order. **/
+    public static int[] depthFirstSearch(IntGraph graph, int sourceKey) {
+        final int source = graph.indexOf(sourceKey);
+        if (source < 0)
+            throw new IllegalArgumentException("Source " + sourceKey + " is not a vertex of the graph.");
+
+        final int[] order = depthFirstSearchIds(graph, source);
+        for (int i = 0; i < order.length; i++)
+            order[i] = graph.key(order[i]);
+        return order;
+    }
+
+    /** Depth first search over a CSR snapshot or an IntGraph, returning the ids of the visited vertices in visiting order. **/
+    public static int[] depthFirstSearchIds(IntAdjacency graph, int source) {
+        final TraversalContext context = new TraversalContext();
+        depthFirstSearchIds(graph, source, context);
+        return context.visitedIds();
+    }
+
+    /**
+     * Depth first search over an IntAdjacency using the working memory of a context. Returns the number of visited
+     * vertices, whose ids are then available from the context. Allocates nothing once the context has grown.
+     **/
+    public static int depthFirstSearchIds(IntAdjacency graph, int source, TraversalContext context) {
+        // Same order as the Graph version: edges are explored from the last to the first, and vertices marked when
+        // discovered, so the stack is bounded by |V|. next[v] is the number of edges of an open vertex left to explore.
+        final Instrumentation.Probe probe = Instrumentation.start("DepthFirstTraversal.depthFirstSearchIds");
+        context.reset(graph.vertexCount());
+        final IntDeque stack = context.stack;
+        final int[] next = context.positions;
+        context.visit(source);
+        stack.addLast(source);
+        next[source] = graph.degree(source);
+
+        while (!stack.isEmpty()) {
+            // Skip the edges of the top vertex that lead to visited vertices.
+            final int current = stack.peekLast();
+            int position = next[current];
+            int vertex = -1;
+            while (position > 0) {
+                final int candidate = graph.target(current, --position);
+                if (context.visit(candidate)) {
+                    vertex = candidate;
+                    break;
+                }
+            }
+            next[current] = position;
+            if (vertex < 0) {
+                stack.pollLast();
+                continue;
+            }
+            stack.addLast(vertex);
+            next[vertex] = graph.degree(vertex);
+            if (probe != null)
+                probe.frontier(stack.size());
+        }
+        if (probe != null) {
+            // Every edge of a visited vertex was scanned. Marked on discovery, so no vertex is stacked twice.
+            long scanned = 0;
+            for (int i = 0; i < context.visitedCount(); i++)
+                scanned += graph.degree(context.visited(i));
+            probe.finish(context.visitedCount(), scanned);
+        }
+        return context.visitedCount();
+    }
+
     private static <T extends Object & Comparable<T>> List<T> helper(Graph<T> graph, Graph.Vertex<T> source, Set<Graph.Vertex<T>> visited, List<T> result) {
         visited.add(source);
         result.add(source.getValue());
@@ -1,11 +1,47 @@
 package com.github.graph.ikhideifidon;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
 
 public class Graph<T extends Object & Comparable<T>> {
 
-    private final List<Vertex<T>> allVertices = new LinkedList<>();
-    private final List<Edge<T>> allEdges = new LinkedList<>();
+    private final VersionedList<Vertex<T>> allVertices = new VersionedList<>();
+    private final VersionedList<Edge<T>> allEdges = new VersionedList<>();
+    private final List<Vertex<T>> allVerticesView = Collections.unmodifiableList(allVertices);
+    private final List<Edge<T>> allEdgesView = Collections.unmodifiableList(allEdges);
+
+    // Order independent multiset hashes of the values of the vertices and of the end values of the edges, kept
+    // current on insertion: a sum of mixed element hashes can be updated one element at a time. Weights and costs
+    // can change without the Graph knowing, so they are left out.
+    private static final int PARALLEL_FINGERPRINT_THRESHOLD = 1 << 14;
+    private volatile long vertexFingerprint = 0;
+    private volatile long edgeFingerprint = 0;
+
+    // Every insertion of a vertex into the Graph or of an edge into one of its vertices is a commit on this clock,
+    // which its vertices share, so changes made through Vertex.addEdge are ordered with those made through the Graph.
+    // Graphs that share no vertex have clocks of their own and never wait for each other.
+    private final CommitClock clock = new CommitClock();
+
+    /** Value to vertex lookup, written within commits and read without locking. Only maintained when the graph is indexed. **/
+    private final Map<T, Vertex<T>> vertexIndex;
+
+    /** Kept current by every vertex of the Graph as its edges are added. **/
+    private final GraphStatistics statistics;
+
+    // Bumped, under the commit lock, by every change that can alter the result of a query: vertices and edges added
+    // through the Graph or through Vertex.addEdge, weights and costs set on its vertices and edges.
+    private volatile long version = 0;
+
+    // The connected components, kept current on every insertion once trackConnectivity was called. Only set under
+    // the commit lock.
+    private volatile ConnectivityIndex<T> connectivity = null;
+
+    // How the vertices of the Graph refer to it, shared by all of them. A vertex does not keep its Graphs alive.
+    private final WeakReference<Graph<T>> self = new WeakReference<>(this);
 
     public enum TYPE {
         DIRECTED, UNDIRECTED,
@@ -15,41 +51,49 @@ public class Graph<T extends Object & Comparable<T>> {
     private TYPE type = TYPE.UNDIRECTED;
 
     /** An Undirected Graph without Vertex and Edge. **/
-    public Graph() { }
+    public Graph() { this(TYPE.UNDIRECTED); }
 
     /** A type of Graph without Vertex and Edge whose direction is obtained at Runtime.. **/
-    public Graph(TYPE type) { this.type = type; }
+    public Graph(TYPE type) { this(type, false); }
+
+    /**
+     * A type of Graph without Vertex and Edge. An indexed Graph keeps a value to vertex map current on every
+     * insert, so that neighbors, degree and edgeExists run in O(1) expected time instead of scanning.
+     **/
+    public Graph(TYPE type, boolean indexed) {
+        this.type = type;
+        this.vertexIndex = indexed ? new ConcurrentHashMap<>() : null;
+        this.statistics = new GraphStatistics(type);
+    }
 
     /** A type Graph that is created from a collection of vertices and edges. **/
     public Graph(TYPE type, Collection<Vertex<T>> vertices, Collection<Edge<T>> edges) {
-        this(type);
-
-        this.allVertices.addAll(vertices);
-        this.allEdges.addAll(edges);
-
-        for (Edge<T> edge : edges) {
-            final Vertex<T> from = edge.from;
-            final Vertex<T> to = edge.to;
-
-            // The added vertex's connections might not be represented in
-            // the Graph yet, so we implicitly add them
-
-            // E.g. vertices = [A, B, C] and edges = [[A-B], [M-B]]. It's obvious that M (in edges)
-            // is not yet present in the list of vertices. But since B is a valid vertex,
-            // we therefore add vertex M to the list of vertices.  [A, B, C, M].
-            if (!this.allVertices.contains(from) || !this.allVertices.contains(to))
-                continue;
-
-            from.addEdge(edge);
-            if (this.type == TYPE.UNDIRECTED) {
-                // If undirected, the 'to' vertex becomes the source and
-                // the 'from' vertex becomes the destination.
-                Edge<T> reciprocal = new Edge<>(edge.cost, to, from);
-                to.addEdge(reciprocal);
-                this.allEdges.add(reciprocal);
-            }
-        }
+        this(type, vertices, edges, false);
+    }
+
+    /** A type Graph, optionally indexed, that is created from a collection of vertices and edges. **/
+    public Graph(TYPE type, Collection<Vertex<T>> vertices, Collection<Edge<T>> edges, boolean indexed) {
+        this(type, indexed);
+
+        load(vertices, edges);
+
+        // Membership is checked by identity, in O(1), rather than with List.contains.
+        final Set<Vertex<T>> members = Collections.newSetFromMap(new IdentityHashMap<>(vertices.size() * 2));
+        members.addAll(vertices);
 
+        // Every edge is connected in a single commit.
+        clock.commit(version -> {
+            for (Edge<T> edge : edges) {
+                // The added vertex's connections might not be represented in
+                // the Graph yet, so we implicitly add them
+
+                // E.g. vertices = [A, B, C] and edges = [[A-B], [M-B]]. It's obvious that M (in edges)
+                // is not yet present in the list of vertices. But since B is a valid vertex,
+                // we therefore add vertex M to the list of vertices.  [A, B, C, M].
+                if (members.contains(edge.from) && members.contains(edge.to))
+                    connect(edge, version);
+            }
+        });
     }
 
     /** An Undirected Graph that is created from a collection of vertices and edges. **/
@@ -60,67 +104,345 @@ public class Graph<T extends Object & Comparable<T>> {
     // Setters and Getters
     public TYPE getType() { return type; }
 
-    public List<Vertex<T>> getAllVertices() { return allVertices; }
+    /**
+     * A read only view of the vertices, kept current: add, remove and set throw UnsupportedOperationException.
+     * Vertices are added with addVertex.
+     **/
+    public List<Vertex<T>> getAllVertices() { return allVerticesView; }
+
+    /** A read only view of the edges, kept current, as getAllVertices() is. Edges are added with addEdge. **/
+    public List<Edge<T>> getAllEdges() { return allEdgesView; }
+
+    public boolean isIndexed() { return vertexIndex != null; }
+
+    /** Returns the vertex holding the given value, or null. O(1) expected when indexed, O(|V|) otherwise. **/
+    public Vertex<T> getVertex(T value) {
+        if (isIndexed())
+            return vertexIndex.get(value);
+
+        // Only scans are instrumented: they are the lookups whose cost depends on the size of the Graph.
+        final Instrumentation.Probe probe = Instrumentation.start("Graph.getVertex");
+        Vertex<T> found = null;
+        int scanned = 0;
+        for (Vertex<T> v : getAllVertices()) {
+            scanned++;
+            if (v.getValue().equals(value)) {
+                found = v;
+                break;
+            }
+        }
+        if (probe != null)
+            probe.finish(scanned, 0);
+        return found;
+    }
 
-    public List<Edge<T>> getAllEdges() { return allEdges; }
+    /**
+     * Adds a vertex to the Graph and keeps the index current. A vertex that is already a member is left as it is and
+     * false is returned; another vertex that only equals a member is added. Time Complexity: O(1).
+     **/
+    public boolean addVertex(Vertex<T> vertex) {
+        if (vertex == null)
+            throw new NullPointerException("Vertex cannot be null");
+
+        vertex.join(clock);
+        final boolean[] added = {false};
+        clock.commit(version -> {
+            if (vertex.isOwnedBy(this))
+                return;
+            added[0] = true;
+            allVertices.add(vertex, version);
+            vertexFingerprint += fingerprint(vertex);
+            if (isIndexed())
+                vertexIndex.putIfAbsent(vertex.getValue(), vertex);
+            statistics.addVertices(new Vertex<?>[] {vertex});
+            vertex.addOwner(this);
+            if (connectivity != null)
+                connectivity.vertexAdded(vertex);
+            this.version++;
+        });
+        return added[0];
+    }
 
-    public List<Edge<T>> neighbors(Vertex<T> vertex) {
-        if (vertex != null && getAllVertices().contains(vertex)) {
-            for (Vertex<T> v : getAllVertices()) {
-                if (v.equals(vertex))
-                   return v.getEdges();
+    /**
+     * Adds an edge to the Graph. As in the bulk constructor, the edge is only connected if both of its end
+     * vertices are already present in the Graph, and an UNDIRECTED Graph also records the reciprocal edge.
+     * The edge, its membership check and its connection are one commit.
+     **/
+    public void addEdge(Edge<T> edge) {
+        if (edge == null)
+            throw new NullPointerException("Edge cannot be null");
+
+        // An end vertex that only equals a member is connected too, so both join the clock beforehand.
+        edge.from.join(clock);
+        edge.to.join(clock);
+        clock.commit(version -> {
+            allEdges.add(edge, version);
+            edgeFingerprint += fingerprint(edge);
+            if (containsVertex(edge.from) && containsVertex(edge.to))
+                connect(edge, version);
+        });
+    }
+
+    /** Appends already connected vertices and edges, as done by the bulk constructor and toGraph conversions. **/
+    void load(Collection<Vertex<T>> vertices, Collection<Edge<T>> edges) {
+        load(vertices, edges, version -> {});
+    }
+
+    /**
+     * Appends vertices and edges in one commit, as done by GraphBuilder. connect runs first within the commit, to
+     * append the edges of the vertices with its version.
+     **/
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void load(Collection<Vertex<T>> vertices, Collection<Edge<T>> edges, LongConsumer connect) {
+        final Vertex<T>[] added = vertices.toArray(new Vertex[0]);
+        final Edge<T>[] loaded = edges.toArray(new Edge[0]);
+        for (Vertex<T> vertex : added)
+            vertex.join(clock);
+        clock.commit(version -> {
+            connect.accept(version);
+            this.allVertices.addAll(added, 0, added.length, version);
+            this.allEdges.addAll(loaded, 0, loaded.length, version);
+            this.vertexFingerprint += sum(Arrays.asList(added), Graph::fingerprint);
+            this.edgeFingerprint += sum(edges, Graph::fingerprint);
+            if (isIndexed()) {
+                for (Vertex<T> vertex : added)
+                    this.vertexIndex.putIfAbsent(vertex.getValue(), vertex);
             }
+            statistics.addVertices(added);
+            for (Vertex<T> vertex : added)
+                vertex.addOwner(this);
+            if (connectivity != null) {
+                for (Vertex<T> vertex : added)
+                    connectivity.vertexAdded(vertex);
+            }
+            this.version++;
+        });
+    }
+
+    /**
+     * Within a commit: appends an edge to its source vertex and, in an UNDIRECTED Graph, its reciprocal to the
+     * destination, so no snapshot sees half of an UNDIRECTED edge.
+     **/
+    private void connect(Edge<T> edge, long version) {
+        final Vertex<T> from = edge.from;
+        final Vertex<T> to = edge.to;
+
+        from.append(edge, version);
+        if (this.type == TYPE.UNDIRECTED) {
+            // If undirected, the 'to' vertex becomes the source and
+            // the 'from' vertex becomes the destination.
+            Edge<T> reciprocal = new Edge<>(edge.cost, to, from);
+            to.append(reciprocal, version);
+            this.allEdges.add(reciprocal, version);
+            this.edgeFingerprint += fingerprint(reciprocal);
+        }
+    }
+
+    /**
+     * Within a commit: does the Graph hold a vertex equal to the given one? Both modes answer with Vertex.equals, the
+     * index only makes it faster. Without an index this is an O(|V|) scan, made while holding the commit lock.
+     **/
+    private boolean containsVertex(Vertex<T> vertex) {
+        if (isIndexed())
+            return indexedVertex(vertex) != null;
+        return allVertices.contains(vertex);
+    }
+
+    /** Returns the indexed vertex equal to the given vertex, or null. **/
+    private Vertex<T> indexedVertex(Vertex<T> vertex) {
+        final Vertex<T> v = vertexIndex.get(vertex.getValue());
+        return v != null && v.equals(vertex) ? v : null;
+    }
+
+    public List<Edge<T>> neighbors(Vertex<T> vertex) {
+        if (vertex != null && isIndexed()) {
+            final Vertex<T> v = indexedVertex(vertex);
+            return v == null ? null : v.getEdges();
         }
-        return null;
+
+        final Vertex<T> v = scan(vertex, "Graph.neighbors");
+        return v == null ? null : v.getEdges();
     }
 
     public int degree(Vertex<T> vertex) {
         int degree = 0;
-        if (vertex != null && getAllVertices().contains(vertex)) {
-            for (Vertex<T> v : getAllVertices()) {
-                if (v.equals(vertex))
-                    return v.getEdges().size();
+        if (vertex != null && isIndexed()) {
+            final Vertex<T> v = indexedVertex(vertex);
+            return v == null ? degree : v.getEdges().size();
+        }
+
+        final Vertex<T> v = scan(vertex, "Graph.degree");
+        return v == null ? degree : v.getEdges().size();
+    }
+
+    /** The first vertex of the Graph equal to the given one, or null, by a scan. **/
+    private Vertex<T> scan(Vertex<T> vertex, String operation) {
+        if (vertex == null)
+            return null;
+        final Instrumentation.Probe probe = Instrumentation.start(operation);
+        Vertex<T> found = null;
+        int scanned = 0;
+        for (Vertex<T> v : getAllVertices()) {
+            scanned++;
+            if (v.equals(vertex)) {
+                found = v;
+                break;
             }
         }
-        return degree;
+        if (probe != null)
+            probe.finish(scanned, 0);
+        return found;
     }
 
+    /** Time Complexity: O(1), read from the statistics. **/
     public int maximumDegree() {
-        int maximumDegree = 0;
-        for (Vertex<T> vertex : getAllVertices()) {
-            if (vertex.getEdges().size() > maximumDegree)
-                maximumDegree = vertex.getEdges().size();
-
-        }
-        return maximumDegree;
+        return statistics.maximumDegree();
     }
 
+    /**
+     * Number of edges from a vertex to itself, an UNDIRECTED loop counting once. A DIRECTED loop counts once as well:
+     * this used to halve the count of every Graph, as if each loop were stored twice, which only holds for the
+     * UNDIRECTED ones. Time Complexity: O(1).
+     **/
     public int numberOfSelfLoop() {
-        int numberOfSelfLoop = 0;
-        for (Edge<T> edge : getAllEdges()) {
-            if (edge.getTo().compareTo(edge.getFrom()) == 0)
-                numberOfSelfLoop++;
-        }
-        return numberOfSelfLoop / 2;                    // Each edge is counted twice.
+        return (int) statistics.selfLoopCount();
+    }
+
+    /**
+     * A counter that grows with every change that can alter the result of a query on the Graph: insertion of a vertex
+     * or of a connected edge, including through Vertex.addEdge, and Vertex.setWeight or Edge.setCost on its members.
+     * Equal versions mean no such change happened in between. Time Complexity: O(1).
+     **/
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Starts keeping the connected components of the Graph current, and returns them. The first call builds the index
+     * from the vertices and edges already present, scanning them in parallel while holding the commit lock, so other
+     * insertions wait for it. Later calls return the same index.
+     * Time Complexity: O((|V| + |E|) * alpha(|V|)) for the first call, O(1) afterwards.
+     **/
+    public ConnectivityIndex<T> trackConnectivity() {
+        ConnectivityIndex<T> index = connectivity;
+        if (index == null) {
+            clock.exclusive(() -> {
+                if (connectivity == null)
+                    connectivity = ConnectivityIndex.build(allVertices);
+            });
+            index = connectivity;
+        }
+        return index;
+    }
+
+    /** The connectivity index, or null if trackConnectivity was never called. **/
+    public ConnectivityIndex<T> connectivity() {
+        return connectivity;
+    }
+
+    /** The live statistics of the Graph, updated on every insertion. **/
+    public GraphStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * Recomputes the statistics by a parallel scan of every vertex, to check the live ones against.
+     * The result is not kept current. Time Complexity: O(|V| + |E|).
+     **/
+    public GraphStatistics recomputeStatistics() {
+        return GraphStatistics.compute(type, allVertices);
     }
 
     /** Given two valid vertices, check if there exists an edge between them.
-     * Time Complexity: O(|E|).
+     * Time Complexity: O(|E|), O(1) expected when the Graph is indexed.
      * Space Complexity: O(|E|).
      **/
     public boolean edgeExists(Vertex<T> sourceVertex, Vertex<T> destinationVertex) {
         if (sourceVertex == null || destinationVertex == null)
             throw new NullPointerException("End vertices cannot be null");
 
+        if (isIndexed()) {
+            final Vertex<T> from = indexedVertex(sourceVertex);
+            return from != null && from.edgeTo(destinationVertex) != null;
+        }
+
+        final Instrumentation.Probe probe = Instrumentation.start("Graph.edgeExists");
+        boolean exists = false;
+        int scanned = 0;
         for (Edge<T> edge : getAllEdges()) {
             Vertex<T> startVertex = edge.getFrom();
             Vertex<T> endVertex = edge.getTo();
+            scanned++;
 
-            if (startVertex.equals(sourceVertex) && endVertex.equals(destinationVertex))
-                return true;
-
+            if (startVertex.equals(sourceVertex) && endVertex.equals(destinationVertex)) {
+                exists = true;
+                break;
+            }
         }
-        return false;
+        if (probe != null)
+            probe.finish(0, scanned);
+        return exists;
+    }
+
+    /**
+     * A consistent read only view of the Graph as it is now, in O(1) and without blocking writers. Vertices and edges
+     * added later, through the Graph or through Vertex.addEdge, are invisible to it. Weights and costs are read live.
+     **/
+    public GraphSnapshot<T> snapshot() {
+        final long version = clock.committed();
+        return new GraphSnapshot<>(this, version, allVertices.sizeAt(version));
+    }
+
+    /** The first count vertices, as a view that later additions do not change. **/
+    List<Vertex<T>> firstVertices(int count) {
+        return allVertices.prefix(count);
+    }
+
+    /**
+     * Returns an immutable CSR snapshot of the Graph with dense int vertex ids, built from snapshot(): it is consistent
+     * even while other threads add vertices and edges, which it does not block. Only the vertices of the Graph get an
+     * id: an edge leading to a vertex that is not in the Graph, as Vertex.addEdge can create, is left out of the
+     * snapshot, as it is left out of IntGraph.of, of GraphFile.write and of DepthFirstPaths.
+     **/
+    public CsrGraph<T> freeze() {
+        return CsrGraph.of(this);
+    }
+
+    /**
+     * A hash of the structure that equal Graphs share, whatever the order of their vertices and edges: it mixes the
+     * type, the counts and the multisets of vertex values and of edge end values. Time Complexity: O(1).
+     **/
+    public long fingerprint() {
+        long h = mix(type.ordinal() + 1L);
+        h = mix(h + allVertices.size());
+        h = mix(h + allEdges.size());
+        h = mix(h + vertexFingerprint);
+        return mix(h + edgeFingerprint);
+    }
+
+    private static long fingerprint(Vertex<?> vertex) {
+        return mix(Objects.hashCode(vertex.getValue()));
+    }
+
+    private static long fingerprint(Edge<?> edge) {
+        return mix(Objects.hashCode(edge.getFrom().getValue()) * 0x9E3779B97F4A7C15L
+                + Objects.hashCode(edge.getTo().getValue()));
+    }
+
+    private static <E> long sum(Collection<E> elements, ToLongFunction<E> hash) {
+        // Sums wrap around, so the order of the additions does not matter.
+        return elements.size() < PARALLEL_FINGERPRINT_THRESHOLD
+                ? elements.stream().mapToLong(hash).sum()
+                : elements.parallelStream().mapToLong(hash).sum();
+    }
+
+    /** The 64 bit finalizer of MurmurHash3. **/
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE51AFE53L;
+        return h ^ (h >>> 33);
     }
 
     @SuppressWarnings("unchecked")
@@ -130,9 +452,12 @@ public class Graph<T extends Object & Comparable<T>> {
         // 1. type
         // 2. size of allVertices
         // 3. size of allEdges
-        // 4. each vertex
-        // 5. each edge
+        // 4. the fingerprints, which tell most unequal graphs apart in O(1)
+        // 5. each vertex
+        // 6. each edge
 
+        if (this == o)
+            return true;
         if (!(o instanceof Graph<?> that))
             return false;
 
@@ -148,6 +473,9 @@ public class Graph<T extends Object & Comparable<T>> {
         if (!equalSizeAllEdges)
             return false;
 
+        if (this.fingerprint() != that.fingerprint())
+            return false;
+
         // Vertex Comparison
         final Object[] thisVertices = this.getAllVertices().toArray();
         final Object[] thatVertices = that.getAllVertices().toArray();
@@ -178,18 +506,10 @@ public class Graph<T extends Object & Comparable<T>> {
         return true;
     }
 
+    /** Derived from the fingerprint, so it is O(1) and, like equals, independent of the order of insertion. **/
     @Override
     public int hashCode() {
-        int result = this.type.hashCode();
-        result = 31 * result + Integer.hashCode(this.getAllVertices().size());
-        result = 31 * result + Integer.hashCode(this.getAllEdges().size());
-
-        for (Vertex<T> vertex : getAllVertices())
-            result = 31 * result + vertex.hashCode();
-
-        for (Edge<T> edge : getAllEdges())
-            result = 31 * result + edge.hashCode();
-        return result;
+        return Long.hashCode(fingerprint());
     }
 
     @Override
@@ -205,7 +525,24 @@ public class Graph<T extends Object & Comparable<T>> {
         // Instance Variables
         private T value = null;
         private int weight = 0;
-        private final List<Edge<T>> edges = new ArrayList<>();  // An ArrayList of all edges that are incident to the vertex.
+        private final VersionedList<Edge<T>> edges = new VersionedList<>();  // All edges incident to the vertex, append only.
+        private final List<Edge<T>> edgesView = Collections.unmodifiableList(edges);
+
+        // Below this many edges a linear scan beats hashing, so the target index is only built for larger vertices.
+        // It is built on first use and kept current by the appends, both under the commit lock, and read without it.
+        private static final int TARGET_INDEX_THRESHOLD = 8;
+        private volatile Map<T, Edge<T>> targets = null;        // First edge towards each target value.
+
+        // The clock of the Graphs holding the vertex, or of the vertex alone until it joins one. Set once, then only
+        // replaced by the clock it was merged into.
+        private volatile CommitClock clock = null;
+
+        // Every Graph holding the vertex, whose statistics and version follow each edge added, weakly referenced so
+        // that a vertex outliving its Graphs neither keeps them alive nor keeps updating them. Only accessed under
+        // the commit lock.
+        private static final WeakReference<?>[] NO_OWNERS = new WeakReference<?>[0];
+        private WeakReference<?>[] owners = NO_OWNERS;
+        private GraphStatistics.Targets targetSet = null;       // Identity set of the targets, once held by a Graph.
 
         // Constructors
         public Vertex(T value) {
@@ -221,7 +558,10 @@ public class Graph<T extends Object & Comparable<T>> {
         /** Deep copy the edges along with the value and the weight **/
         public Vertex(Vertex<T> vertex) {
             this(vertex.value, vertex.weight);
-            this.edges.addAll(vertex.edges);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            final Edge<T>[] copied = vertex.edges.toArray(new Edge[0]);
+            // No other thread can see the copy yet: its edges are stamped 0, before any commit.
+            this.edges.addAll(copied, 0, copied.length, 0);
         }
 
         // Getters
@@ -233,11 +573,20 @@ public class Graph<T extends Object & Comparable<T>> {
             return weight;
         }
 
+        /**
+         * A read only view of the edges, kept current: add, remove and set throw UnsupportedOperationException. Edges
+         * are added with addEdge, or with Graph.addEdge.
+         **/
         public List<Edge<T>> getEdges() {
-            return edges;
+            return edgesView;
         }
 
         public Edge<T> getEdge(Vertex<T> vertex) {
+            final Edge<T> candidate = firstEdgeTo(vertex.getValue());
+            if (candidate == null || candidate.getTo().compareTo(vertex) == 0)
+                return candidate;
+
+            // Another vertex shares the value, fall back to a scan.
             for (Edge<T> e : edges) {
                 if (e.getTo().compareTo(vertex) == 0)
                     return e;
@@ -245,24 +594,225 @@ public class Graph<T extends Object & Comparable<T>> {
             return null;
         }
 
+        /** Returns the first edge whose 'to' vertex equals the given vertex, or null. **/
+        Edge<T> edgeTo(Vertex<T> vertex) {
+            final Edge<T> candidate = firstEdgeTo(vertex.getValue());
+            if (candidate == null || candidate.getTo().equals(vertex))
+                return candidate;
+
+            for (Edge<T> e : edges) {
+                if (e.getTo().equals(vertex))
+                    return e;
+            }
+            return null;
+        }
+
+        /** Returns the first edge towards a vertex holding the given value. O(1) expected once indexed. **/
+        private Edge<T> firstEdgeTo(T value) {
+            Map<T, Edge<T>> index = targets;
+            if (index == null) {
+                if (edges.size() < TARGET_INDEX_THRESHOLD) {
+                    for (Edge<T> e : edges) {
+                        if (e.getTo().getValue().equals(value))
+                            return e;
+                    }
+                    return null;
+                }
+                clock().exclusive(this::indexTargets);
+                index = targets;
+            }
+            return index.get(value);
+        }
+
+        /** Under the commit lock: builds the target index from the edges added so far, unless it exists already. **/
+        private void indexTargets() {
+            if (targets != null)
+                return;
+            final Map<T, Edge<T>> index = new ConcurrentHashMap<>(edges.size() * 2);
+            for (Edge<T> e : edges)
+                index.putIfAbsent(e.getTo().getValue(), e);
+            targets = index;
+        }
+
+        /** Under the commit lock: records edges[from .. to - 1], just appended, in the target index if there is one. **/
+        private void indexAppended(Edge<T>[] edges, int from, int to) {
+            final Map<T, Edge<T>> index = targets;
+            if (index == null)
+                return;
+            for (int i = from; i < to; i++)
+                index.putIfAbsent(edges[i].getTo().getValue(), edges[i]);
+        }
+
         // Setter
         public void setWeight(int weight) {
-            this.weight = weight;
+            clock().exclusive(() -> {
+                this.weight = weight;
+                modified();
+            });
         }
 
+        /** Appends an edge, in a commit of the Graphs holding the vertex. **/
         public void addEdge(Edge<T> edge) {
-            edges.add(edge);
+            clock().commit(version -> append(edge, version));
+        }
+
+        /** The clock the vertex commits on, one of its own if it never joined a Graph. **/
+        private CommitClock clock() {
+            CommitClock current = clock;
+            if (current == null) {
+                synchronized (this) {
+                    if (clock == null)
+                        clock = new CommitClock();
+                    current = clock;
+                }
+            }
+            return current;
         }
 
-        /** Given a vertex, is there a direct path to that vertex? In other word, is there any incident edge at that vertex? **/
-        public boolean pathTo(Vertex<T> vertex) {
-            for (Edge<T> e : edges) {
-                if (e.getTo().compareTo(vertex) == 0)
+        /**
+         * Before a Graph commits the vertex or one of its edges: makes the vertex commit on the clock of the Graph,
+         * merging it with the clock the vertex had, if any.
+         **/
+        private void join(CommitClock graphClock) {
+            CommitClock current = clock;
+            if (current == null) {
+                synchronized (this) {
+                    if (clock == null) {
+                        clock = graphClock;
+                        return;
+                    }
+                    current = clock;
+                }
+            }
+            if (current != graphClock) {
+                graphClock.merge(current);
+                clock = graphClock.resolve();
+            }
+        }
+
+        private void append(Edge<T> edge, long version) {
+            final int degree = edges.size();
+            final boolean repeat = owners.length > 0 && repeatsTarget(edge.getTo());
+            edges.add(edge, version);
+            final Map<T, Edge<T>> index = targets;
+            if (index != null)
+                index.putIfAbsent(edge.getTo().getValue(), edge);
+            forEachOwner(owner -> {
+                owner.statistics.edgeAdded(degree, edge.getTo() == this, repeat);
+                if (owner.connectivity != null)
+                    owner.connectivity.edgeAdded(this, edge.getTo());
+                owner.version++;
+            });
+        }
+
+        /**
+         * Bulk append of edges[from .. to - 1], within a commit of the given version, or with version 0 on a vertex
+         * that no other thread can see yet, before it joins a Graph.
+         **/
+        void addEdges(Edge<T>[] edges, int from, int to, long version) {
+            if (owners.length == 0) {
+                this.edges.addAll(edges, from, to, version);
+                indexAppended(edges, from, to);
+                return;
+            }
+            final int degreeBefore = this.edges.size();
+            final int loopsBefore = GraphStatistics.loops(this, this.edges, 0, degreeBefore);
+            final int repeatsBefore = GraphStatistics.repeats(this.edges, degreeBefore);
+            this.edges.addAll(edges, from, to, version);
+            indexAppended(edges, from, to);
+            final int degreeAfter = this.edges.size();
+            final int loopsAfter = loopsBefore + GraphStatistics.loops(this, this.edges, degreeBefore, degreeAfter);
+            final int repeatsAdded = GraphStatistics.repeats(this.edges, degreeAfter) - repeatsBefore;
+            targetSet = null;
+            forEachOwner(owner -> {
+                owner.statistics.edgesAdded(degreeBefore, degreeAfter, loopsBefore, loopsAfter, repeatsAdded);
+                if (owner.connectivity != null) {
+                    for (int i = from; i < to; i++)
+                        owner.connectivity.edgeAdded(this, edges[i].getTo());
+                }
+                owner.version++;
+            });
+        }
+
+        /**
+         * Is there already an edge towards this very vertex, not just one holding an equal value? Past a few edges
+         * the answer comes from the target set, which records the new target as well.
+         **/
+        private boolean repeatsTarget(Vertex<T> vertex) {
+            final int degree = edges.size();
+            if (degree < GraphStatistics.SCAN_THRESHOLD && targetSet == null) {
+                for (Edge<T> e : edges) {
+                    if (e.getTo() == vertex)
+                        return true;
+                }
+                return false;
+            }
+            // Built when first needed, then kept current: once held by a Graph, every single edge comes through here
+            // and a bulk append drops the set.
+            if (targetSet == null)
+                targetSet = GraphStatistics.Targets.of(edges, degree);
+            return !targetSet.add(vertex);
+        }
+
+        /** Under the commit lock: is the vertex held by a Graph, whose state its appends update? **/
+        boolean isOwned() {
+            return owners.length > 0;
+        }
+
+        /** Under the commit lock: is the vertex a member of that Graph? **/
+        private boolean isOwnedBy(Graph<?> owner) {
+            for (WeakReference<?> reference : owners) {
+                if (reference == owner.self)
                     return true;
             }
             return false;
         }
 
+        /** Called under the commit lock when the vertex joins a Graph. **/
+        private void addOwner(Graph<?> owner) {
+            owners = Arrays.copyOf(owners, owners.length + 1);
+            owners[owners.length - 1] = owner.self;
+        }
+
+        /** Under the commit lock: runs an action on every Graph holding the vertex, forgetting those collected. **/
+        private void forEachOwner(Consumer<Graph<?>> action) {
+            int live = 0;
+            for (WeakReference<?> reference : owners) {
+                final Graph<?> owner = (Graph<?>) reference.get();
+                if (owner == null)
+                    continue;
+                owners[live++] = reference;
+                action.accept(owner);
+            }
+            if (live < owners.length)
+                owners = live == 0 ? NO_OWNERS : Arrays.copyOf(owners, live);
+        }
+
+        /** Called under the commit lock when the vertex or one of its edges changed in place. **/
+        private void modified() {
+            forEachOwner(owner -> owner.version++);
+        }
+
+        /** The number of edges added at or before a version. **/
+        int degreeAt(long version) {
+            return edges.sizeAt(version);
+        }
+
+        /** The edges added at or before a version. **/
+        List<Edge<T>> edgesAt(long version) {
+            return edges.prefix(edges.sizeAt(version));
+        }
+
+        /** The edges added so far, as a view that later appends do not change and that reads without fences. **/
+        List<Edge<T>> currentEdges() {
+            return edges.prefix(edges.size());
+        }
+
+        /** Given a vertex, is there a direct path to that vertex? In other word, is there any incident edge at that vertex? **/
+        public boolean pathTo(Vertex<T> vertex) {
+            return getEdge(vertex) != null;
+        }
+
 
         @Override
         @SuppressWarnings("rawtypes")
@@ -270,7 +820,7 @@ public class Graph<T extends Object & Comparable<T>> {
             if (!(vertex instanceof Vertex v1))
                 return false;
 
-            final boolean equalValue = v1.value == this.value;
+            final boolean equalValue = Objects.equals(v1.value, this.value);
             if (!equalValue)
                 return false;
 
@@ -296,13 +846,11 @@ public class Graph<T extends Object & Comparable<T>> {
             return true;
         }
 
-        // HashCode defined around a vertex.
+        // HashCode defined around a vertex. Only the value is used: the weight and the edges can change while the
+        // vertex is in a HashSet or a HashMap, and its hash must not.
         @Override
         public int hashCode() {
-            int result = this.value.hashCode();
-            result = 31 * result + Integer.hashCode(this.weight);
-            result = 31 * result + Integer.hashCode(this.edges.size());
-            return result;
+            return Objects.hashCode(this.value);
         }
 
 
@@ -380,7 +928,10 @@ public class Graph<T extends Object & Comparable<T>> {
         }
 
         public void setCost(int cost) {
-            this.cost = cost;
+            from.clock().exclusive(() -> {
+                this.cost = cost;
+                from.modified();
+            });
         }
 
         public Vertex<T> getFrom() {
@@ -422,7 +973,7 @@ public class Graph<T extends Object & Comparable<T>> {
             if (!equalFrom)
                 return false;
 
-            return this.getTo() == edge.getTo();
+            return this.getTo().equals(edge.getTo());
         }
 
         @Override
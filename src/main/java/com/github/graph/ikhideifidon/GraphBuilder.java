@@ -0,0 +1,293 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk construction of a Graph in O(|V| + |E|).
+ * Vertices and edges are collected first and connected in one pass when build() is called. Resolving the end
+ * vertices of every edge and creating the reciprocal edges of an UNDIRECTED Graph run in parallel. Adjacency lists
+ * keep the same order as the Graph(TYPE, Collection, Collection) constructor gives them. Unlike that constructor,
+ * edges whose end vertices are not part of the Graph are dropped instead of being kept in getAllEdges().
+ **/
+public final class GraphBuilder<T extends Object & Comparable<T>> {
+
+    /** How vertices holding equal values are merged. **/
+    public enum Dedup {
+        /** Every distinct Vertex object is a vertex of the Graph. Edges must reference those objects. **/
+        NONE,
+        /** The first vertex holding a value represents it. Edges are resolved by value. O(|V| + |E|) expected. **/
+        HASH,
+        /**
+         * As HASH, but vertices are merged by sorting, which only relies on compareTo. The Graph lists its vertices
+         * in sorted order. O(|V| log |V| + |E| log |V|).
+         **/
+        SORT,
+    }
+
+    private final Graph.TYPE type;
+    private final List<Graph.Vertex<T>> vertices = new ArrayList<>();
+    private final List<Graph.Edge<T>> edges = new ArrayList<>();
+    private Dedup dedup = Dedup.NONE;
+    private boolean dropParallelEdges = false;
+    private boolean indexed = false;
+    private boolean connectivity = false;
+    private int parallelism = ForkJoinPool.getCommonPoolParallelism();
+
+    /** A builder for an Undirected Graph. **/
+    public GraphBuilder() { this(Graph.TYPE.UNDIRECTED); }
+
+    public GraphBuilder(Graph.TYPE type) { this.type = type; }
+
+    public GraphBuilder<T> addVertex(Graph.Vertex<T> vertex) {
+        if (vertex == null)
+            throw new NullPointerException("Vertex cannot be null");
+        vertices.add(vertex);
+        return this;
+    }
+
+    public GraphBuilder<T> addVertices(Collection<Graph.Vertex<T>> vertices) {
+        for (Graph.Vertex<T> vertex : vertices)
+            addVertex(vertex);
+        return this;
+    }
+
+    public GraphBuilder<T> addEdge(Graph.Edge<T> edge) {
+        if (edge == null)
+            throw new NullPointerException("Edge cannot be null");
+        edges.add(edge);
+        return this;
+    }
+
+    public GraphBuilder<T> addEdges(Collection<Graph.Edge<T>> edges) {
+        for (Graph.Edge<T> edge : edges)
+            addEdge(edge);
+        return this;
+    }
+
+    // Options
+    public GraphBuilder<T> dedup(Dedup dedup) {
+        this.dedup = Objects.requireNonNull(dedup);
+        return this;
+    }
+
+    /** Keep only the first of several edges joining the same pair of vertices (either way round if UNDIRECTED). **/
+    public GraphBuilder<T> dropParallelEdges(boolean dropParallelEdges) {
+        this.dropParallelEdges = dropParallelEdges;
+        return this;
+    }
+
+    public GraphBuilder<T> indexed(boolean indexed) {
+        this.indexed = indexed;
+        return this;
+    }
+
+    /**
+     * Track the connected components of the Graph from the start, as Graph.trackConnectivity() does. The index is
+     * built in parallel along with the Graph.
+     **/
+    public GraphBuilder<T> connectivity(boolean connectivity) {
+        this.connectivity = connectivity;
+        return this;
+    }
+
+    /** Number of worker threads used by build(). Defaults to the common pool parallelism. **/
+    public GraphBuilder<T> parallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public Graph<T> build() {
+        if (parallelism == ForkJoinPool.getCommonPoolParallelism())
+            return ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(this::assemble));
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Parallel streams started from within a pool task run in that pool.
+            return pool.invoke(ForkJoinTask.adapt(this::assemble));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Graph<T> assemble() {
+        // 1. The distinct vertices of the Graph and how an edge end is mapped onto their ids.
+        final Graph.Vertex<T>[] canonical;
+        final ToIntFunction<Graph.Vertex<T>> idOf;
+        switch (dedup) {
+            case HASH -> {
+                final Graph.Vertex<T>[] input = vertices.toArray(new Graph.Vertex[0]);
+                // The smallest input index holding a value wins, which keeps the result deterministic.
+                final Map<T, Integer> first = new ConcurrentHashMap<>(input.length * 2);
+                IntStream.range(0, input.length).parallel().forEach(i -> first.merge(input[i].getValue(), i, Math::min));
+                final int[] ids = new int[input.length];
+                int count = 0;
+                for (int i = 0; i < input.length; i++)
+                    ids[i] = first.get(input[i].getValue()) == i ? count++ : -1;
+                canonical = new Graph.Vertex[count];
+                for (int i = 0; i < input.length; i++) {
+                    if (ids[i] >= 0)
+                        canonical[ids[i]] = input[i];
+                }
+                idOf = vertex -> {
+                    final Integer i = first.get(vertex.getValue());
+                    return i == null ? -1 : ids[i];
+                };
+            }
+            case SORT -> {
+                final Graph.Vertex<T>[] sorted = vertices.toArray(new Graph.Vertex[0]);
+                // parallelSort is stable, so the first vertex of each run of equal values comes first in the input.
+                Arrays.parallelSort(sorted, Comparator.comparing(Graph.Vertex::getValue));
+                int count = 0;
+                for (int i = 0; i < sorted.length; i++) {
+                    if (count == 0 || sorted[count - 1].getValue().compareTo(sorted[i].getValue()) != 0)
+                        sorted[count++] = sorted[i];
+                }
+                canonical = Arrays.copyOf(sorted, count);
+                idOf = vertex -> {
+                    int low = 0, high = canonical.length - 1;
+                    while (low <= high) {
+                        final int middle = (low + high) >>> 1;
+                        final int comparison = canonical[middle].getValue().compareTo(vertex.getValue());
+                        if (comparison < 0)
+                            low = middle + 1;
+                        else if (comparison > 0)
+                            high = middle - 1;
+                        else
+                            return middle;
+                    }
+                    return -1;
+                };
+            }
+            default -> {
+                final Map<Graph.Vertex<T>, Integer> ids = new IdentityHashMap<>(vertices.size() * 2);
+                final List<Graph.Vertex<T>> distinct = new ArrayList<>(vertices.size());
+                for (Graph.Vertex<T> vertex : vertices) {
+                    if (ids.putIfAbsent(vertex, distinct.size()) == null)
+                        distinct.add(vertex);
+                }
+                canonical = distinct.toArray(new Graph.Vertex[0]);
+                idOf = vertex -> {
+                    final Integer id = ids.get(vertex);
+                    return id == null ? -1 : id;
+                };
+            }
+        }
+
+        // 2. Resolve both ends of every edge.
+        final Graph.Edge<T>[] input = edges.toArray(new Graph.Edge[0]);
+        final int[] from = new int[input.length];
+        final int[] to = new int[input.length];
+        IntStream.range(0, input.length).parallel().forEach(i -> {
+            from[i] = idOf.applyAsInt(input[i].getFrom());
+            to[i] = idOf.applyAsInt(input[i].getTo());
+        });
+
+        // 3. Select the edges to keep, in input order.
+        final boolean undirected = type == Graph.TYPE.UNDIRECTED;
+        final int[] kept = dropParallelEdges
+                ? withoutParallelEdges(from, to, canonical.length, undirected)
+                : IntStream.range(0, input.length).filter(i -> from[i] >= 0 && to[i] >= 0).toArray();
+
+        // 4. Position of every edge in the adjacency list of its source, exactly as the constructor appends them:
+        //    each edge followed by its reciprocal.
+        final int[] offsets = new int[canonical.length + 1];
+        for (int i : kept) {
+            offsets[from[i] + 1]++;
+            if (undirected)
+                offsets[to[i] + 1]++;
+        }
+        for (int v = 0; v < canonical.length; v++)
+            offsets[v + 1] += offsets[v];
+        final int[] cursor = Arrays.copyOf(offsets, canonical.length);
+        final int[] position = new int[kept.length];
+        final int[] reciprocalPosition = new int[undirected ? kept.length : 0];
+        for (int k = 0; k < kept.length; k++) {
+            position[k] = cursor[from[kept[k]]]++;
+            if (undirected)
+                reciprocalPosition[k] = cursor[to[kept[k]]]++;
+        }
+
+        // 5. Create the edges and place them, in parallel.
+        final Graph.Edge<T>[] forward = new Graph.Edge[kept.length];
+        final Graph.Edge<T>[] reciprocal = new Graph.Edge[reciprocalPosition.length];
+        final Graph.Edge<T>[] slots = new Graph.Edge[offsets[canonical.length]];
+        IntStream.range(0, kept.length).parallel().forEach(k -> {
+            final Graph.Edge<T> edge = input[kept[k]];
+            final Graph.Vertex<T> source = canonical[from[kept[k]]];
+            final Graph.Vertex<T> destination = canonical[to[kept[k]]];
+            // Edges pointing at a merged duplicate are re-pointed at the vertex that represents it.
+            forward[k] = edge.getFrom() == source && edge.getTo() == destination
+                    ? edge
+                    : new Graph.Edge<>(edge.getCost(), source, destination);
+            slots[position[k]] = forward[k];
+            if (undirected) {
+                reciprocal[k] = new Graph.Edge<>(edge.getCost(), destination, source);
+                slots[reciprocalPosition[k]] = reciprocal[k];
+            }
+        });
+        final List<Graph.Edge<T>> allEdges = new ArrayList<>(forward.length + reciprocal.length);
+        allEdges.addAll(Arrays.asList(forward));
+        allEdges.addAll(Arrays.asList(reciprocal));
+
+        // The vertices may be shared with other graphs, so they are connected within the commit that loads them. A
+        // vertex already held by a Graph updates the statistics, connectivity and version of that Graph as its edges
+        // are added: those are connected one at a time, the others in parallel.
+        final Graph<T> graph = new Graph<>(type, indexed);
+        graph.load(Arrays.asList(canonical), allEdges, version -> {
+            IntStream.range(0, canonical.length).parallel().filter(v -> !canonical[v].isOwned())
+                    .forEach(v -> canonical[v].addEdges(slots, offsets[v], offsets[v + 1], version));
+            for (int v = 0; v < canonical.length; v++) {
+                if (canonical[v].isOwned())
+                    canonical[v].addEdges(slots, offsets[v], offsets[v + 1], version);
+            }
+        });
+        if (connectivity)
+            graph.trackConnectivity();
+        return graph;
+    }
+
+    /**
+     * The indices of the resolved edges, in input order, keeping only the first edge between each pair of vertices.
+     * Edges are grouped by their smaller end with a counting sort, then duplicates are found with one stamp per
+     * vertex, so the whole selection is linear.
+     **/
+    private static int[] withoutParallelEdges(int[] from, int[] to, int vertexCount, boolean undirected) {
+        final int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < from.length; i++) {
+            if (from[i] >= 0 && to[i] >= 0)
+                offsets[(undirected ? Math.min(from[i], to[i]) : from[i]) + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++)
+            offsets[v + 1] += offsets[v];
+
+        final int[] grouped = new int[offsets[vertexCount]];
+        final int[] cursor = Arrays.copyOf(offsets, vertexCount);
+        for (int i = 0; i < from.length; i++) {
+            if (from[i] >= 0 && to[i] >= 0)
+                grouped[cursor[undirected ? Math.min(from[i], to[i]) : from[i]]++] = i;
+        }
+
+        final boolean[] keep = new boolean[from.length];
+        final int[] seenFrom = new int[vertexCount];
+        Arrays.fill(seenFrom, -1);
+        for (int v = 0; v < vertexCount; v++) {
+            for (int g = offsets[v]; g < offsets[v + 1]; g++) {
+                final int i = grouped[g];
+                final int other = undirected ? Math.max(from[i], to[i]) : to[i];
+                if (seenFrom[other] != v) {
+                    seenFrom[other] = v;
+                    keep[i] = true;
+                }
+            }
+        }
+        return IntStream.range(0, from.length).filter(i -> keep[i]).toArray();
+    }
+}
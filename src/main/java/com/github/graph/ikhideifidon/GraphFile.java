@@ -0,0 +1,187 @@
+package com.github.graph.ikhideifidon;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The binary graph file: a Graph saved in CSR form, to be mapped back with MappedGraph.open instead of rebuilt.
+ * All numbers are little endian and every section starts on an 8 byte boundary:
+ *
+ *     header      magic "UGDF", format version, type ordinal, vertex count, edge count, then the position of
+ *                 each section as a long
+ *     offsets     int[vertexCount + 1], the edges of vertex v are offsets[v] .. offsets[v + 1] - 1
+ *     targets     int[edgeCount], the id each edge leads to
+ *     costs       int[edgeCount]
+ *     weights     int[vertexCount]
+ *     index       long[vertexCount + 1], the value of vertex v is dictionary bytes index[v] .. index[v + 1] - 1
+ *     dictionary  the values, encoded by a Codec
+ *
+ * Vertex ids are the positions in Graph.getAllVertices(), edges keep the order of Vertex.getEdges(), as in CsrGraph.
+ * Each section is mapped on its own, so it must stay under 2 GiB: up to about 500 million edges.
+ **/
+public final class GraphFile {
+
+    static final int MAGIC = 0x46444755;            // "UGDF" read as a little endian int
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 80;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // Byte positions of the header fields.
+    static final int TYPE_POSITION = 8;
+    static final int VERTEX_COUNT_POSITION = 12;
+    static final int EDGE_COUNT_POSITION = 16;
+    static final int SECTIONS_POSITION = 24;        // offsets, targets, costs, weights, index, dictionary, end
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private GraphFile() { }
+
+    /** Turns vertex values into bytes and back. **/
+    public interface Codec<T> {
+        byte[] encode(T value);
+
+        /** Decodes length bytes from an absolute position, without moving the position of the buffer. **/
+        T decode(ByteBuffer buffer, int position, int length);
+
+        Codec<Integer> INTEGER = new Codec<>() {
+            @Override
+            public byte[] encode(Integer value) {
+                return ByteBuffer.allocate(Integer.BYTES).order(ORDER).putInt(value).array();
+            }
+
+            @Override
+            public Integer decode(ByteBuffer buffer, int position, int length) { return buffer.getInt(position); }
+        };
+
+        Codec<Long> LONG = new Codec<>() {
+            @Override
+            public byte[] encode(Long value) {
+                return ByteBuffer.allocate(Long.BYTES).order(ORDER).putLong(value).array();
+            }
+
+            @Override
+            public Long decode(ByteBuffer buffer, int position, int length) { return buffer.getLong(position); }
+        };
+
+        Codec<String> STRING = new Codec<>() {
+            @Override
+            public byte[] encode(String value) { return value.getBytes(StandardCharsets.UTF_8); }
+
+            @Override
+            public String decode(ByteBuffer buffer, int position, int length) {
+                final byte[] bytes = new byte[length];
+                buffer.get(position, bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Writes a Graph to a file, replacing it if it exists. Edges leading outside of the Graph are left out, as by
+     * Graph.freeze. Time Complexity: O(|V| + |E|), through a CsrGraph of the Graph.
+     **/
+    public static <T extends Object & Comparable<T>> void write(Graph<T> graph, Path path, Codec<T> codec) throws IOException {
+        write(graph.freeze(), path, codec);
+    }
+
+    /** Writes a CSR snapshot to a file, replacing it if it exists. **/
+    public static <T extends Object & Comparable<T>> void write(CsrGraph<T> graph, Path path, Codec<T> codec) throws IOException {
+        final int vertexCount = graph.vertexCount();
+        final int edgeCount = graph.edgeCount();
+        final byte[][] values = new byte[vertexCount][];
+        long dictionaryBytes = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            values[v] = codec.encode(graph.valueOf(v));
+            dictionaryBytes += values[v].length;
+        }
+
+        final long[] sections = new long[7];
+        sections[0] = HEADER_BYTES;
+        sections[1] = align(sections[0] + 4L * (vertexCount + 1));
+        sections[2] = align(sections[1] + 4L * edgeCount);
+        sections[3] = align(sections[2] + 4L * edgeCount);
+        sections[4] = align(sections[3] + 4L * vertexCount);
+        sections[5] = align(sections[4] + 8L * (vertexCount + 1));
+        sections[6] = sections[5] + dictionaryBytes;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ORDER);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(graph.getType().ordinal()).putInt(vertexCount)
+                    .putInt(edgeCount).putInt(0);
+            for (long section : sections)
+                buffer.putLong(section);
+
+            pad(channel, buffer, sections[0]);
+            for (int v = 0; v <= vertexCount; v++)
+                putInt(channel, buffer, v < vertexCount ? graph.firstEdge(v) : edgeCount);
+            pad(channel, buffer, sections[1]);
+            for (int e = 0; e < edgeCount; e++)
+                putInt(channel, buffer, graph.target(e));
+            pad(channel, buffer, sections[2]);
+            for (int e = 0; e < edgeCount; e++)
+                putInt(channel, buffer, graph.cost(e));
+            pad(channel, buffer, sections[3]);
+            for (int v = 0; v < vertexCount; v++)
+                putInt(channel, buffer, graph.weight(v));
+            pad(channel, buffer, sections[4]);
+            long position = 0;
+            for (int v = 0; v <= vertexCount; v++) {
+                putLong(channel, buffer, position);
+                if (v < vertexCount)
+                    position += values[v].length;
+            }
+            pad(channel, buffer, sections[5]);
+            for (byte[] value : values) {
+                for (int i = 0; i < value.length; ) {
+                    if (!buffer.hasRemaining())
+                        flush(channel, buffer);
+                    final int n = Math.min(buffer.remaining(), value.length - i);
+                    buffer.put(value, i, n);
+                    i += n;
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES)
+            flush(channel, buffer);
+        buffer.putInt(value);
+    }
+
+    private static void putLong(FileChannel channel, ByteBuffer buffer, long value) throws IOException {
+        if (buffer.remaining() < Long.BYTES)
+            flush(channel, buffer);
+        buffer.putLong(value);
+    }
+
+    /** Zero fills up to the given file position, the start of the next section. **/
+    private static void pad(FileChannel channel, ByteBuffer buffer, long section) throws IOException {
+        while (channel.position() + buffer.position() < section)
+            putByte(channel, buffer);
+    }
+
+    private static void putByte(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining())
+            flush(channel, buffer);
+        buffer.put((byte) 0);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,538 @@
+package com.github.graph.ikhideifidon;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk import of a Graph of Integer values from a text file.
+ * The file is split into byte ranges that are parsed in parallel, each range by positional NIO reads into a reused
+ * buffer, with numbers parsed straight from the bytes: no String is ever created. Every range keeps its edges in
+ * primitive arrays, and they are concatenated in file order, so the Graph is the same whatever the parallelism.
+ * The Graph is then assembled by GraphBuilder. Each line describes one edge, an UNDIRECTED Graph adds its reciprocal.
+ *
+ *     SNAP    "from to [cost]" per line, separated by spaces or tabs, '#' or '%' starts a comment line.
+ *             The values are the ids found in the file, listed in ascending order. Cost defaults to 1.
+ *     DIMACS  shortest path format: "p sp n m", then "a from to cost" per edge, 'c' starts a comment line.
+ *             Values are 1 .. n.
+ *     METIS   header "n m [fmt [ncon]]", then line i lists the neighbors of vertex i, preceded by its size and
+ *             weights and each followed by an edge weight as fmt says; '%' starts a comment line. Values are 1 .. n
+ *             and the first vertex weight is the weight of the Vertex. As every edge is listed at both its ends, an
+ *             UNDIRECTED Graph keeps it from its smaller end only.
+ *
+ * Malformed input fails with an IOException giving the byte position of the offending line.
+ **/
+public final class GraphImporter {
+
+    public enum Format {
+        SNAP, DIMACS, METIS,
+    }
+
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final long MINIMUM_RANGE_BYTES = 4 << 20;
+
+    private final Format format;
+    private final Graph.TYPE type;
+    private boolean indexed = false;
+    private int parallelism = ForkJoinPool.getCommonPoolParallelism();
+    private long minimumRangeBytes = MINIMUM_RANGE_BYTES;
+
+    public GraphImporter(Format format, Graph.TYPE type) {
+        this.format = Objects.requireNonNull(format);
+        this.type = Objects.requireNonNull(type);
+    }
+
+    // Options
+    public GraphImporter indexed(boolean indexed) {
+        this.indexed = indexed;
+        return this;
+    }
+
+    /** Number of worker threads. Defaults to the common pool parallelism. **/
+    public GraphImporter parallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /** Smallest byte range parsed as one task. Small values split small files as well, which the tests rely on. **/
+    GraphImporter minimumRangeBytes(long minimumRangeBytes) {
+        if (minimumRangeBytes < 1)
+            throw new IllegalArgumentException("Range size must be positive: " + minimumRangeBytes);
+        this.minimumRangeBytes = minimumRangeBytes;
+        return this;
+    }
+
+    /** Reads a file into a Graph. **/
+    public Graph<Integer> read(Path path) throws IOException {
+        final Parsed parsed = parse(path);
+        final Graph.Vertex<Integer>[] vertices = parsed.vertices();
+        final int[] from = parsed.from;
+        final int[] to = parsed.to;
+        final int[] cost = parsed.cost;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Graph.Edge<Integer>[] edges = new Graph.Edge[from.length];
+        run(() -> IntStream.range(0, edges.length).parallel()
+                .forEach(i -> edges[i] = new Graph.Edge<>(cost[i], vertices[from[i]], vertices[to[i]])));
+
+        return new GraphBuilder<Integer>(type)
+                .addVertices(Arrays.asList(vertices))
+                .addEdges(Arrays.asList(edges))
+                .indexed(indexed)
+                .parallelism(parallelism)
+                .build();
+    }
+
+    /** Reads a file into an IntGraph, whose keys are the values a Graph would hold. **/
+    public IntGraph readIntGraph(Path path) throws IOException {
+        final Parsed parsed = parse(path);
+        return IntGraph.of(type, parsed.values, parsed.weights, parsed.from, parsed.to, parsed.cost);
+    }
+
+    /** The vertex values and the edges between their indices. **/
+    private record Parsed(int[] values, int[] weights, int[] from, int[] to, int[] cost) {
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Graph.Vertex<Integer>[] vertices() {
+            final Graph.Vertex<Integer>[] vertices = new Graph.Vertex[values.length];
+            for (int v = 0; v < values.length; v++)
+                vertices[v] = new Graph.Vertex<>(values[v], weights == null ? 0 : weights[v]);
+            return vertices;
+        }
+    }
+
+    private Parsed parse(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final int count = (int) Math.max(1, Math.min(4L * parallelism, size / minimumRangeBytes));
+            final long[] bounds = new long[count + 1];
+            for (int i = 0; i <= count; i++)
+                bounds[i] = size * i / count;
+
+            return switch (format) {
+                case SNAP -> parseSnap(channel, bounds);
+                case DIMACS -> parseDimacs(channel, bounds);
+                case METIS -> parseMetis(channel, bounds);
+            };
+        }
+    }
+
+    private Parsed parseSnap(FileChannel channel, long[] bounds) throws IOException {
+        final Edges[] ranges = parseRanges(channel, bounds, range -> new Edges() {
+            @Override
+            void line(Line line) throws IOException {
+                if (line.isEmpty() || line.startsWith('#') || line.startsWith('%'))
+                    return;
+                final int u = line.nextInt();
+                final int v = line.nextInt();
+                add(u, v, line.hasNext() ? line.nextInt() : 1);
+                line.end();
+            }
+        });
+        final Edges edges = Edges.concat(ranges);
+
+        // The values are the distinct ids, in ascending order. Ids spread over a range not much larger than the
+        // edge count are ranked through a table indexed by id, sparser ones by sorting and binary search.
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < edges.size; i++) {
+            min = Math.min(min, Math.min(edges.from[i], edges.to[i]));
+            max = Math.max(max, Math.max(edges.from[i], edges.to[i]));
+        }
+        final int[] values;
+        if (edges.size == 0) {
+            values = new int[0];
+        } else if ((long) max - min < 4L * edges.size + 1024) {
+            final int offset = min;
+            final int[] rank = new int[max - min + 1];
+            for (int i = 0; i < edges.size; i++) {
+                rank[edges.from[i] - offset] = 1;
+                rank[edges.to[i] - offset] = 1;
+            }
+            int distinct = 0;
+            for (int id = 0; id < rank.length; id++) {
+                if (rank[id] != 0)
+                    rank[id] = ++distinct;
+            }
+            values = new int[distinct];
+            for (int id = 0; id < rank.length; id++) {
+                if (rank[id] != 0)
+                    values[rank[id] - 1] = id + offset;
+            }
+            run(() -> IntStream.range(0, edges.size).parallel().forEach(i -> {
+                edges.from[i] = rank[edges.from[i] - offset] - 1;
+                edges.to[i] = rank[edges.to[i] - offset] - 1;
+            }));
+        } else {
+            final int[] ids = new int[2 * edges.size];
+            System.arraycopy(edges.from, 0, ids, 0, edges.size);
+            System.arraycopy(edges.to, 0, ids, edges.size, edges.size);
+            run(() -> Arrays.parallelSort(ids));
+            int distinct = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1])
+                    ids[distinct++] = ids[i];
+            }
+            values = Arrays.copyOf(ids, distinct);
+            run(() -> IntStream.range(0, edges.size).parallel().forEach(i -> {
+                edges.from[i] = Arrays.binarySearch(values, edges.from[i]);
+                edges.to[i] = Arrays.binarySearch(values, edges.to[i]);
+            }));
+        }
+        return edges.toParsed(values, null);
+    }
+
+    private Parsed parseDimacs(FileChannel channel, long[] bounds) throws IOException {
+        final AtomicLong declared = new AtomicLong(-1);
+        final Edges[] ranges = parseRanges(channel, bounds, range -> new Edges() {
+            @Override
+            void line(Line line) throws IOException {
+                if (line.isEmpty() || line.startsWith('c'))
+                    return;
+                if (line.startsWith('a')) {
+                    line.skipWord();
+                    final int u = line.nextInt();
+                    final int v = line.nextInt();
+                    add(u - 1, v - 1, line.nextInt());
+                } else if (line.startsWith('p')) {
+                    line.skipWord();
+                    line.skipWord();
+                    if (!declared.compareAndSet(-1, line.nextInt()))
+                        throw line.error("Second problem line");
+                    line.nextLong();
+                } else {
+                    throw line.error("Unknown line type");
+                }
+                line.end();
+            }
+        });
+        final Edges edges = Edges.concat(ranges);
+        if (declared.get() < 0)
+            throw new IOException("DIMACS file without a problem line");
+        return edges.toParsed(oneBased((int) declared.get(), edges), null);
+    }
+
+    private Parsed parseMetis(FileChannel channel, long[] bounds) throws IOException {
+        // The header is the first line that is not a comment.
+        final int[] header = new int[4];
+        final boolean[] found = {false};
+        scan(channel, 0, channel.size(), line -> {
+            if (found[0] || line.startsWith('%'))
+                return;
+            found[0] = true;
+            header[0] = line.nextInt();
+            header[1] = line.nextInt();
+            header[2] = line.hasNext() ? line.nextInt() : 0;
+            header[3] = line.hasNext() ? line.nextInt() : 1;
+            line.end();
+        }, true);
+        if (!found[0])
+            throw new IOException("METIS file without a header");
+
+        final int vertexCount = header[0];
+        final boolean sizes = header[2] / 100 % 10 == 1;
+        final boolean vertexWeights = header[2] / 10 % 10 == 1;
+        final boolean edgeWeights = header[2] % 10 == 1;
+        final int constraints = vertexWeights ? header[3] : 0;
+
+        // A vertex is identified by its line number, so the lines before every range are counted first.
+        final long[] lines = new long[bounds.length];
+        parseRanges(channel, bounds, range -> new Edges() {
+            @Override
+            void line(Line line) {
+                if (!line.startsWith('%'))
+                    lines[range + 1]++;
+            }
+        });
+        for (int i = 1; i < lines.length; i++)
+            lines[i] += lines[i - 1];
+
+        final int[] weights = new int[vertexCount];
+        final boolean undirected = type == Graph.TYPE.UNDIRECTED;
+        final Edges[] ranges = parseRanges(channel, bounds, range -> new Edges() {
+            long next = lines[range];            // The header is line 0, vertex v is line v.
+
+            @Override
+            void line(Line line) throws IOException {
+                if (line.startsWith('%'))
+                    return;
+                final long v = next++;
+                if (v == 0)
+                    return;
+                if (v > vertexCount)
+                    throw line.error("More vertex lines than the " + vertexCount + " declared");
+                if (sizes)
+                    line.nextInt();
+                for (int c = 0; c < constraints; c++) {
+                    final int weight = line.nextInt();
+                    if (c == 0)
+                        weights[(int) v - 1] = weight;
+                }
+                while (line.hasNext()) {
+                    final int u = line.nextInt();
+                    final int cost = edgeWeights ? line.nextInt() : 1;
+                    if (!undirected || v <= u)
+                        add((int) v - 1, u - 1, cost);
+                }
+            }
+        });
+        final Edges edges = Edges.concat(ranges);
+        return edges.toParsed(oneBased(vertexCount, edges), vertexWeights ? weights : null);
+    }
+
+    /** Values 1 .. n, after checking that every edge end is one of them. **/
+    private static int[] oneBased(int vertexCount, Edges edges) throws IOException {
+        for (int i = 0; i < edges.size; i++) {
+            if (edges.from[i] < 0 || edges.from[i] >= vertexCount || edges.to[i] < 0 || edges.to[i] >= vertexCount)
+                throw new IOException("Edge " + (edges.from[i] + 1) + " -> " + (edges.to[i] + 1) + " leaves the "
+                        + vertexCount + " declared vertices");
+        }
+        final int[] values = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++)
+            values[v] = v + 1;
+        return values;
+    }
+
+    // Parallel ranges
+
+    private interface RangeParser {
+        Edges create(int range);
+    }
+
+    /** Parses every byte range with its own Edges, in parallel. **/
+    private Edges[] parseRanges(FileChannel channel, long[] bounds, RangeParser parser) throws IOException {
+        final Edges[] ranges = new Edges[bounds.length - 1];
+        run(() -> IntStream.range(0, ranges.length).parallel().forEach(range -> {
+            ranges[range] = parser.create(range);
+            try {
+                scan(channel, bounds[range], bounds[range + 1], ranges[range]::line, false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        return ranges;
+    }
+
+    private void run(Runnable task) throws IOException {
+        try {
+            if (parallelism == ForkJoinPool.getCommonPoolParallelism()) {
+                ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(task));
+                return;
+            }
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                // Parallel streams started from within a pool task run in that pool.
+                pool.invoke(ForkJoinTask.adapt(task));
+            } finally {
+                pool.shutdown();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface LineHandler {
+        void line(Line line) throws IOException;
+    }
+
+    /**
+     * Hands every line starting in [start, end) to the handler, the last one possibly ending after end. A line
+     * belongs to the range holding its first byte, so consecutive ranges share no line. With stopEarly, the scan
+     * ends at the first line the handler accepts without error and leaves unread, i.e. it only reads what it needs.
+     **/
+    private static void scan(FileChannel channel, long start, long end, LineHandler handler, boolean stopEarly) throws IOException {
+        if (start >= end)
+            return;
+        byte[] bytes = new byte[(int) Math.min(BUFFER_BYTES, end - start + 1 + 4096)];
+        final Line line = new Line();
+        long base = start > 0 ? start - 1 : 0;  // File position of bytes[0].
+        boolean skip = start > 0;               // The line holding start - 1 belongs to the previous range.
+        int limit = 0;
+        int lineStart = 0;
+        boolean eof = false;
+
+        while (true) {
+            // Complete lines in the buffer.
+            int newline;
+            while ((newline = indexOf(bytes, lineStart, limit)) >= 0 || (eof && lineStart < limit)) {
+                final int lineEnd = newline >= 0 ? newline : limit;
+                if (skip) {
+                    skip = false;
+                } else {
+                    if (base + lineStart >= end)
+                        return;
+                    line.reset(bytes, lineStart, lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd,
+                            base + lineStart);
+                    handler.line(line);
+                    if (stopEarly && line.consumed)
+                        return;
+                }
+                lineStart = lineEnd + 1;
+            }
+            if (eof || base + lineStart >= end && !skip)
+                return;
+
+            // Keep the partial line and read more, growing the buffer for a line longer than it.
+            final int kept = limit - lineStart;
+            if (kept == bytes.length)
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            System.arraycopy(bytes, lineStart, bytes, 0, kept);
+            base += lineStart;
+            lineStart = 0;
+            limit = kept;
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes, limit, bytes.length - limit);
+            final int read = channel.read(buffer, base + limit);
+            if (read < 0)
+                eof = true;
+            else
+                limit += read;
+        }
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n')
+                return i;
+        }
+        return -1;
+    }
+
+    /** A line of the file, parsed in place. **/
+    private static final class Line {
+        private byte[] bytes;
+        private int position;
+        private int end;
+        private long filePosition;
+        private boolean consumed;
+
+        void reset(byte[] bytes, int start, int end, long filePosition) {
+            this.bytes = bytes;
+            this.position = start;
+            this.end = end;
+            this.filePosition = filePosition;
+            this.consumed = false;
+        }
+
+        private void skipSpaces() {
+            while (position < end && (bytes[position] == ' ' || bytes[position] == '\t'))
+                position++;
+        }
+
+        boolean isEmpty() {
+            skipSpaces();
+            return position == end;
+        }
+
+        boolean startsWith(char c) {
+            skipSpaces();
+            return position < end && bytes[position] == c;
+        }
+
+        boolean hasNext() {
+            skipSpaces();
+            return position < end;
+        }
+
+        void skipWord() {
+            skipSpaces();
+            while (position < end && bytes[position] != ' ' && bytes[position] != '\t')
+                position++;
+        }
+
+        long nextLong() throws IOException {
+            skipSpaces();
+            final boolean negative = position < end && bytes[position] == '-';
+            if (negative)
+                position++;
+            final int first = position;
+            long value = 0;
+            while (position < end) {
+                final int digit = bytes[position] - '0';
+                if (digit < 0 || digit > 9)
+                    break;
+                value = value * 10 + digit;
+                if (value < 0)
+                    throw error("Number too large");
+                position++;
+            }
+            if (position == first || position < end && bytes[position] != ' ' && bytes[position] != '\t')
+                throw error("Not a number");
+            return negative ? -value : value;
+        }
+
+        int nextInt() throws IOException {
+            final long value = nextLong();
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+                throw error("Number out of int range");
+            return (int) value;
+        }
+
+        /** Checks that nothing but spaces is left. **/
+        void end() throws IOException {
+            if (hasNext())
+                throw error("Unexpected trailing field");
+            consumed = true;
+        }
+
+        IOException error(String message) {
+            return new IOException(message + " in the line at byte " + filePosition);
+        }
+    }
+
+    /** The edges parsed from one range, as growable primitive arrays. **/
+    private abstract static class Edges {
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        int[] cost = new int[1024];
+        int size = 0;
+
+        abstract void line(Line line) throws IOException;
+
+        void add(int u, int v, int c) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                cost = Arrays.copyOf(cost, size * 2);
+            }
+            from[size] = u;
+            to[size] = v;
+            cost[size] = c;
+            size++;
+        }
+
+        static Edges concat(Edges[] ranges) {
+            int total = 0;
+            for (Edges range : ranges)
+                total += range.size;
+            final Edges all = new Edges() {
+                @Override
+                void line(Line line) { }
+            };
+            all.from = new int[total];
+            all.to = new int[total];
+            all.cost = new int[total];
+            for (Edges range : ranges) {
+                System.arraycopy(range.from, 0, all.from, all.size, range.size);
+                System.arraycopy(range.to, 0, all.to, all.size, range.size);
+                System.arraycopy(range.cost, 0, all.cost, all.size, range.size);
+                all.size += range.size;
+            }
+            return all;
+        }
+
+        Parsed toParsed(int[] values, int[] weights) {
+            if (from.length != size)
+                return new Parsed(values, weights, Arrays.copyOf(from, size), Arrays.copyOf(to, size), Arrays.copyOf(cost, size));
+            return new Parsed(values, weights, from, to, cost);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.List;
+
+/**
+ * A point in time, read only view of a Graph, obtained from Graph.snapshot().
+ * A snapshot is a version number: every vertex and edge is stamped with the version of the commit that added it, and
+ * the snapshot only shows those at or before its own, so it copies nothing and never blocks the writers that keep
+ * growing the Graph. As the Graph is append only there are no old versions to keep alive either, a snapshot holds no
+ * more than its Graph. An UNDIRECTED edge and its reciprocal are one commit, so they are seen together or not at all.
+ * Vertex weights and edge costs are not versioned, they are read live.
+ **/
+public final class GraphSnapshot<T extends Object & Comparable<T>> {
+
+    private final Graph<T> graph;
+    private final long version;
+    private final int vertexCount;
+
+    GraphSnapshot(Graph<T> graph, long version, int vertexCount) {
+        this.graph = graph;
+        this.version = version;
+        this.vertexCount = vertexCount;
+    }
+
+    // Getters
+    public Graph.TYPE getType() { return graph.getType(); }
+
+    /** The version of the snapshot. A later snapshot has a greater or equal version. **/
+    public long getVersion() { return version; }
+
+    public int vertexCount() { return vertexCount; }
+
+    /** The vertices of the Graph at the snapshot, in the order of Graph.getAllVertices(). **/
+    public List<Graph.Vertex<T>> getAllVertices() { return graph.firstVertices(vertexCount); }
+
+    /** The outgoing edges of a vertex at the snapshot, in insertion order. **/
+    public List<Graph.Edge<T>> edges(Graph.Vertex<T> vertex) { return vertex.edgesAt(version); }
+
+    /** Number of outgoing edges of a vertex at the snapshot. **/
+    public int degree(Graph.Vertex<T> vertex) { return vertex.degreeAt(version); }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (Graph.Vertex<T> vertex : getAllVertices()) {
+            builder.append("Value = ").append(vertex.getValue()).append(" weight = ").append(vertex.getWeight()).append("\n");
+            for (Graph.Edge<T> edge : edges(vertex))
+                builder.append("\t\t\t").append(edge.toString());
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,276 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Degree and edge statistics of a Graph, kept current on every insertion instead of being recomputed by a scan.
+ * The statistics describe the adjacency lists: the degree of a vertex is the size of Vertex.getEdges(), and an
+ * UNDIRECTED edge, stored once at each end, counts once. A vertex held by several Graphs updates all of their
+ * statistics, including when edges are added through Vertex.addEdge.
+ *
+ * Every read but degreeHistogram is O(1) and lock free, and returns a value that was current at some point during
+ * the call. Different reads taken one after the other may straddle a concurrent insertion.
+ **/
+public final class GraphStatistics {
+
+    // Below this many vertices a scan is not worth splitting across threads.
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+    // Below this degree duplicate targets are found by comparing every pair rather than hashing.
+    static final int SCAN_THRESHOLD = 8;
+
+    private final Graph.TYPE type;
+
+    // Raw counters over adjacency list entries, only written under the lock of this object.
+    private volatile int vertexCount = 0;
+    private volatile long entries = 0;                 // Sum of the degrees.
+    private volatile long loopEntries = 0;             // Entries leading back to their own vertex.
+    private volatile long repeatEntries = 0;           // Entries whose target an earlier entry of the vertex has.
+    private volatile int loopVertices = 0;             // Vertices with at least one loop entry.
+    private volatile int maximumDegree = 0;
+    private volatile int minimumDegree = 0;
+    private long[] histogram = new long[8];            // histogram[d] is the number of vertices of degree d.
+
+    GraphStatistics(Graph.TYPE type) { this.type = type; }
+
+    /**
+     * Computes the statistics of a list of vertices from scratch, scanning the vertices in parallel.
+     * Time Complexity: O(|V| + |E|).
+     **/
+    static GraphStatistics compute(Graph.TYPE type, Collection<? extends Graph.Vertex<?>> vertices) {
+        final GraphStatistics statistics = new GraphStatistics(type);
+        statistics.addVertices(vertices.toArray(new Graph.Vertex<?>[0]));
+        return statistics;
+    }
+
+    // Getters
+    public Graph.TYPE getType() { return type; }
+
+    public int vertexCount() { return vertexCount; }
+
+    /** Number of edges, an UNDIRECTED edge and its reciprocal counting once. **/
+    public long edgeCount() {
+        return type == Graph.TYPE.UNDIRECTED ? entries / 2 : entries;
+    }
+
+    /** Number of edges leading from a vertex back to itself. **/
+    public long selfLoopCount() {
+        return type == Graph.TYPE.UNDIRECTED ? loopEntries / 2 : loopEntries;
+    }
+
+    /** Number of edges joining a pair of vertices, or a vertex to itself, that an earlier edge already joins. **/
+    public long parallelEdgeCount() {
+        // An UNDIRECTED loop is two entries towards the same vertex: the second is its reciprocal, not a parallel edge.
+        return type == Graph.TYPE.UNDIRECTED ? (repeatEntries - loopVertices) / 2 : repeatEntries;
+    }
+
+    public int maximumDegree() { return maximumDegree; }
+
+    /** The smallest degree of a vertex, 0 if there is none. **/
+    public int minimumDegree() { return minimumDegree; }
+
+    public double averageDegree() {
+        final int n = vertexCount;
+        return n == 0 ? 0 : (double) entries / n;
+    }
+
+    /** A copy of the degree histogram: element d is the number of vertices of degree d, up to the maximum degree. **/
+    public synchronized long[] degreeHistogram() {
+        return Arrays.copyOf(histogram, maximumDegree + 1);
+    }
+
+    // Updates
+
+    /** Adds vertices along with the edges they already have. **/
+    synchronized void addVertices(Graph.Vertex<?>[] vertices) {
+        final int[] degrees = new int[vertices.length];
+        final int[] loops = new int[vertices.length];
+        final int[] repeats = new int[vertices.length];
+        IntStream range = IntStream.range(0, vertices.length);
+        if (vertices.length >= PARALLEL_THRESHOLD)
+            range = range.parallel();
+        range.forEach(i -> {
+            final Graph.Vertex<?> vertex = vertices[i];
+            final List<? extends Graph.Edge<?>> edges = vertex.getEdges();
+            degrees[i] = edges.size();
+            loops[i] = loops(vertex, edges, 0, degrees[i]);
+            repeats[i] = repeats(edges, degrees[i]);
+        });
+
+        for (int i = 0; i < vertices.length; i++) {
+            ensureCapacity(degrees[i]);
+            histogram[degrees[i]]++;
+            minimumDegree = vertexCount == 0 ? degrees[i] : Math.min(minimumDegree, degrees[i]);
+            maximumDegree = Math.max(maximumDegree, degrees[i]);
+            vertexCount++;
+            entries += degrees[i];
+            loopEntries += loops[i];
+            repeatEntries += repeats[i];
+            if (loops[i] > 0)
+                loopVertices++;
+        }
+    }
+
+    /** One edge was appended to a vertex of the given former degree. **/
+    synchronized void edgeAdded(int degree, boolean loop, boolean repeat) {
+        move(degree, degree + 1);
+        entries++;
+        if (loop) {
+            loopEntries++;
+            // A vertex gets its first loop entry exactly when a loop entry is not a repeat.
+            if (!repeat)
+                loopVertices++;
+        }
+        if (repeat)
+            repeatEntries++;
+    }
+
+    /** Edges were appended in bulk to a vertex, changing its counts from the "before" values to the "after" ones. **/
+    synchronized void edgesAdded(int degreeBefore, int degreeAfter, int loopsBefore, int loopsAfter, int repeatsAdded) {
+        move(degreeBefore, degreeAfter);
+        entries += degreeAfter - degreeBefore;
+        loopEntries += loopsAfter - loopsBefore;
+        repeatEntries += repeatsAdded;
+        if (loopsBefore == 0 && loopsAfter > 0)
+            loopVertices++;
+    }
+
+    /** A vertex went from one degree to a greater one. Degrees only grow, so the minimum only moves up. **/
+    private void move(int from, int to) {
+        if (from == to)
+            return;
+        ensureCapacity(to);
+        histogram[from]--;
+        histogram[to]++;
+        if (to > maximumDegree)
+            maximumDegree = to;
+        if (from == minimumDegree && histogram[from] == 0) {
+            int minimum = from + 1;
+            while (histogram[minimum] == 0)
+                minimum++;
+            minimumDegree = minimum;
+        }
+    }
+
+    private void ensureCapacity(int degree) {
+        if (degree >= histogram.length)
+            histogram = Arrays.copyOf(histogram, Math.max(degree + 1, histogram.length * 2));
+    }
+
+    /** Number of the edges[from .. to - 1] that lead back to the vertex. **/
+    static int loops(Graph.Vertex<?> vertex, List<? extends Graph.Edge<?>> edges, int from, int to) {
+        int loops = 0;
+        for (int i = from; i < to; i++) {
+            if (edges.get(i).getTo() == vertex)
+                loops++;
+        }
+        return loops;
+    }
+
+    /** Number of the first n edges whose target, by identity, an earlier one of them already has. **/
+    static int repeats(List<? extends Graph.Edge<?>> edges, int n) {
+        int repeats = 0;
+        if (n < SCAN_THRESHOLD) {
+            for (int i = 1; i < n; i++) {
+                for (int j = 0; j < i; j++) {
+                    if (edges.get(j).getTo() == edges.get(i).getTo()) {
+                        repeats++;
+                        break;
+                    }
+                }
+            }
+            return repeats;
+        }
+        final Targets targets = new Targets(n);
+        for (int i = 0; i < n; i++) {
+            if (!targets.add(edges.get(i).getTo()))
+                repeats++;
+        }
+        return repeats;
+    }
+
+    /**
+     * An identity set of vertices, by open addressing over a plain array: a vertex with many edges keeps one to tell
+     * whether a new edge repeats a target, at 8 bytes per target and no allocation per insertion.
+     **/
+    static final class Targets {
+        private Object[] slots;
+        private int size = 0;
+
+        Targets(int expected) {
+            slots = new Object[Math.max(8, Integer.highestOneBit(Math.max(1, expected) * 2 - 1) << 1)];
+        }
+
+        /** The targets of the first n edges. **/
+        static Targets of(List<? extends Graph.Edge<?>> edges, int n) {
+            final Targets targets = new Targets(n);
+            for (int i = 0; i < n; i++)
+                targets.add(edges.get(i).getTo());
+            return targets;
+        }
+
+        /** Adds a vertex, returning false if it already was in the set. **/
+        boolean add(Object target) {
+            if (2 * (size + 1) > slots.length)
+                grow();
+            final int mask = slots.length - 1;
+            int i = slot(target, mask);
+            while (slots[i] != null) {
+                if (slots[i] == target)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            slots[i] = target;
+            size++;
+            return true;
+        }
+
+        private static int slot(Object target, int mask) {
+            final int h = System.identityHashCode(target) * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void grow() {
+            final Object[] old = slots;
+            slots = new Object[old.length * 2];
+            final int mask = slots.length - 1;
+            for (Object target : old) {
+                if (target == null)
+                    continue;
+                int i = slot(target, mask);
+                while (slots[i] != null)
+                    i = (i + 1) & mask;
+                slots[i] = target;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof GraphStatistics that))
+            return false;
+        final long[] histogram = that.degreeHistogram();
+        return type == that.type && vertexCount == that.vertexCount && entries == that.entries
+                && loopEntries == that.loopEntries && repeatEntries == that.repeatEntries
+                && loopVertices == that.loopVertices && maximumDegree == that.maximumDegree
+                && minimumDegree == that.minimumDegree && Arrays.equals(degreeHistogram(), histogram);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + Integer.hashCode(vertexCount);
+        result = 31 * result + Long.hashCode(entries);
+        result = 31 * result + Long.hashCode(loopEntries);
+        result = 31 * result + Long.hashCode(repeatEntries);
+        result = 31 * result + Arrays.hashCode(degreeHistogram());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "vertices = " + vertexCount + " edges = " + edgeCount() + " self loops = " + selfLoopCount()
+                + " parallel edges = " + parallelEdgeCount() + " degree = " + minimumDegree + " .. " + maximumDegree
+                + " average " + averageDegree();
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+
+/**
+ * A d-ary min heap of vertex ids 0..capacity-1 keyed by long priorities, with decrease-key.
+ * Ids and keys live in primitive arrays, and position[id] locates an id in the heap, so nothing is boxed and
+ * decrease-key is O(log_d n). A wider heap (d = 4 by default) is shallower and scans children that share a cache
+ * line, which suits the many decrease-keys of a shortest path search.
+ * clear() only touches the ids still in the heap, so one heap can serve many searches.
+ **/
+public final class IndexedDaryHeap {
+
+    private final int arity;
+    private final int[] heap;           // heap[i] is the id at position i.
+    private final long[] keys;          // keys[id] is the priority of id while it is in the heap.
+    private final int[] position;       // position[id] is the position of id, -1 when it is not in the heap.
+    private int size = 0;
+
+    public IndexedDaryHeap(int capacity) { this(capacity, 4); }
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2)
+            throw new IllegalArgumentException("Arity must be at least 2: " + arity);
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.keys = new long[capacity];
+        this.position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int id) { return position[id] >= 0; }
+
+    /** The key of an id in the heap. **/
+    public long key(int id) {
+        if (position[id] < 0)
+            throw new IllegalArgumentException("Id " + id + " is not in the heap");
+        return keys[id];
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            position[heap[i]] = -1;
+        size = 0;
+    }
+
+    public void insert(int id, long key) {
+        if (position[id] >= 0)
+            throw new IllegalArgumentException("Id " + id + " is already in the heap");
+        heap[size] = id;
+        position[id] = size;
+        keys[id] = key;
+        siftUp(size++);
+    }
+
+    public void decreaseKey(int id, long key) {
+        if (key > keys[id])
+            throw new IllegalArgumentException("Key " + key + " is greater than the current key " + keys[id]);
+        keys[id] = key;
+        siftUp(position[id]);
+    }
+
+    /**
+     * Inserts the id, or lowers its key if it already is in the heap with a greater one.
+     * Returns false if the id was kept with its smaller or equal key.
+     **/
+    public boolean insertOrDecrease(int id, long key) {
+        if (position[id] < 0) {
+            insert(id, key);
+            return true;
+        }
+        if (key < keys[id]) {
+            decreaseKey(id, key);
+            return true;
+        }
+        return false;
+    }
+
+    /** The id with the smallest key. **/
+    public int peek() {
+        if (size == 0)
+            throw new IllegalStateException("Heap is empty");
+        return heap[0];
+    }
+
+    /** The smallest key. **/
+    public long peekKey() {
+        return keys[peek()];
+    }
+
+    /** Removes and returns the id with the smallest key. **/
+    public int poll() {
+        final int min = peek();
+        position[min] = -1;
+        if (--size > 0) {
+            final int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int i) {
+        final int id = heap[i];
+        final long key = keys[id];
+        while (i > 0) {
+            final int parent = (i - 1) / arity;
+            final int parentId = heap[parent];
+            if (keys[parentId] <= key)
+                break;
+            heap[i] = parentId;
+            position[parentId] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    private void siftDown(int i) {
+        final int id = heap[i];
+        final long key = keys[id];
+        while (true) {
+            final int first = i * arity + 1;
+            if (first >= size)
+                break;
+            int smallest = first;
+            long smallestKey = keys[heap[first]];
+            for (int child = first + 1, end = Math.min(size, first + arity); child < end; child++) {
+                final long childKey = keys[heap[child]];
+                if (childKey < smallestKey) {
+                    smallest = child;
+                    smallestKey = childKey;
+                }
+            }
+            if (smallestKey >= key)
+                break;
+            heap[i] = heap[smallest];
+            position[heap[i]] = i;
+            i = smallest;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+}
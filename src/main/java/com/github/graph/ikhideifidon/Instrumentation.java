@@ -0,0 +1,116 @@
+package com.github.graph.ikhideifidon;
+
+import jdk.jfr.*;
+
+/**
+ * Opt-in metrics for traversals and Graph lookups: vertices visited, edges scanned, peak size of the queue or stack
+ * and elapsed time, reported once per call to a Listener, as JFR events, or both.
+ * While neither is enabled a traversal only reads two volatile fields when it starts and tests a local variable for
+ * null once per vertex it expands, so it runs as fast as without instrumentation.
+ *
+ * Instrumented: BreadthFirstTraversal and DepthFirstTraversal searches (the int id searches behind the CsrGraph and
+ * IntGraph ones included), the DepthFirstPaths search, and the scans of Graph.getVertex, neighbors, degree and
+ * edgeExists. The O(1) lookups of an indexed Graph are not reported.
+ * The JFR events are named com.github.graph.ikhideifidon.Traversal, e.g.
+ *     java -XX:StartFlightRecording=filename=graph.jfr ...
+ *     jfr print --events com.github.graph.ikhideifidon.Traversal graph.jfr
+ **/
+public final class Instrumentation {
+
+    /** Receives the metrics of every instrumented call, on the thread that made it. Must be thread safe. **/
+    @FunctionalInterface
+    public interface Listener {
+        void completed(Metrics metrics);
+    }
+
+    /** What one call did. For a lookup, verticesVisited and edgesScanned count the elements compared. **/
+    public record Metrics(String operation, long verticesVisited, long edgesScanned, int peakFrontier,
+                          long elapsedNanos) { }
+
+    private static volatile Listener listener = null;
+    private static volatile boolean flightRecorder = false;
+
+    private Instrumentation() { }
+
+    /** Sets the listener, or removes it with null. **/
+    public static void setListener(Listener listener) {
+        Instrumentation.listener = listener;
+    }
+
+    public static Listener getListener() { return listener; }
+
+    /** Whether to emit a JFR event per call. They are recorded while a recording enables them, by default it does. **/
+    public static void setFlightRecorderEnabled(boolean enabled) {
+        flightRecorder = enabled;
+    }
+
+    public static boolean isFlightRecorderEnabled() { return flightRecorder; }
+
+    /** A probe timing one call, or null when instrumentation is disabled. **/
+    static Probe start(String operation) {
+        final Listener listener = Instrumentation.listener;
+        final boolean flightRecorder = Instrumentation.flightRecorder;
+        if (listener == null && !flightRecorder)
+            return null;
+        return new Probe(operation, listener, flightRecorder ? new TraversalEvent() : null);
+    }
+
+    /** Collects the metrics of one call. Not thread safe: it belongs to the call that started it. **/
+    static final class Probe {
+        private final String operation;
+        private final Listener listener;
+        private final TraversalEvent event;
+        private final long start;
+        private int peakFrontier = 0;
+
+        private Probe(String operation, Listener listener, TraversalEvent event) {
+            this.operation = operation;
+            this.listener = listener;
+            this.event = event;
+            if (event != null)
+                event.begin();
+            this.start = System.nanoTime();
+        }
+
+        /** Records the current size of the queue or stack. **/
+        void frontier(int size) {
+            if (size > peakFrontier)
+                peakFrontier = size;
+        }
+
+        void finish(long verticesVisited, long edgesScanned) {
+            final long elapsed = System.nanoTime() - start;
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.operation = operation;
+                    event.verticesVisited = verticesVisited;
+                    event.edgesScanned = edgesScanned;
+                    event.peakFrontier = peakFrontier;
+                    event.commit();
+                }
+            }
+            if (listener != null)
+                listener.completed(new Metrics(operation, verticesVisited, edgesScanned, peakFrontier, elapsed));
+        }
+    }
+
+    @Name("com.github.graph.ikhideifidon.Traversal")
+    @Label("Graph Traversal")
+    @Category("Graph")
+    @Description("A traversal or lookup over a graph")
+    @StackTrace(false)
+    static final class TraversalEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Vertices Visited")
+        long verticesVisited;
+
+        @Label("Edges Scanned")
+        long edgesScanned;
+
+        @Label("Peak Frontier")
+        int peakFrontier;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.graph.ikhideifidon;
+
+/**
+ * Read access to the outgoing edges of vertices numbered 0 .. vertexCount() - 1.
+ * The int id traversals run on any implementation, whether the adjacency is a CSR snapshot or a primitive graph.
+ **/
+public interface IntAdjacency {
+
+    int vertexCount();
+
+    /** Number of stored edges. An UNDIRECTED graph stores each edge in both directions. **/
+    int edgeCount();
+
+    int degree(int vertex);
+
+    /** The id of the vertex the i-th outgoing edge of a vertex leads to, 0 <= i < degree(vertex). **/
+    int target(int vertex, int i);
+
+    /** The cost of the i-th outgoing edge of a vertex. **/
+    int cost(int vertex, int i);
+}
@@ -0,0 +1,90 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+
+/**
+ * A growable ring buffer of ints, used as the queue of a breadth first search and the stack of a depth first search.
+ * The capacity is a power of two and is kept when the deque is cleared, so a reused deque stops allocating once it
+ * has grown to the largest frontier it has seen.
+ **/
+final class IntDeque {
+
+    private int[] elements;
+    private int head = 0;       // Index of the first element.
+    private int size = 0;
+
+    IntDeque() { this(16); }
+
+    IntDeque(int capacity) {
+        elements = new int[Integer.highestOneBit(Math.max(2, capacity - 1)) << 1];
+    }
+
+    boolean isEmpty() { return size == 0; }
+
+    int size() { return size; }
+
+    int capacity() { return elements.length; }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    void addLast(int value) {
+        if (size == elements.length)
+            grow();
+        elements[(head + size++) & (elements.length - 1)] = value;
+    }
+
+    int peekFirst() {
+        if (size == 0)
+            throw new IllegalStateException("Deque is empty");
+        return elements[head];
+    }
+
+    int pollFirst() {
+        if (size == 0)
+            throw new IllegalStateException("Deque is empty");
+        final int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    int peekLast() {
+        if (size == 0)
+            throw new IllegalStateException("Deque is empty");
+        return elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    int pollLast() {
+        if (size == 0)
+            throw new IllegalStateException("Deque is empty");
+        return elements[(head + --size) & (elements.length - 1)];
+    }
+
+    /** Overwrites the last element, as a stack frame update. **/
+    void setLast(int value) {
+        if (size == 0)
+            throw new IllegalStateException("Deque is empty");
+        elements[(head + size - 1) & (elements.length - 1)] = value;
+    }
+
+    private void grow() {
+        final int[] grown = new int[elements.length << 1];
+        // Unwrap the ring so the elements start at index 0.
+        final int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+        elements = grown;
+        head = 0;
+    }
+
+    @Override
+    public String toString() {
+        final int[] values = new int[size];
+        for (int i = 0; i < size; i++)
+            values[i] = elements[(head + i) & (elements.length - 1)];
+        return Arrays.toString(values);
+    }
+}
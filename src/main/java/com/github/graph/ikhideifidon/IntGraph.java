@@ -0,0 +1,267 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.*;
+
+/**
+ * A Graph of int keys stored in primitive arrays, for the Graph&lt;Integer&gt; workloads.
+ * Every vertex gets a dense index in insertion order; an open addressing map translates keys to indices. The edges of
+ * a vertex are one int[] of interleaved (target index, cost) pairs, so there is no Vertex, Edge, Integer or List
+ * object anywhere, and keys are compared as ints rather than by reference.
+ * As IntAdjacency, vertex ids are the dense indices.
+ **/
+public final class IntGraph implements IntAdjacency {
+
+    private static final int[] NO_EDGES = new int[0];
+
+    private final Graph.TYPE type;
+    private final IntIntHashMap indices;        // key -> index
+
+    private int vertexCount = 0;
+    private int edgeCount = 0;
+    private int[] keys;                         // index -> key
+    private int[] weights;
+    private int[] degrees;
+    private int[][] adjacency;                  // adjacency[v][2i] is the target index, adjacency[v][2i + 1] the cost.
+
+    /** An Undirected IntGraph without Vertex and Edge. **/
+    public IntGraph() { this(Graph.TYPE.UNDIRECTED); }
+
+    public IntGraph(Graph.TYPE type) { this(type, 16); }
+
+    /** An IntGraph with room for the given number of vertices before growing. **/
+    public IntGraph(Graph.TYPE type, int expectedVertices) {
+        this.type = type;
+        final int capacity = Math.max(1, expectedVertices);
+        this.indices = new IntIntHashMap(capacity);
+        this.keys = new int[capacity];
+        this.weights = new int[capacity];
+        this.degrees = new int[capacity];
+        this.adjacency = new int[capacity][];
+    }
+
+    /**
+     * Copies a Graph of Integer values. Values that occur more than once are merged into one vertex. An edge leading to
+     * a vertex that is not in the Graph is left out, as CsrGraph.of leaves it out, even if a member holds its value.
+     **/
+    public static IntGraph of(Graph<Integer> graph) {
+        final List<Graph.Vertex<Integer>> vertices = new ArrayList<>(graph.getAllVertices());
+        final IntGraph result = new IntGraph(graph.getType(), vertices.size());
+        final Set<Graph.Vertex<Integer>> members = Collections.newSetFromMap(new IdentityHashMap<>(vertices.size() * 2));
+        for (Graph.Vertex<Integer> vertex : vertices) {
+            result.addVertex(vertex.getValue(), vertex.getWeight());
+            members.add(vertex);
+        }
+        // The reciprocal edges of an UNDIRECTED Graph are already in its adjacency lists.
+        for (Graph.Vertex<Integer> vertex : vertices) {
+            final int from = result.indexOf(vertex.getValue());
+            for (Graph.Edge<Integer> edge : vertex.getEdges()) {
+                if (members.contains(edge.getTo()))
+                    result.append(from, result.indexOf(edge.getTo().getValue()), edge.getCost());
+            }
+        }
+        result.trimToSize();
+        return result;
+    }
+
+    /**
+     * Builds an IntGraph from edges between vertex indices, vertex v holding keys[v]. The adjacency arrays are
+     * allocated at their exact size from the degrees, so nothing is grown or trimmed. The keys must be distinct.
+     **/
+    static IntGraph of(Graph.TYPE type, int[] keys, int[] weights, int[] from, int[] to, int[] cost) {
+        final IntGraph result = new IntGraph(type, keys.length);
+        for (int v = 0; v < keys.length; v++)
+            result.addVertex(keys[v], weights == null ? 0 : weights[v]);
+        final boolean undirected = type == Graph.TYPE.UNDIRECTED;
+        final int[] degrees = result.degrees;
+        for (int i = 0; i < from.length; i++) {
+            degrees[from[i]]++;
+            if (undirected)
+                degrees[to[i]]++;
+        }
+        for (int v = 0; v < keys.length; v++) {
+            result.adjacency[v] = degrees[v] == 0 ? NO_EDGES : new int[2 * degrees[v]];
+            degrees[v] = 0;
+        }
+        for (int i = 0; i < from.length; i++) {
+            result.append(from[i], to[i], cost[i]);
+            if (undirected)
+                result.append(to[i], from[i], cost[i]);
+        }
+        result.trimToSize();
+        return result;
+    }
+
+    // Getters
+    public Graph.TYPE getType() { return type; }
+
+    @Override
+    public int vertexCount() { return vertexCount; }
+
+    @Override
+    public int edgeCount() { return edgeCount; }
+
+    /** The index of the vertex with the given key, or -1. **/
+    public int indexOf(int key) { return indices.get(key); }
+
+    public int key(int index) {
+        checkIndex(index);
+        return keys[index];
+    }
+
+    public boolean containsVertex(int key) { return indices.get(key) >= 0; }
+
+    public int getWeight(int key) { return weights[requireIndex(key)]; }
+
+    public void setWeight(int key, int weight) { weights[requireIndex(key)] = weight; }
+
+    /** Adds a vertex with weight 0. Returns false if the key already was a vertex. **/
+    public boolean addVertex(int key) { return addVertex(key, 0); }
+
+    /** Adds a vertex. Returns false, leaving the vertex unchanged, if the key already was a vertex. **/
+    public boolean addVertex(int key, int weight) {
+        if (indices.putIfAbsent(key, vertexCount) != vertexCount)
+            return false;
+        if (vertexCount == keys.length) {
+            final int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            degrees = Arrays.copyOf(degrees, capacity);
+            adjacency = Arrays.copyOf(adjacency, capacity);
+        }
+        keys[vertexCount] = key;
+        weights[vertexCount] = weight;
+        adjacency[vertexCount] = NO_EDGES;
+        vertexCount++;
+        return true;
+    }
+
+    /** Adds an edge between two existing vertices, and its reciprocal if the graph is UNDIRECTED. **/
+    public void addEdge(int fromKey, int toKey, int cost) {
+        final int from = requireIndex(fromKey);
+        final int to = requireIndex(toKey);
+        append(from, to, cost);
+        if (type == Graph.TYPE.UNDIRECTED)
+            append(to, from, cost);
+    }
+
+    private void append(int from, int to, int cost) {
+        int[] edges = adjacency[from];
+        final int slot = 2 * degrees[from];
+        if (slot == edges.length) {
+            edges = Arrays.copyOf(edges, Math.max(4, edges.length * 2));
+            adjacency[from] = edges;
+        }
+        edges[slot] = to;
+        edges[slot + 1] = cost;
+        degrees[from]++;
+        edgeCount++;
+    }
+
+    private int requireIndex(int key) {
+        final int index = indices.get(key);
+        if (index < 0)
+            throw new IllegalArgumentException("Key " + key + " is not a vertex of the graph.");
+        return index;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= vertexCount)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + vertexCount + " vertices");
+    }
+
+    // IntAdjacency, by index
+    @Override
+    public int degree(int vertex) { return degrees[vertex]; }
+
+    @Override
+    public int target(int vertex, int i) { return adjacency[vertex][2 * i]; }
+
+    @Override
+    public int cost(int vertex, int i) { return adjacency[vertex][2 * i + 1]; }
+
+    // Graph operations, by key
+    /** The keys of the targets of the outgoing edges of a vertex, or null if the key is not a vertex. **/
+    public int[] neighbors(int key) {
+        final int v = indices.get(key);
+        if (v < 0)
+            return null;
+        final int[] neighbors = new int[degrees[v]];
+        for (int i = 0; i < neighbors.length; i++)
+            neighbors[i] = keys[adjacency[v][2 * i]];
+        return neighbors;
+    }
+
+    /** Number of outgoing edges of a vertex, 0 if the key is not a vertex. **/
+    public int degreeOf(int key) {
+        final int v = indices.get(key);
+        return v < 0 ? 0 : degrees[v];
+    }
+
+    public int maximumDegree() {
+        int maximumDegree = 0;
+        for (int v = 0; v < vertexCount; v++)
+            maximumDegree = Math.max(maximumDegree, degrees[v]);
+        return maximumDegree;
+    }
+
+    public int numberOfSelfLoop() {
+        int numberOfSelfLoop = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            for (int i = 0; i < degrees[v]; i++) {
+                if (adjacency[v][2 * i] == v)
+                    numberOfSelfLoop++;
+            }
+        }
+        // An UNDIRECTED self loop is stored twice.
+        return type == Graph.TYPE.UNDIRECTED ? numberOfSelfLoop / 2 : numberOfSelfLoop;
+    }
+
+    /** Given two vertex keys, check if there exists an edge between them. O(degree of the source). **/
+    public boolean edgeExists(int fromKey, int toKey) {
+        final int from = indices.get(fromKey);
+        final int to = indices.get(toKey);
+        if (from < 0 || to < 0)
+            return false;
+        final int[] edges = adjacency[from];
+        for (int i = 0, end = 2 * degrees[from]; i < end; i += 2) {
+            if (edges[i] == to)
+                return true;
+        }
+        return false;
+    }
+
+    /** Releases the spare capacity left by growing, once the graph is built. **/
+    public void trimToSize() {
+        keys = Arrays.copyOf(keys, Math.max(1, vertexCount));
+        weights = Arrays.copyOf(weights, keys.length);
+        degrees = Arrays.copyOf(degrees, keys.length);
+        adjacency = Arrays.copyOf(adjacency, keys.length);
+        for (int v = 0; v < vertexCount; v++) {
+            if (adjacency[v].length > 2 * degrees[v])
+                adjacency[v] = degrees[v] == 0 ? NO_EDGES : Arrays.copyOf(adjacency[v], 2 * degrees[v]);
+        }
+    }
+
+    /** Approximate heap footprint in bytes. **/
+    public long footprintBytes() {
+        long bytes = indices.footprintBytes() + 4L * 3 * keys.length + 8L * adjacency.length;
+        for (int v = 0; v < vertexCount; v++)
+            bytes += adjacency[v].length == 0 ? 0 : 16 + 4L * adjacency[v].length;
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int v = 0; v < vertexCount; v++) {
+            builder.append("Value = ").append(keys[v]).append(" weight = ").append(weights[v]).append("\n");
+            for (int i = 0; i < degrees[v]; i++) {
+                final int w = adjacency[v][2 * i];
+                builder.append("\t\t\t").append("[").append(keys[v]).append("(").append(weights[v]).append(")").append("]")
+                        .append(" -> ").append("[").append(keys[w]).append("(").append(weights[w]).append(")").append("]")
+                        .append(" = ").append(adjacency[v][2 * i + 1]).append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing int to non negative int map with linear probing, without boxing.
+ * A value of -1 marks a free slot, which is also what get returns for a missing key. Entries are never removed.
+ **/
+final class IntIntHashMap {
+
+    private int[] keys;
+    private int[] values;
+    private int size = 0;
+
+    IntIntHashMap() { this(16); }
+
+    IntIntHashMap(int expectedSize) {
+        // Kept at most half full, so probe sequences stay short.
+        final int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+    }
+
+    int size() { return size; }
+
+    /** The value of the key, or -1. **/
+    int get(int key) {
+        final int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] < 0)
+                return -1;
+            if (keys[slot] == key)
+                return values[slot];
+        }
+    }
+
+    /** Associates the key with the value unless it already has one. Returns the value now associated. **/
+    int putIfAbsent(int key, int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Values cannot be negative: " + value);
+        if (2 * (size + 1) > keys.length)
+            grow();
+
+        final int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] < 0) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return value;
+            }
+            if (keys[slot] == key)
+                return values[slot];
+        }
+    }
+
+    /** Approximate heap footprint in bytes. **/
+    long footprintBytes() {
+        return 8L * keys.length + 32;
+    }
+
+    private void grow() {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new int[oldKeys.length << 1];
+        values = new int[oldValues.length << 1];
+        Arrays.fill(values, -1);
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] >= 0)
+                putIfAbsent(oldKeys[slot], oldValues[slot]);
+        }
+    }
+
+    /** Spreads consecutive keys over the table (the MurmurHash3 finalizer). **/
+    private static int mix(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A breadth or depth first traversal that produces the values of the reached vertices on demand.
+ * Vertices are expanded only when the next value is requested, so a consumer that stops early only pays for what it
+ * touched, and memory stays proportional to the frontier plus the vertices reached so far, never to |V|.
+ * The visiting order is the one of BreadthFirstTraversal.breadthFirstSearch and DepthFirstTraversal.depthFirstSearch.
+ * E.g. the first value matching a predicate within 3 hops:
+ *     LazyTraversal.breadthFirst(source).maxDepth(3).stream().filter(predicate).findFirst()
+ **/
+public final class LazyTraversal<T extends Object & Comparable<T>> implements Iterator<T>, Iterable<T> {
+
+    /** Called for every vertex the traversal produces, along with its depth (0 for the source). **/
+    @FunctionalInterface
+    public interface Visitor<T extends Object & Comparable<T>> {
+        void visit(Graph.Vertex<T> vertex, int depth);
+    }
+
+    private final boolean breadthFirst;
+    // Breadth first: the queue. Depth first: the open vertices, whose edges are explored from the last to the first.
+    private final Deque<Graph.Vertex<T>> frontier = new ArrayDeque<>();
+    private final IntDeque depths = new IntDeque();            // Depth of each frontier vertex, kept in step.
+    private final IntDeque remaining = new IntDeque();         // Depth first: edges of each open vertex left to explore.
+    private final Set<Object> visited;                         // Breadth first: the values reached.
+    private final Map<Graph.Vertex<T>, Integer> reached;      // Depth first: the least depth each vertex was reached at.
+    private Graph.Vertex<T> source;                            // Depth first: the source, until it is produced.
+
+    private int maxDepth = Integer.MAX_VALUE;
+    private Predicate<? super T> stopCondition = null;
+    private Visitor<T> visitor = null;
+
+    private boolean started = false;
+    private boolean stopped = false;
+    private Graph.Vertex<T> next = null;
+    private int nextDepth = -1;
+    private int lastDepth = -1;
+
+    private LazyTraversal(Graph.Vertex<T> source, boolean breadthFirst) {
+        if (source == null)
+            throw new NullPointerException("Source vertex cannot be null");
+        this.breadthFirst = breadthFirst;
+        // As in the eager searches: breadth first marks values, depth first marks vertices.
+        this.visited = breadthFirst ? new HashSet<>() : null;
+        this.reached = breadthFirst ? null : new IdentityHashMap<>();
+        if (breadthFirst) {
+            frontier.addLast(source);
+            depths.addLast(0);
+            visited.add(source.getValue());
+        } else {
+            this.source = source;
+        }
+    }
+
+    /** A traversal of the vertices reachable from a source, following the edges of each vertex as it is expanded. **/
+    public static <T extends Object & Comparable<T>> LazyTraversal<T> breadthFirst(Graph.Vertex<T> source) {
+        return new LazyTraversal<>(source, true);
+    }
+
+    public static <T extends Object & Comparable<T>> LazyTraversal<T> depthFirst(Graph.Vertex<T> source) {
+        return new LazyTraversal<>(source, false);
+    }
+
+    // Options, only before the traversal starts.
+    /**
+     * Vertices further than maxDepth edges from the source are not reached. Breadth first, depth() is the distance
+     * from the source. Depth first, it is the length of the path the vertex was first found on, which may exceed its
+     * distance: a vertex reached again on a shorter path is explored again from there, without being produced twice,
+     * so every vertex within maxDepth is still reached. Each vertex is then explored at most maxDepth + 1 times.
+     **/
+    public LazyTraversal<T> maxDepth(int maxDepth) {
+        checkNotStarted();
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("Maximum depth cannot be negative: " + maxDepth);
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /** The traversal ends right after producing the first value matching the condition. **/
+    public LazyTraversal<T> stopWhen(Predicate<? super T> stopCondition) {
+        checkNotStarted();
+        this.stopCondition = Objects.requireNonNull(stopCondition);
+        return this;
+    }
+
+    public LazyTraversal<T> visitor(Visitor<T> visitor) {
+        checkNotStarted();
+        this.visitor = Objects.requireNonNull(visitor);
+        return this;
+    }
+
+    private void checkNotStarted() {
+        if (started)
+            throw new IllegalStateException("The traversal has already started");
+    }
+
+    @Override
+    public boolean hasNext() {
+        started = true;
+        if (next == null && !stopped)
+            advance();
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        final Graph.Vertex<T> vertex = next;
+        next = null;
+        lastDepth = nextDepth;
+        if (visitor != null)
+            visitor.visit(vertex, nextDepth);
+        if (stopCondition != null && stopCondition.test(vertex.getValue()))
+            stopped = true;
+        return vertex.getValue();
+    }
+
+    /** Depth of the vertex whose value was returned last by next(). See maxDepth. **/
+    public int depth() {
+        return lastDepth;
+    }
+
+    private void advance() {
+        if (!breadthFirst) {
+            advanceDepthFirst();
+            return;
+        }
+        if (frontier.isEmpty())
+            return;
+
+        final Graph.Vertex<T> current = frontier.pollFirst();
+        final int depth = depths.pollFirst();
+        if (depth < maxDepth) {
+            for (Graph.Edge<T> edge : current.getEdges()) {
+                final Graph.Vertex<T> to = edge.getTo();
+                // Marked on discovery, which keeps the order and bounds the queue by |V|.
+                if (!visited.contains(to.getValue())) {
+                    visited.add(to.getValue());
+                    frontier.addLast(to);
+                    depths.addLast(depth + 1);
+                }
+            }
+        }
+        next = current;
+        nextDepth = depth;
+    }
+
+    /**
+     * The next vertex in the order of DepthFirstTraversal.depthFirstSearch, opened for exploration when produced.
+     * Only the vertices on the current path are stacked, marked on discovery. Under a depth limit, a vertex found
+     * again closer to the source than before is stacked again, as the limit may have cut its first exploration
+     * short, but it is not produced again.
+     **/
+    private void advanceDepthFirst() {
+        if (source != null) {
+            final Graph.Vertex<T> found = source;
+            source = null;
+            reached.put(found, 0);
+            open(found, 0);
+            next = found;
+            nextDepth = 0;
+            return;
+        }
+        while (!frontier.isEmpty()) {
+            final int position = remaining.peekLast() - 1;
+            if (position < 0) {
+                frontier.pollLast();
+                depths.pollLast();
+                remaining.pollLast();
+                continue;
+            }
+            remaining.setLast(position);
+            final Graph.Vertex<T> to = frontier.peekLast().getEdges().get(position).getTo();
+            final int depth = depths.peekLast() + 1;
+            final Integer before = reached.get(to);
+            if (before == null) {
+                reached.put(to, depth);
+                open(to, depth);
+                next = to;
+                nextDepth = depth;
+                return;
+            }
+            // Without a limit, the first exploration of a vertex reaches everything it can.
+            if (maxDepth != Integer.MAX_VALUE && depth < before) {
+                reached.put(to, depth);
+                open(to, depth);
+            }
+        }
+    }
+
+    private void open(Graph.Vertex<T> vertex, int depth) {
+        frontier.addLast(vertex);
+        depths.addLast(depth);
+        remaining.addLast(depth < maxDepth ? vertex.getEdges().size() : 0);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this;
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /** A sequential stream of the values, in visiting order. **/
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
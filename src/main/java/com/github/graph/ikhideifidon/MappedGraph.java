@@ -0,0 +1,148 @@
+package com.github.graph.ikhideifidon;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A graph file written by GraphFile.write, served straight from memory mapped sections.
+ * Opening only maps the file and checks its header, nothing is read or deserialized, so it takes the same time for
+ * any size, and the operating system pages the sections in as traversals touch them: a graph larger than the heap
+ * only needs to fit the page cache. As an IntAdjacency it runs the int id traversals directly.
+ * The mappings stay valid until the MappedGraph is garbage collected. Safe for concurrent readers.
+ **/
+public final class MappedGraph<T extends Object & Comparable<T>> implements IntAdjacency {
+
+    private final Graph.TYPE type;
+    private final int vertexCount;
+    private final int edgeCount;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer costs;
+    private final IntBuffer weights;
+    private final LongBuffer index;
+    private final ByteBuffer dictionary;
+    private final GraphFile.Codec<T> codec;
+    private volatile Map<T, Integer> ids = null;      // value -> id, built on the first lookup by value
+
+    private MappedGraph(FileChannel channel, GraphFile.Codec<T> codec) throws IOException {
+        if (channel.size() < GraphFile.HEADER_BYTES)
+            throw new IOException("Not a graph file");
+        final ByteBuffer header = map(channel, 0, GraphFile.HEADER_BYTES);
+        if (header.getInt(0) != GraphFile.MAGIC)
+            throw new IOException("Not a graph file");
+        if (header.getInt(4) != GraphFile.FORMAT_VERSION)
+            throw new IOException("Unsupported graph file version: " + header.getInt(4));
+
+        this.type = Graph.TYPE.values()[header.getInt(GraphFile.TYPE_POSITION)];
+        this.vertexCount = header.getInt(GraphFile.VERTEX_COUNT_POSITION);
+        this.edgeCount = header.getInt(GraphFile.EDGE_COUNT_POSITION);
+        final long[] sections = new long[7];
+        for (int i = 0; i < sections.length; i++)
+            sections[i] = header.getLong(GraphFile.SECTIONS_POSITION + 8 * i);
+        if (sections[6] > channel.size())
+            throw new IOException("Truncated graph file: " + channel.size() + " of " + sections[6] + " bytes");
+
+        this.offsets = map(channel, sections[0], 4L * (vertexCount + 1)).asIntBuffer();
+        this.targets = map(channel, sections[1], 4L * edgeCount).asIntBuffer();
+        this.costs = map(channel, sections[2], 4L * edgeCount).asIntBuffer();
+        this.weights = map(channel, sections[3], 4L * vertexCount).asIntBuffer();
+        this.index = map(channel, sections[4], 8L * (vertexCount + 1)).asLongBuffer();
+        this.dictionary = map(channel, sections[5], sections[6] - sections[5]);
+        this.codec = codec;
+    }
+
+    /** Maps a graph file. The codec must be the one it was written with. **/
+    public static <T extends Object & Comparable<T>> MappedGraph<T> open(Path path, GraphFile.Codec<T> codec) throws IOException {
+        // A mapping outlives the channel it was created from.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedGraph<>(channel, codec);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Section of " + size + " bytes is too large to be mapped");
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(GraphFile.ORDER);
+    }
+
+    // Getters
+    public Graph.TYPE getType() { return type; }
+
+    @Override
+    public int vertexCount() { return vertexCount; }
+
+    @Override
+    public int edgeCount() { return edgeCount; }
+
+    public T valueOf(int id) {
+        final long start = index.get(id);
+        return codec.decode(dictionary, (int) start, (int) (index.get(id + 1) - start));
+    }
+
+    /** Returns the id of the vertex holding the given value, or -1. The first call decodes the whole dictionary. **/
+    public int idOf(T value) {
+        Map<T, Integer> ids = this.ids;
+        if (ids == null) {
+            ids = new HashMap<>(vertexCount * 2);
+            for (int id = 0; id < vertexCount; id++)
+                ids.putIfAbsent(valueOf(id), id);
+            this.ids = ids;
+        }
+        final Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    public int weight(int id) { return weights.get(id); }
+
+    @Override
+    public int degree(int id) { return offsets.get(id + 1) - offsets.get(id); }
+
+    /** Index of the first outgoing edge of a vertex. **/
+    public int firstEdge(int id) { return offsets.get(id); }
+
+    /** Index one past the last outgoing edge of a vertex. **/
+    public int endEdge(int id) { return offsets.get(id + 1); }
+
+    /** The id of the vertex an edge leads to. **/
+    public int target(int edge) { return targets.get(edge); }
+
+    public int cost(int edge) { return costs.get(edge); }
+
+    @Override
+    public int target(int id, int i) { return targets.get(offsets.get(id) + i); }
+
+    @Override
+    public int cost(int id, int i) { return costs.get(offsets.get(id) + i); }
+
+    /**
+     * Deserializes the whole file into a Graph. The file holds the adjacency lists, so the result equals the Graph that
+     * was written if every edge of its getAllEdges() was connected between two of its vertices. Edges that Graph.addEdge
+     * recorded without connecting them, and edges leading outside of the Graph, are not written and do not come back.
+     **/
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Graph<T> toGraph() {
+        final Graph.Vertex<T>[] vertices = new Graph.Vertex[vertexCount];
+        for (int v = 0; v < vertexCount; v++)
+            vertices[v] = new Graph.Vertex<>(valueOf(v), weight(v));
+
+        final Graph.Edge<T>[] edges = new Graph.Edge[edgeCount];
+        for (int e = 0, v = 0; e < edgeCount; e++) {
+            while (endEdge(v) <= e)
+                v++;
+            edges[e] = new Graph.Edge<>(cost(e), vertices[v], vertices[target(e)]);
+        }
+        // The vertices are not in a Graph yet, so their edges are stamped 0, outside any commit.
+        for (int v = 0; v < vertexCount; v++)
+            vertices[v].addEdges(edges, firstEdge(v), endEdge(v), 0);
+
+        final Graph<T> graph = new Graph<>(type);
+        graph.load(Arrays.asList(vertices), Arrays.asList(edges));
+        return graph;
+    }
+}
@@ -0,0 +1,422 @@
+package com.github.graph.ikhideifidon;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Minimum spanning forests of a CsrGraph under Edge.cost: a minimum spanning tree of every connected component.
+ * Edges are taken as undirected. An UNDIRECTED graph contributes each of its edges once, a DIRECTED graph each of its
+ * arcs, and self loops are ignored. Equal costs are ordered by the position of the edges in the graph, which makes
+ * the forest unique: both algorithms return the same edges.
+ *
+ * boruvka is Boruvka's algorithm on a ForkJoin pool. In every round each component picks its cheapest outgoing edge,
+ * in parallel over the edges, the components are merged along those edges by pointer jumping, and the edges left
+ * inside a component are dropped. The number of components at least halves per round, so there are at most
+ * log2 |V| rounds over a shrinking edge list.
+ * filterKruskal is the filter-Kruskal of Osipov, Sanders and Singler, sequential. The edges are partitioned around a
+ * random pivot, the light part is solved first, and the heavy part is rid of the edges that already join one
+ * component before it is solved in turn. On dense graphs most heavy edges are then dropped without ever being sorted.
+ **/
+public final class MinimumSpanningForest {
+
+    // Work per task: edges for the cheapest edge and filter steps, vertices for the merge steps.
+    private static final int EDGE_GRAIN = 1 << 14;
+    private static final int VERTEX_GRAIN = 1 << 12;
+
+    // filterKruskal sorts the ranges of at most this many edges instead of partitioning them.
+    private static final int KRUSKAL_THRESHOLD = 1 << 10;
+
+    // No outgoing edge: greater than every key.
+    private static final long NONE = Long.MAX_VALUE;
+
+    private static final VarHandle CHEAPEST = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private MinimumSpanningForest() { }
+
+    /** The edges of a minimum spanning forest, in the order of the graph, and their total cost. **/
+    public static final class Result {
+        private final int vertexCount;
+        private final int[] from;
+        private final int[] index;
+        private final int[] to;
+        private final int[] cost;
+        private final long totalCost;
+
+        private Result(int vertexCount, int[] from, int[] index, int[] to, int[] cost) {
+            this.vertexCount = vertexCount;
+            this.from = from;
+            this.index = index;
+            this.to = to;
+            this.cost = cost;
+            long total = 0;
+            for (int c : cost)
+                total += c;
+            this.totalCost = total;
+        }
+
+        public int edgeCount() { return from.length; }
+
+        /** The vertex id the i-th edge of the forest is stored from. **/
+        public int from(int i) { return from[i]; }
+
+        public int to(int i) { return to[i]; }
+
+        public int cost(int i) { return cost[i]; }
+
+        public long totalCost() { return totalCost; }
+
+        /** Number of trees in the forest, one per connected component, isolated vertices included. **/
+        public int componentCount() { return vertexCount - from.length; }
+
+        /**
+         * The forest as Edges of the Graph the CsrGraph was frozen from. The Graph must not have changed since.
+         * Time Complexity: O(|V|) for the forest edges, plus O(|V|) lookups in the edge lists of the Graph.
+         **/
+        public <T extends Object & Comparable<T>> List<Graph.Edge<T>> edges(Graph<T> graph) {
+            final List<Graph.Vertex<T>> vertices = graph.getAllVertices();
+            if (vertices.size() != vertexCount)
+                throw new IllegalArgumentException("The graph has " + vertices.size() + " vertices, the forest was computed on "
+                        + vertexCount + ".");
+            final List<Graph.Edge<T>> edges = new ArrayList<>(from.length);
+            for (int i = 0; i < from.length; i++)
+                edges.add(vertices.get(from[i]).getEdges().get(index[i]));
+            return edges;
+        }
+
+        @Override
+        public String toString() {
+            return "MinimumSpanningForest[edges=" + from.length + ", components=" + componentCount() + ", totalCost="
+                    + totalCost + "]";
+        }
+    }
+
+    // Boruvka
+
+    /** Parallel Boruvka on the common pool. **/
+    public static Result boruvka(CsrGraph<?> graph) {
+        return ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> runBoruvka(graph)));
+    }
+
+    /** Parallel Boruvka with the given number of worker threads. **/
+    public static Result boruvka(CsrGraph<?> graph, int parallelism) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Parallel streams started from within a pool task run in that pool.
+            return pool.invoke(ForkJoinTask.adapt(() -> runBoruvka(graph)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Result runBoruvka(CsrGraph<?> graph) {
+        final int vertexCount = graph.vertexCount();
+        final Edges edges = Edges.of(graph, true);
+        final int[] from = edges.from;
+        final int[] to = edges.to;
+
+        final int[] component = new int[vertexCount];      // vertex -> root of its component
+        final int[] parent = new int[vertexCount];         // root -> the root it is merged into in this round
+        final long[] cheapest = new long[vertexCount];     // root -> key of its cheapest outgoing edge
+        Arrays.parallelSetAll(component, v -> v);
+        Arrays.parallelSetAll(cheapest, v -> NONE);
+
+        int[] active = new int[edges.count()];
+        int[] buffer = new int[edges.count()];
+        Arrays.parallelSetAll(active, e -> e);
+        int activeCount = active.length;
+
+        final int[] forest = new int[Math.max(0, vertexCount - 1)];
+        final AtomicInteger forestSize = new AtomicInteger();
+        final int vertexChunks = (vertexCount + VERTEX_GRAIN - 1) / VERTEX_GRAIN;
+
+        while (activeCount > 0 && forestSize.get() < forest.length) {
+            final int[] current = active;
+            final int count = activeCount;
+
+            // The cheapest edge leaving each component. Only edges between two components are left.
+            IntStream.range(0, (count + EDGE_GRAIN - 1) / EDGE_GRAIN).parallel().forEach(chunk -> {
+                for (int i = chunk * EDGE_GRAIN, end = Math.min(count, i + EDGE_GRAIN); i < end; i++) {
+                    final int e = current[i];
+                    final long key = edges.key(e);
+                    writeMin(cheapest, component[from[e]], key);
+                    writeMin(cheapest, component[to[e]], key);
+                }
+            });
+
+            // Each component is merged into the one across its cheapest edge. Two components that picked the same
+            // edge would be merged into each other: the one with the smaller root stays a root instead.
+            IntStream.range(0, vertexChunks).parallel().forEach(chunk -> {
+                final IntDeque merged = new IntDeque();
+                for (int c = chunk * VERTEX_GRAIN, end = Math.min(vertexCount, c + VERTEX_GRAIN); c < end; c++) {
+                    parent[c] = c;
+                    if (component[c] != c || cheapest[c] == NONE)
+                        continue;
+                    final int e = (int) cheapest[c];
+                    final int other = component[from[e]] == c ? component[to[e]] : component[from[e]];
+                    if (cheapest[other] == cheapest[c] && c < other)
+                        continue;
+                    parent[c] = other;
+                    merged.addLast(e);
+                }
+                final int offset = forestSize.getAndAdd(merged.size());
+                for (int i = offset; !merged.isEmpty(); i++)
+                    forest[i] = merged.pollFirst();
+            });
+
+            // Pointer jumping, until every root points at the root of its merged component. Concurrent updates only
+            // ever replace a parent by one of its ancestors.
+            IntStream.range(0, vertexChunks).parallel().forEach(chunk -> {
+                for (int c = chunk * VERTEX_GRAIN, end = Math.min(vertexCount, c + VERTEX_GRAIN); c < end; c++) {
+                    if (component[c] != c)
+                        continue;
+                    int p;
+                    while ((p = parent[c]) != parent[p])
+                        parent[c] = parent[p];
+                }
+            });
+
+            // Relabel every vertex with its new root, and clear the cheapest edges of the former roots.
+            IntStream.range(0, vertexChunks).parallel().forEach(chunk -> {
+                for (int v = chunk * VERTEX_GRAIN, end = Math.min(vertexCount, v + VERTEX_GRAIN); v < end; v++) {
+                    final int c = component[v];
+                    if (c == v)
+                        cheapest[v] = NONE;
+                    component[v] = parent[c];
+                }
+            });
+
+            activeCount = retainBetweenComponents(current, count, buffer, from, to, component);
+            active = buffer;
+            buffer = current;
+        }
+
+        final int size = forestSize.get();
+        Arrays.parallelSort(forest, 0, size);
+        return edges.result(vertexCount, forest, size);
+    }
+
+    private static void writeMin(long[] array, int i, long key) {
+        long current = array[i];
+        while (key < current && !CHEAPEST.weakCompareAndSet(array, i, current, key))
+            current = (long) CHEAPEST.getVolatile(array, i);
+    }
+
+    /**
+     * Copies to target the edges of source[0 .. count) whose ends lie in two components, and returns their number.
+     * Each task first compacts its own chunk in place, then copies it after the kept edges of the chunks before it.
+     **/
+    private static int retainBetweenComponents(int[] source, int count, int[] target, int[] from, int[] to, int[] component) {
+        final int chunks = (count + EDGE_GRAIN - 1) / EDGE_GRAIN;
+        final int[] kept = new int[chunks + 1];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            final int start = chunk * EDGE_GRAIN;
+            int size = start;
+            for (int i = start, end = Math.min(count, start + EDGE_GRAIN); i < end; i++) {
+                final int e = source[i];
+                if (component[from[e]] != component[to[e]])
+                    source[size++] = e;
+            }
+            kept[chunk + 1] = size - start;
+        });
+        for (int chunk = 0; chunk < chunks; chunk++)
+            kept[chunk + 1] += kept[chunk];
+        IntStream.range(0, chunks).parallel().forEach(chunk ->
+                System.arraycopy(source, chunk * EDGE_GRAIN, target, kept[chunk], kept[chunk + 1] - kept[chunk]));
+        return kept[chunks];
+    }
+
+    // Filter-Kruskal
+
+    /**
+     * Sequential filter-Kruskal.
+     * Time Complexity: O(|E| + |V| log |V| log(|E| / |V|)) expected, O(|E| log |E|) at worst.
+     **/
+    public static Result filterKruskal(CsrGraph<?> graph) {
+        final int vertexCount = graph.vertexCount();
+        final Edges edges = Edges.of(graph, false);
+        final long[] keys = new long[edges.count()];
+        for (int e = 0; e < keys.length; e++)
+            keys[e] = edges.key(e);
+
+        final FilterKruskal kruskal = new FilterKruskal(edges, keys, vertexCount);
+        kruskal.solve(0, keys.length);
+        Arrays.sort(kruskal.forest, 0, kruskal.forestSize);
+        return edges.result(vertexCount, kruskal.forest, kruskal.forestSize);
+    }
+
+    private static final class FilterKruskal {
+        private final Edges edges;
+        private final long[] keys;
+        private final UnionFind sets;
+        private final int[] forest;
+        private int forestSize = 0;
+        private final SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+
+        FilterKruskal(Edges edges, long[] keys, int vertexCount) {
+            this.edges = edges;
+            this.keys = keys;
+            this.sets = new UnionFind(vertexCount);
+            this.forest = new int[Math.max(0, vertexCount - 1)];
+        }
+
+        /** Adds the forest edges among keys[from .. to), whose order is lost. **/
+        void solve(int from, int to) {
+            // The light part is solved by recursion, the heavy part by the loop, so the depth stays logarithmic.
+            while (to - from > KRUSKAL_THRESHOLD && forestSize < forest.length) {
+                final int split = partition(from, to, pivot(from, to));
+                if (split == to)
+                    break;
+                solve(from, split);
+                from = split;
+                to = filter(from, to);
+            }
+            kruskal(from, to);
+        }
+
+        private void kruskal(int from, int to) {
+            if (forestSize == forest.length)
+                return;
+            Arrays.sort(keys, from, to);
+            for (int i = from; i < to; i++) {
+                final int e = (int) keys[i];
+                if (sets.union(edges.from[e], edges.to[e])) {
+                    forest[forestSize++] = e;
+                    if (forestSize == forest.length)
+                        return;
+                }
+            }
+        }
+
+        /** The median of three random keys of the range. **/
+        private long pivot(int from, int to) {
+            final long a = keys[random.nextInt(from, to)];
+            final long b = keys[random.nextInt(from, to)];
+            final long c = keys[random.nextInt(from, to)];
+            return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+        }
+
+        /** Reorders the range so that the keys up to the pivot come first, and returns where the others start. **/
+        private int partition(int from, int to, long pivot) {
+            int i = from;
+            int j = to - 1;
+            while (true) {
+                while (i <= j && keys[i] <= pivot)
+                    i++;
+                while (i <= j && keys[j] > pivot)
+                    j--;
+                if (i >= j)
+                    return i;
+                final long swap = keys[i];
+                keys[i++] = keys[j];
+                keys[j--] = swap;
+            }
+        }
+
+        /** Drops the edges of the range whose ends are already in one tree, and returns the new end of the range. **/
+        private int filter(int from, int to) {
+            int end = from;
+            for (int i = from; i < to; i++) {
+                final int e = (int) keys[i];
+                if (sets.find(edges.from[e]) != sets.find(edges.to[e]))
+                    keys[end++] = keys[i];
+            }
+            return end;
+        }
+    }
+
+    /**
+     * The undirected edges of a CsrGraph, numbered in the order of the graph. Edge e joins from[e] to to[e], and is
+     * stored in the CsrGraph at slot[e].
+     **/
+    private static final class Edges {
+        private final CsrGraph<?> graph;
+        private final int[] from;
+        private final int[] to;
+        private final int[] cost;
+        private final int[] slot;
+
+        private Edges(CsrGraph<?> graph, int[] from, int[] to, int[] cost, int[] slot) {
+            this.graph = graph;
+            this.from = from;
+            this.to = to;
+            this.cost = cost;
+            this.slot = slot;
+        }
+
+        static Edges of(CsrGraph<?> graph, boolean parallel) {
+            final int vertexCount = graph.vertexCount();
+            final boolean undirected = graph.getType() == Graph.TYPE.UNDIRECTED;
+            final int[] offsets = new int[vertexCount + 1];
+            vertices(vertexCount, parallel).forEach(u -> {
+                int count = 0;
+                for (int s = graph.firstEdge(u), end = graph.endEdge(u); s < end; s++) {
+                    if (isKept(u, graph.target(s), undirected))
+                        count++;
+                }
+                offsets[u + 1] = count;
+            });
+            for (int u = 0; u < vertexCount; u++)
+                offsets[u + 1] += offsets[u];
+
+            final int edgeCount = offsets[vertexCount];
+            final int[] from = new int[edgeCount];
+            final int[] to = new int[edgeCount];
+            final int[] cost = new int[edgeCount];
+            final int[] slot = new int[edgeCount];
+            vertices(vertexCount, parallel).forEach(u -> {
+                int e = offsets[u];
+                for (int s = graph.firstEdge(u), end = graph.endEdge(u); s < end; s++) {
+                    final int v = graph.target(s);
+                    if (isKept(u, v, undirected)) {
+                        from[e] = u;
+                        to[e] = v;
+                        cost[e] = graph.cost(s);
+                        slot[e] = s;
+                        e++;
+                    }
+                }
+            });
+            return new Edges(graph, from, to, cost, slot);
+        }
+
+        private static IntStream vertices(int vertexCount, boolean parallel) {
+            final IntStream vertices = IntStream.range(0, vertexCount);
+            return parallel ? vertices.parallel() : vertices;
+        }
+
+        /** An UNDIRECTED graph stores each edge in both directions: only the one from the smaller id is kept. **/
+        private static boolean isKept(int u, int v, boolean undirected) {
+            return undirected ? u < v : u != v;
+        }
+
+        int count() { return from.length; }
+
+        /** Orders the edges by cost, then by number. The number is in the low 32 bits. **/
+        long key(int e) {
+            return (long) cost[e] << 32 | e;
+        }
+
+        Result result(int vertexCount, int[] forest, int size) {
+            final int[] resultFrom = new int[size];
+            final int[] resultIndex = new int[size];
+            final int[] resultTo = new int[size];
+            final int[] resultCost = new int[size];
+            for (int i = 0; i < size; i++) {
+                final int e = forest[i];
+                resultFrom[i] = from[e];
+                resultIndex[i] = graph.edgePosition(from[e], slot[e]);
+                resultTo[i] = to[e];
+                resultCost[i] = cost[e];
+            }
+            return new Result(vertexCount, resultFrom, resultIndex, resultTo, resultCost);
+        }
+    }
+}
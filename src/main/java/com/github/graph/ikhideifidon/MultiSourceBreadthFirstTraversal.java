@@ -0,0 +1,200 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Breadth first searches from many sources at once over an IntAdjacency (Then et al., "The More the Merrier: Efficient
+ * Multi-Source Graph Traversal"). Every vertex holds one bit per source in its seen, frontier and next masks, so one
+ * scan of the edges of a frontier vertex advances every search that reached it, with a single OR per 64 sources.
+ * Sources are searched in batches of up to BATCH_SIZE. Each level only touches the frontier vertices and their
+ * neighbours, so long paths cost no more than in a single search.
+ * Working memory: 3 * 8 * |V| * ceil(batch / 64) bytes, and 4 * 64 * |V| bytes more for distances.
+ **/
+public final class MultiSourceBreadthFirstTraversal {
+
+    /** Number of sources searched together, 8 words of 64 bits per vertex. **/
+    public static final int BATCH_SIZE = 512;
+
+    private MultiSourceBreadthFirstTraversal() { }
+
+    /** Receives, once per source, each vertex the source reaches and its distance in hops. **/
+    private interface Sink {
+        /** The source is given by its position in the batch. **/
+        void reached(int source, int vertex, int distance);
+    }
+
+    /**
+     * Hop distances from every source: distances[s][v] is the number of edges on a shortest path from sources[s] to
+     * v, or -1 if v cannot be reached from it.
+     * Time Complexity: O((|V| + |E|) * ceil(sources / 64)) word operations, and O(|V|) per source for the result.
+     **/
+    public static int[][] distances(IntAdjacency graph, int... sources) {
+        checkSources(graph, sources);
+        final int n = graph.vertexCount();
+        final int[][] distances = new int[sources.length][];
+        if (sources.length == 0)
+            return distances;
+
+        // Distances are first written vertex major, levels[v * 64 + s], so that the sources reaching a vertex at a
+        // level write to neighbouring ints rather than to 64 different arrays, then transposed. This caps the
+        // batches at 64 sources, which is where most of the gain of sharing the scans already is.
+        final Batch batch = new Batch(graph, 1);
+        final int[] levels = new int[Math.multiplyExact(n, 64)];
+        for (int from = 0; from < sources.length; from += 64) {
+            final int count = Math.min(64, sources.length - from);
+            Arrays.fill(levels, -1);
+            batch.run(sources, from, from + count, (source, vertex, distance) -> levels[vertex * 64 + source] = distance);
+
+            for (int s = 0; s < count; s++)
+                distances[from + s] = new int[n];
+            // One block of 64 vertices at a time, so that both sides of the transposition stay in cache.
+            for (int block = 0; block < n; block += 64) {
+                final int end = Math.min(n, block + 64);
+                for (int s = 0; s < count; s++) {
+                    final int[] distance = distances[from + s];
+                    for (int v = block; v < end; v++)
+                        distance[v] = levels[v * 64 + s];
+                }
+            }
+        }
+        return distances;
+    }
+
+    /** The vertices each source reaches, itself included: reachable[s] holds the ids reached from sources[s]. **/
+    public static BitSet[] reachable(IntAdjacency graph, int... sources) {
+        checkSources(graph, sources);
+        final int n = graph.vertexCount();
+        final BitSet[] reachable = new BitSet[sources.length];
+        if (sources.length == 0)
+            return reachable;
+
+        // The seen masks are the answer: bit s of vertex v is set once sources[s] reached v.
+        final int words = (Math.min(sources.length, BATCH_SIZE) + 63) >>> 6;
+        final Batch batch = new Batch(graph, words);
+        for (int from = 0; from < sources.length; from += BATCH_SIZE) {
+            final int count = Math.min(BATCH_SIZE, sources.length - from);
+            batch.run(sources, from, from + count, null);
+
+            final long[][] sets = new long[count][(n + 63) >>> 6];
+            for (int v = 0; v < n; v++) {
+                for (int w = 0; w < words; w++) {
+                    long bits = batch.seen[v * words + w];
+                    while (bits != 0) {
+                        sets[(w << 6) + Long.numberOfTrailingZeros(bits)][v >>> 6] |= 1L << v;
+                        bits &= bits - 1;
+                    }
+                }
+            }
+            for (int s = 0; s < count; s++)
+                reachable[from + s] = BitSet.valueOf(sets[s]);
+        }
+        return reachable;
+    }
+
+    private static void checkSources(IntAdjacency graph, int[] sources) {
+        for (int source : sources) {
+            if (source < 0 || source >= graph.vertexCount())
+                throw new IllegalArgumentException("Source " + source + " is not a vertex of the graph.");
+        }
+    }
+
+    /** The masks of one batch, reused by the next one. **/
+    private static final class Batch {
+        private final IntAdjacency graph;
+        private final int words;
+        private final long[] seen;
+        private final long[] frontier;
+        private final long[] next;
+        private final int[] active;             // Vertices whose frontier mask is not empty.
+        private final int[] touched;            // Vertices whose next mask was written at this level.
+        private final int[] stamp;              // stamp[v] == epoch once v is in touched.
+        private int epoch = 0;
+
+        Batch(IntAdjacency graph, int words) {
+            final int n = graph.vertexCount();
+            final int size = Math.multiplyExact(n, words);
+            this.graph = graph;
+            this.words = words;
+            this.seen = new long[size];
+            this.frontier = new long[size];
+            this.next = new long[size];
+            this.active = new int[n];
+            this.touched = new int[n];
+            this.stamp = new int[n];
+        }
+
+        /** Searches from sources[from .. to - 1], at most 64 * words of them. The sink may be null. **/
+        void run(int[] sources, int from, int to, Sink sink) {
+            final int k = words;
+            Arrays.fill(seen, 0L);
+
+            // Level 0: the sources themselves.
+            int activeCount = 0;
+            epoch++;
+            for (int s = from; s < to; s++) {
+                final int v = sources[s];
+                final int word = v * k + ((s - from) >>> 6);
+                final long bit = 1L << (s - from);
+                if ((seen[word] & bit) != 0)
+                    continue;
+                seen[word] |= bit;
+                frontier[word] |= bit;
+                if (sink != null)
+                    sink.reached(s - from, v, 0);
+                if (stamp[v] != epoch) {
+                    stamp[v] = epoch;
+                    active[activeCount++] = v;
+                }
+            }
+
+            for (int level = 1; activeCount > 0; level++) {
+                // Push every frontier mask along the outgoing edges.
+                epoch++;
+                int touchedCount = 0;
+                for (int a = 0; a < activeCount; a++) {
+                    final int v = active[a];
+                    final int base = v * k;
+                    for (int i = 0, degree = graph.degree(v); i < degree; i++) {
+                        final int u = graph.target(v, i);
+                        if (stamp[u] != epoch) {
+                            stamp[u] = epoch;
+                            touched[touchedCount++] = u;
+                        }
+                        final int target = u * k;
+                        for (int w = 0; w < k; w++)
+                            next[target + w] |= frontier[base + w];
+                    }
+                    for (int w = 0; w < k; w++)
+                        frontier[base + w] = 0;
+                }
+
+                // The bits a vertex receives for the first time are the searches reaching it at this level.
+                activeCount = 0;
+                for (int t = 0; t < touchedCount; t++) {
+                    final int u = touched[t];
+                    final int base = u * k;
+                    boolean reached = false;
+                    for (int w = 0; w < k; w++) {
+                        long bits = next[base + w] & ~seen[base + w];
+                        next[base + w] = 0;
+                        if (bits == 0)
+                            continue;
+                        seen[base + w] |= bits;
+                        frontier[base + w] = bits;
+                        reached = true;
+                        if (sink == null)
+                            continue;
+                        final int first = w << 6;
+                        while (bits != 0) {
+                            sink.reached(first + Long.numberOfTrailingZeros(bits), u, level);
+                            bits &= bits - 1;
+                        }
+                    }
+                    if (reached)
+                        active[activeCount++] = u;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.graph.ikhideifidon;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Level synchronous, direction optimizing breadth first search over a CsrGraph (Beamer, Asanovic and Patterson).
+ * Each level is expanded in parallel, either top-down (every frontier vertex claims its unvisited neighbours) or
+ * bottom-up (every unvisited vertex looks for a parent in the frontier, and stops at the first one found). Bottom-up
+ * wins on the middle levels of low diameter graphs, where the frontier holds most of the edges.
+ * The visit set is the one of BreadthFirstTraversal. Depths are exact, and parents form a valid BFS tree, but which
+ * of several parents at the same depth is chosen depends on scheduling.
+ **/
+public class ParallelBreadthFirstTraversal {
+
+    // Switch to bottom-up once the frontier holds more than 1/ALPHA of the unexplored edges,
+    // and back to top-down once it holds fewer than 1/BETA of the vertices.
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    // Work per task: frontier vertices for a top-down step, 64-vertex bitmap words for a bottom-up step.
+    private static final int TOP_DOWN_GRAIN = 512;
+    private static final int BOTTOM_UP_GRAIN_WORDS = 32;
+
+    private static final VarHandle PARENT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /** Depth and parent of every vertex reached by a search. **/
+    public static final class Result {
+        private final int source;
+        private final int[] depth;
+        private final int[] parent;
+        private final int visitedCount;
+
+        private Result(int source, int[] depth, int[] parent, int visitedCount) {
+            this.source = source;
+            this.depth = depth;
+            this.parent = parent;
+            this.visitedCount = visitedCount;
+        }
+
+        public int getSource() { return source; }
+
+        public int visitedCount() { return visitedCount; }
+
+        public boolean isVisited(int vertex) { return depth[vertex] >= 0; }
+
+        /** Number of edges on a shortest path from the source, -1 if the vertex was not reached. **/
+        public int depth(int vertex) { return depth[vertex]; }
+
+        /** The vertex this one was reached from, -1 if it was not reached. The source is its own parent. **/
+        public int parent(int vertex) { return parent[vertex]; }
+
+        /** The visited vertex ids, level by level and in increasing id order within a level. **/
+        public int[] visitedIds() {
+            int maximumDepth = 0;
+            for (int d : depth)
+                maximumDepth = Math.max(maximumDepth, d);
+
+            final int[] start = new int[maximumDepth + 2];
+            for (int d : depth) {
+                if (d >= 0)
+                    start[d + 1]++;
+            }
+            for (int d = 0; d <= maximumDepth; d++)
+                start[d + 1] += start[d];
+
+            final int[] ids = new int[visitedCount];
+            for (int v = 0; v < depth.length; v++) {
+                if (depth[v] >= 0)
+                    ids[start[depth[v]]++] = v;
+            }
+            return ids;
+        }
+    }
+
+    /** Parallel breadth first search on the common pool. **/
+    public static Result search(CsrGraph<?> graph, int source) {
+        return ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> run(graph, source)));
+    }
+
+    /** Parallel breadth first search with the given number of worker threads. **/
+    public static Result search(CsrGraph<?> graph, int source, int parallelism) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Parallel streams started from within a pool task run in that pool.
+            return pool.invoke(ForkJoinTask.adapt(() -> run(graph, source)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Result run(CsrGraph<?> graph, int source) {
+        final int vertexCount = graph.vertexCount();
+        if (source < 0 || source >= vertexCount)
+            throw new IllegalArgumentException("Source " + source + " is not a vertex of the graph.");
+
+        final CsrGraph<?> incoming = graph.transpose();
+        final int[] depth = new int[vertexCount];
+        final int[] parent = new int[vertexCount];
+        Arrays.fill(depth, -1);
+        Arrays.fill(parent, -1);
+        depth[source] = 0;
+        parent[source] = source;
+
+        final int words = (vertexCount + 63) >>> 6;
+        long[] frontierBits = new long[words];
+        long[] nextBits = new long[words];
+        int[] frontier = new int[vertexCount];
+        int[] next = new int[vertexCount];
+        frontier[0] = source;
+        int frontierSize = 1;
+        boolean frontierIsList = true;
+
+        long frontierEdges = graph.degree(source);
+        long unexploredEdges = graph.edgeCount() - frontierEdges;
+        int visitedCount = 1;
+        boolean topDown = true;
+
+        for (int level = 0; frontierSize > 0; level++) {
+            // Pick the direction of this step.
+            if (topDown && frontierEdges > unexploredEdges / ALPHA)
+                topDown = false;
+            else if (!topDown && frontierSize < vertexCount / BETA)
+                topDown = true;
+
+            final LongAdder nextEdges = new LongAdder();
+            final int nextLevel = level + 1;
+            if (topDown) {
+                if (!frontierIsList) {
+                    frontierSize = bitsToList(frontierBits, frontier);
+                    frontierIsList = true;
+                }
+                final int[] current = frontier;
+                final int[] found = next;
+                final int currentSize = frontierSize;
+                final AtomicInteger nextSize = new AtomicInteger();
+                IntStream.range(0, (currentSize + TOP_DOWN_GRAIN - 1) / TOP_DOWN_GRAIN).parallel().forEach(chunk -> {
+                    final IntDeque local = new IntDeque();
+                    long edges = 0;
+                    for (int i = chunk * TOP_DOWN_GRAIN, end = Math.min(currentSize, i + TOP_DOWN_GRAIN); i < end; i++) {
+                        final int u = current[i];
+                        for (int e = graph.firstEdge(u), last = graph.endEdge(u); e < last; e++) {
+                            final int v = graph.target(e);
+                            if (parent[v] < 0 && PARENT.compareAndSet(parent, v, -1, u)) {
+                                depth[v] = nextLevel;
+                                local.addLast(v);
+                                edges += graph.degree(v);
+                            }
+                        }
+                    }
+                    final int offset = nextSize.getAndAdd(local.size());
+                    for (int i = 0; !local.isEmpty(); i++)
+                        found[offset + i] = local.pollFirst();
+                    nextEdges.add(edges);
+                });
+                frontierSize = nextSize.get();
+                frontier = found;
+                next = current;
+            } else {
+                if (frontierIsList) {
+                    listToBits(frontier, frontierSize, frontierBits);
+                    frontierIsList = false;
+                }
+                final long[] current = frontierBits;
+                final long[] found = nextBits;
+                final LongAdder nextSize = new LongAdder();
+                IntStream.range(0, (words + BOTTOM_UP_GRAIN_WORDS - 1) / BOTTOM_UP_GRAIN_WORDS).parallel().forEach(chunk -> {
+                    // Each task owns whole bitmap words, so the next frontier is written without atomics.
+                    int count = 0;
+                    long edges = 0;
+                    for (int w = chunk * BOTTOM_UP_GRAIN_WORDS, endWord = Math.min(words, w + BOTTOM_UP_GRAIN_WORDS); w < endWord; w++) {
+                        long bits = 0;
+                        for (int v = w << 6, end = Math.min(vertexCount, v + 64); v < end; v++) {
+                            if (parent[v] >= 0)
+                                continue;
+                            for (int e = incoming.firstEdge(v), last = incoming.endEdge(v); e < last; e++) {
+                                final int u = incoming.target(e);
+                                if ((current[u >>> 6] & (1L << u)) != 0) {
+                                    parent[v] = u;
+                                    depth[v] = nextLevel;
+                                    bits |= 1L << v;
+                                    count++;
+                                    edges += graph.degree(v);
+                                    break;
+                                }
+                            }
+                        }
+                        found[w] = bits;
+                    }
+                    nextSize.add(count);
+                    nextEdges.add(edges);
+                });
+                frontierSize = nextSize.intValue();
+                frontierBits = found;
+                nextBits = current;
+            }
+
+            visitedCount += frontierSize;
+            frontierEdges = nextEdges.sum();
+            unexploredEdges -= frontierEdges;
+        }
+        return new Result(source, depth, parent, visitedCount);
+    }
+
+    private static int bitsToList(long[] bits, int[] list) {
+        int size = 0;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1)
+                list[size++] = (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        return size;
+    }
+
+    private static void listToBits(int[] list, int size, long[] bits) {
+        Arrays.fill(bits, 0L);
+        for (int i = 0; i < size; i++)
+            bits[list[i] >>> 6] |= 1L << list[i];
+    }
+}
@@ -0,0 +1,348 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of traversal results in front of a Graph, for workloads where a few hot sources are queried over and
+ * over. Every entry is tagged with Graph.version() when it was computed, and the whole cache is dropped on the first
+ * lookup after the version moved: a cached answer is always the one a fresh traversal would give.
+ *
+ * Two eviction policies are offered. LRU keeps the most recently used results. TINY_LFU is W-TinyLFU (Einziger et al.,
+ * "TinyLFU: A Highly Efficient Cache Admission Policy"): new results enter a small LRU window, and a result leaving the
+ * window only displaces the least recently used result of the main segmented LRU if a frequency sketch says it is
+ * queried more often. A burst of one-off sources then cannot flush the hot ones.
+ *
+ * Safe for concurrent use. Traversals run outside of the lock, so two threads missing on the same source at once may
+ * both compute it.
+ **/
+public final class QueryCache<T extends Object & Comparable<T>> {
+
+    public enum Policy {
+        LRU, TINY_LFU,
+    }
+
+    /** Counters since the cache was created. Invalidations count the entries dropped because the Graph changed. **/
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size) {
+        public double hitRate() {
+            final long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private enum Query {
+        DEPTH_FIRST_PATHS, BREADTH_FIRST_SEARCH,
+    }
+
+    private final Graph<T> graph;
+    private final int maximumSize;
+    private final Map<Key, Node> entries;
+    private final Segment window = new Segment();
+    private final Segment probation = new Segment();
+    private final Segment protectedSegment = new Segment();
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final FrequencySketch sketch;               // null for LRU.
+    private long version;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    /** A W-TinyLFU cache of at most maximumSize results. **/
+    public QueryCache(Graph<T> graph, int maximumSize) {
+        this(graph, maximumSize, Policy.TINY_LFU);
+    }
+
+    public QueryCache(Graph<T> graph, int maximumSize, Policy policy) {
+        if (graph == null)
+            throw new NullPointerException("Graph cannot be null");
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("The maximum size must be positive: " + maximumSize);
+        this.graph = graph;
+        this.maximumSize = maximumSize;
+        this.entries = new HashMap<>(maximumSize * 2);
+        this.version = graph.version();
+        if (policy == Policy.LRU) {
+            this.windowCapacity = maximumSize;
+            this.protectedCapacity = 0;
+            this.sketch = null;
+        } else {
+            // 1% of the entries for the window and 80% of the rest for the protected segment, as in the paper.
+            this.windowCapacity = Math.max(1, maximumSize / 100);
+            this.protectedCapacity = (maximumSize - windowCapacity) * 4 / 5;
+            this.sketch = new FrequencySketch(maximumSize);
+        }
+    }
+
+    // Queries
+
+    /** The depth first paths from a source, computed once per version of the Graph. **/
+    public DepthFirstPaths<T> depthFirstPaths(Graph.Vertex<T> source) {
+        return get(Query.DEPTH_FIRST_PATHS, source, () -> new DepthFirstPaths<>(graph, source));
+    }
+
+    public boolean hasPathTo(Graph.Vertex<T> source, Graph.Vertex<T> destination) {
+        return depthFirstPaths(source).hasPathTo(destination);
+    }
+
+    /** The vertices from the source to the destination, or null if there is no path. **/
+    public Iterable<Graph.Vertex<T>> pathTo(Graph.Vertex<T> source, Graph.Vertex<T> destination) {
+        return depthFirstPaths(source).pathTo(destination);
+    }
+
+    /** BreadthFirstTraversal.breadthFirstSearch from a source. Each call returns its own copy of the cached order. **/
+    public T[] breadthFirstSearch(Graph.Vertex<T> source) {
+        return get(Query.BREADTH_FIRST_SEARCH, source, () -> BreadthFirstTraversal.breadthFirstSearch(graph, source))
+                .clone();
+    }
+
+    // Management
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size());
+    }
+
+    /** Number of results held, results of an older version of the Graph included until the next lookup. **/
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int maximumSize() { return maximumSize; }
+
+    /** Drops every result. **/
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R get(Query query, Graph.Vertex<T> source, Supplier<R> traversal) {
+        if (source == null)
+            throw new NullPointerException("Source vertex cannot be null");
+        final Key key = new Key(query, source);
+        final long version = graph.version();
+        synchronized (this) {
+            checkVersion(version);
+            if (sketch != null)
+                sketch.increment(key.hashCode());
+            final Node node = entries.get(key);
+            if (node != null) {
+                hits++;
+                touch(node);
+                return (R) node.value;
+            }
+            misses++;
+        }
+
+        final R value = traversal.get();
+        synchronized (this) {
+            // A result computed while the Graph changed may already be stale: return it, but do not keep it.
+            if (graph.version() == version && this.version == version && !entries.containsKey(key))
+                insert(new Node(key, value));
+        }
+        return value;
+    }
+
+    private void checkVersion(long version) {
+        if (version != this.version) {
+            invalidateAll();
+            this.version = version;
+        }
+    }
+
+    // Eviction, under the lock of the cache.
+
+    private void touch(Node node) {
+        if (node.segment == window) {
+            window.moveToBack(node);
+        } else if (node.segment == probation) {
+            // A second hit while in the main space makes the result protected.
+            probation.remove(node);
+            protectedSegment.addLast(node);
+            if (protectedSegment.size > protectedCapacity)
+                probation.addLast(protectedSegment.removeFirst());
+        } else {
+            protectedSegment.moveToBack(node);
+        }
+    }
+
+    private void insert(Node node) {
+        entries.put(node.key, node);
+        window.addLast(node);
+        if (window.size <= windowCapacity)
+            return;
+
+        final Node candidate = window.removeFirst();
+        if (sketch == null) {
+            evict(candidate);
+            return;
+        }
+        probation.addLast(candidate);
+        if (entries.size() <= maximumSize)
+            return;
+
+        // The main space is full: admit the candidate only if it is used more often than the main victim.
+        final Node victim = probation.first() != candidate ? probation.first() : protectedSegment.first();
+        if (victim != null && sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+            victim.segment.remove(victim);
+            evict(victim);
+        } else {
+            probation.remove(candidate);
+            evict(candidate);
+        }
+    }
+
+    private void evict(Node node) {
+        entries.remove(node.key);
+        evictions++;
+    }
+
+    /** A query and its source vertex, compared by identity as two vertices may hold equal values. **/
+    private static final class Key {
+        private final Query query;
+        private final Graph.Vertex<?> source;
+
+        Key(Query query, Graph.Vertex<?> source) {
+            this.query = query;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && key.query == query && key.source == source;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(source) + query.ordinal();
+        }
+    }
+
+    private static final class Node {
+        private final Key key;
+        private final Object value;
+        private Segment segment = null;
+        private Node previous = null;
+        private Node next = null;
+
+        Node(Key key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /** A doubly linked list of nodes, least recently used first. **/
+    private static final class Segment {
+        private Node head = null;
+        private Node tail = null;
+        private int size = 0;
+
+        Node first() { return head; }
+
+        void addLast(Node node) {
+            node.segment = this;
+            node.previous = tail;
+            node.next = null;
+            if (tail == null)
+                head = node;
+            else
+                tail.next = node;
+            tail = node;
+            size++;
+        }
+
+        Node removeFirst() {
+            final Node node = head;
+            remove(node);
+            return node;
+        }
+
+        void remove(Node node) {
+            if (node.previous == null)
+                head = node.next;
+            else
+                node.previous.next = node.next;
+            if (node.next == null)
+                tail = node.previous;
+            else
+                node.next.previous = node.previous;
+            node.previous = null;
+            node.next = null;
+            node.segment = null;
+            size--;
+        }
+
+        void moveToBack(Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+
+    /**
+     * A count-min sketch of 4 bit counters, 16 to a long, that estimates how often a key was requested. Every
+     * counter is halved once 10 increments per entry of the cache were made, so old popularity fades.
+     **/
+    private static final class FrequencySketch {
+        private final long[] table;
+        private final int sampleSize;
+        private int additions = 0;
+
+        FrequencySketch(int maximumSize) {
+            final int size = Integer.highestOneBit(Math.max(2, maximumSize) - 1) << 1;
+            this.table = new long[Math.max(8, size)];
+            this.sampleSize = 10 * Math.max(maximumSize, 8);
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                final int index = index(hash, i);
+                final int shift = shift(hash, i);
+                if (((table[index] >>> shift) & 0xFL) != 0xFL) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize)
+                reset();
+        }
+
+        int frequency(int hash) {
+            int frequency = 15;
+            for (int i = 0; i < 4; i++)
+                frequency = Math.min(frequency, (int) ((table[index(hash, i)] >>> shift(hash, i)) & 0xFL));
+            return frequency;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++)
+                table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+            additions /= 2;
+        }
+
+        /** The long holding the i-th counter of a key. **/
+        private int index(int hash, int i) {
+            int h = (hash + i) * (0x9E3779B9 + 2 * i);
+            h ^= h >>> 16;
+            return h & (table.length - 1);
+        }
+
+        /** The position, in bits, of the i-th counter of a key within its long. **/
+        private static int shift(int hash, int i) {
+            return (((hash >>> (i << 3)) & 3) << 2) + (i << 4);
+        }
+    }
+}
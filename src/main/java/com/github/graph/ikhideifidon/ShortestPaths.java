@@ -0,0 +1,211 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+
+/**
+ * Weighted shortest paths over the edge costs of a CsrGraph: Dijkstra, A* and bidirectional Dijkstra.
+ * An instance owns the working memory of its searches (distances, parents and an IndexedDaryHeap), validated by
+ * generation stamps, so a query only touches the vertices it settles and repeated queries allocate nothing.
+ * Edge costs must not be negative. An instance is not thread safe, use one per thread.
+ **/
+public final class ShortestPaths {
+
+    /** Distance reported for an unreachable vertex. **/
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    /** A lower bound on the distance from a vertex to the target. It must never overestimate. **/
+    @FunctionalInterface
+    public interface Heuristic {
+        long estimate(int vertex, int target);
+    }
+
+    private final CsrGraph<?> graph;
+    private final CsrGraph<?> reverse;
+
+    private int generation = 0;
+    private final int[] stamp;                  // distance[v] and parent[v] hold if stamp[v] == generation.
+    private final long[] distance;
+    private final int[] parent;
+    private final IndexedDaryHeap heap;
+
+    // The backward half of a bidirectional search, allocated on first use.
+    private int[] reverseStamp;
+    private long[] reverseDistance;
+    private int[] reverseParent;
+    private IndexedDaryHeap reverseHeap;
+
+    // Path of the last single pair query.
+    private int lastSource = -1;
+    private int lastTarget = -1;
+    private int meeting = -1;
+
+    public ShortestPaths(CsrGraph<?> graph) {
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            if (graph.cost(e) < 0)
+                throw new IllegalArgumentException("Edge costs cannot be negative: " + graph.cost(e));
+        }
+        this.graph = graph;
+        this.reverse = graph.getType() == Graph.TYPE.UNDIRECTED ? graph : graph.transpose();
+        this.stamp = new int[graph.vertexCount()];
+        this.distance = new long[graph.vertexCount()];
+        this.parent = new int[graph.vertexCount()];
+        this.heap = new IndexedDaryHeap(graph.vertexCount());
+    }
+
+    private void nextGeneration() {
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            if (reverseStamp != null)
+                Arrays.fill(reverseStamp, 0);
+            generation = 1;
+        }
+        heap.clear();
+        meeting = -1;
+    }
+
+    /** One to all Dijkstra. Returns the distance to every vertex, UNREACHABLE for the unreachable ones. **/
+    public long[] distancesFrom(int source) {
+        search(source, -1, null);
+        final long[] result = new long[graph.vertexCount()];
+        for (int v = 0; v < result.length; v++)
+            result[v] = stamp[v] == generation ? distance[v] : UNREACHABLE;
+        lastSource = lastTarget = -1;
+        return result;
+    }
+
+    /** Dijkstra from source to target, stopping as soon as the target is settled. **/
+    public long distance(int source, int target) {
+        return search(source, target, null);
+    }
+
+    /** A* from source to target. With a zero heuristic this is Dijkstra. **/
+    public long distance(int source, int target, Heuristic heuristic) {
+        return search(source, target, heuristic);
+    }
+
+    private long search(int source, int target, Heuristic heuristic) {
+        nextGeneration();
+        lastSource = source;
+        lastTarget = target;
+        reach(source, 0, source);
+        heap.insert(source, heuristic == null ? 0 : heuristic.estimate(source, target));
+
+        while (!heap.isEmpty()) {
+            final int u = heap.poll();
+            if (u == target)
+                return distance[u];
+
+            final long du = distance[u];
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                final int v = graph.target(e);
+                final long dv = du + graph.cost(e);
+                if (stamp[v] != generation || dv < distance[v]) {
+                    reach(v, dv, u);
+                    // A settled vertex is only reopened when an inconsistent heuristic found it too early.
+                    heap.insertOrDecrease(v, heuristic == null ? dv : dv + heuristic.estimate(v, target));
+                }
+            }
+        }
+        return target < 0 ? 0 : UNREACHABLE;
+    }
+
+    private void reach(int v, long d, int from) {
+        stamp[v] = generation;
+        distance[v] = d;
+        parent[v] = from;
+    }
+
+    /**
+     * Bidirectional Dijkstra: searches forward from the source and backward from the target, alternating on the
+     * smaller frontier, and stops once the two smallest keys together exceed the best path found.
+     **/
+    public long bidirectionalDistance(int source, int target) {
+        if (reverseHeap == null) {
+            reverseStamp = new int[graph.vertexCount()];
+            reverseDistance = new long[graph.vertexCount()];
+            reverseParent = new int[graph.vertexCount()];
+            reverseHeap = new IndexedDaryHeap(graph.vertexCount());
+        }
+        nextGeneration();
+        reverseHeap.clear();
+        lastSource = source;
+        lastTarget = target;
+
+        reach(source, 0, source);
+        heap.insert(source, 0);
+        reverseStamp[target] = generation;
+        reverseDistance[target] = 0;
+        reverseParent[target] = target;
+        reverseHeap.insert(target, 0);
+
+        long best = source == target ? 0 : UNREACHABLE;
+        meeting = source == target ? source : -1;
+        while (!heap.isEmpty() && !reverseHeap.isEmpty()) {
+            if (heap.peekKey() + reverseHeap.peekKey() >= best)
+                break;
+
+            final boolean forward = heap.size() <= reverseHeap.size();
+            final CsrGraph<?> side = forward ? graph : reverse;
+            final IndexedDaryHeap queue = forward ? heap : reverseHeap;
+            final int[] sideStamp = forward ? stamp : reverseStamp;
+            final long[] sideDistance = forward ? distance : reverseDistance;
+            final int[] sideParent = forward ? parent : reverseParent;
+            final int[] otherStamp = forward ? reverseStamp : stamp;
+            final long[] otherDistance = forward ? reverseDistance : distance;
+
+            final int u = queue.poll();
+            final long du = sideDistance[u];
+            for (int e = side.firstEdge(u), end = side.endEdge(u); e < end; e++) {
+                final int v = side.target(e);
+                final long dv = du + side.cost(e);
+                if (sideStamp[v] != generation || dv < sideDistance[v]) {
+                    sideStamp[v] = generation;
+                    sideDistance[v] = dv;
+                    sideParent[v] = u;
+                    queue.insertOrDecrease(v, dv);
+                }
+                if (otherStamp[v] == generation && sideDistance[v] + otherDistance[v] < best) {
+                    best = sideDistance[v] + otherDistance[v];
+                    meeting = v;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** The vertex ids of a shortest path found by the last single pair query, or null if there was none. **/
+    public int[] lastPath() {
+        if (lastTarget < 0)
+            return null;
+
+        if (meeting < 0) {
+            // Dijkstra or A*
+            if (stamp[lastTarget] != generation)
+                return null;
+            int length = 1;
+            for (int v = lastTarget; v != lastSource; v = parent[v])
+                length++;
+            final int[] path = new int[length];
+            for (int v = lastTarget, i = length - 1; i >= 0; v = parent[v], i--)
+                path[i] = v;
+            return path;
+        }
+
+        // Bidirectional: source .. meeting from the forward parents, then meeting .. target from the backward ones.
+        int forwardLength = 1;
+        for (int v = meeting; v != lastSource; v = parent[v])
+            forwardLength++;
+        int backwardLength = 0;
+        for (int v = meeting; v != lastTarget; v = reverseParent[v])
+            backwardLength++;
+
+        final int[] path = new int[forwardLength + backwardLength];
+        for (int v = meeting, i = forwardLength - 1; i >= 0; v = parent[v], i--)
+            path[i] = v;
+        for (int v = meeting, i = forwardLength; v != lastTarget; i++) {
+            v = reverseParent[v];
+            path[i] = v;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,607 @@
+package com.github.graph.ikhideifidon;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Strongly connected components of a directed IntAdjacency, and the condensation DAG they form. An UNDIRECTED graph
+ * stores every edge both ways, so its strongly connected components are its connected components.
+ *
+ * tarjan is Tarjan's algorithm with an explicit stack, so that paths of tens of millions of vertices do not overflow
+ * the call stack. forwardBackward is the parallel FW-BW algorithm (Fleischer, Hendrickson and Pinar) on a ForkJoin
+ * pool. Vertices left without incoming or outgoing edges are first trimmed, repeatedly, as components of their own,
+ * which takes the DAG-like parts of the graph out in linear time. A random pivot's
+ * forward and backward reachable sets are then found, with a level synchronous parallel search on large subproblems.
+ * Their intersection is a component. The parts reached only one way are solved as independent tasks, and the rest
+ * with further pivots. Each part is solved with tarjan once it is small.
+ **/
+public final class StronglyConnectedComponents {
+
+    // Subproblems of at most this many vertices are solved by tarjan.
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    // Subproblems of more vertices search their reachable sets in parallel, on the levels of more than PARALLEL_LEVEL
+    // vertices, one chunk of a level per task.
+    private static final int PARALLEL_REACH_THRESHOLD = 1 << 16;
+    private static final int PARALLEL_LEVEL = 1 << 11;
+    private static final int FRONTIER_GRAIN = 512;
+    private static final int VERTEX_GRAIN = 1 << 12;
+
+    // The label of vertices whose component is known.
+    private static final int DONE = -1;
+
+    // Atomic access to the labels and degrees of vertices.
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private StronglyConnectedComponents() { }
+
+    /** The component of every vertex. **/
+    public static final class Result {
+        private final int[] component;
+        private final int componentCount;
+
+        private Result(int[] component, int componentCount) {
+            this.component = component;
+            this.componentCount = componentCount;
+        }
+
+        public int componentCount() { return componentCount; }
+
+        /** The component of a vertex, 0 <= component < componentCount(). **/
+        public int component(int vertex) { return component[vertex]; }
+
+        /** The component of every vertex, by vertex id. The array is shared, not a copy. **/
+        public int[] components() { return component; }
+
+        public boolean isStronglyConnected(int u, int v) { return component[u] == component[v]; }
+
+        /** Number of vertices in every component. **/
+        public int[] sizes() {
+            final int[] sizes = new int[componentCount];
+            for (int c : component)
+                sizes[c]++;
+            return sizes;
+        }
+
+        @Override
+        public String toString() {
+            return "StronglyConnectedComponents[vertices=" + component.length + ", components=" + componentCount + "]";
+        }
+    }
+
+    /**
+     * The DAG of the components: vertex c stands for component c, and there is one edge c -> d, at the least cost of
+     * the edges from c to d, whenever an edge of the graph leads from c to d.
+     **/
+    public static final class Condensation implements IntAdjacency {
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] costs;
+        private final int[] sizes;
+
+        private Condensation(int[] offsets, int[] targets, int[] costs, int[] sizes) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.costs = costs;
+            this.sizes = sizes;
+        }
+
+        @Override
+        public int vertexCount() { return sizes.length; }
+
+        @Override
+        public int edgeCount() { return targets.length; }
+
+        @Override
+        public int degree(int component) { return offsets[component + 1] - offsets[component]; }
+
+        @Override
+        public int target(int component, int i) { return targets[offsets[component] + i]; }
+
+        @Override
+        public int cost(int component, int i) { return costs[offsets[component] + i]; }
+
+        /** Number of vertices of the graph in a component. **/
+        public int size(int component) { return sizes[component]; }
+
+        @Override
+        public String toString() {
+            return "Condensation[components=" + sizes.length + ", edges=" + targets.length + "]";
+        }
+    }
+
+    // Tarjan
+
+    /**
+     * Iterative Tarjan. Components are numbered in topological order: every edge between two components leads to
+     * the one with the greater number.
+     * Time Complexity: O(|V| + |E|).
+     **/
+    public static Result tarjan(IntAdjacency graph) {
+        final int vertexCount = graph.vertexCount();
+        final int[] component = new int[vertexCount];
+        Arrays.fill(component, -1);
+        final Tarjan tarjan = new Tarjan(graph, vertexCount, null, 0, component);
+        final AtomicInteger counter = new AtomicInteger();
+        for (int v = 0; v < vertexCount; v++) {
+            if (tarjan.index[v] < 0)
+                tarjan.run(v, counter);
+        }
+
+        // Tarjan completes the components in reverse topological order.
+        final int count = counter.get();
+        for (int v = 0; v < vertexCount; v++)
+            component[v] = count - 1 - component[v];
+        return new Result(component, count);
+    }
+
+    /**
+     * Tarjan's algorithm over the vertices whose label is the given one, or over all vertices if there are no labels.
+     * index and low are indexed by vertex id, so that the subproblems of forwardBackward can share them.
+     **/
+    private static final class Tarjan {
+        private final IntAdjacency graph;
+        private final int[] index;
+        private final int[] low;
+        private final int[] labels;
+        private final int label;
+        private final int[] component;
+        private final IntDeque stack = new IntDeque();          // Visited vertices whose component is not known yet.
+        private final IntDeque path = new IntDeque();           // The vertices of the search path...
+        private final IntDeque next = new IntDeque();           // ...and the position of their next edge.
+        private int counter = 0;
+
+        Tarjan(IntAdjacency graph, int vertexCount, int[] labels, int label, int[] component) {
+            this(graph, filled(vertexCount), new int[vertexCount], labels, label, component);
+        }
+
+        Tarjan(IntAdjacency graph, int[] index, int[] low, int[] labels, int label, int[] component) {
+            this.graph = graph;
+            this.index = index;
+            this.low = low;
+            this.labels = labels;
+            this.label = label;
+            this.component = component;
+        }
+
+        private static int[] filled(int vertexCount) {
+            final int[] index = new int[vertexCount];
+            Arrays.fill(index, -1);
+            return index;
+        }
+
+        /** Finds the components reachable from an unvisited root, numbering them with counter. **/
+        void run(int root, AtomicInteger counter) {
+            visit(root);
+            while (!path.isEmpty()) {
+                final int v = path.peekLast();
+                int i = next.peekLast();
+                final int degree = graph.degree(v);
+                // Skip the edges to vertices already visited, up to the next unvisited one.
+                int w = -1;
+                for (; i < degree; i++) {
+                    final int target = graph.target(v, i);
+                    if (labels != null && labels[target] != label)
+                        continue;
+                    if (index[target] < 0) {
+                        w = target;
+                        i++;
+                        break;
+                    }
+                    if (component[target] < 0 && index[target] < low[v])
+                        low[v] = index[target];
+                }
+                if (w >= 0) {
+                    next.setLast(i);
+                    visit(w);
+                    continue;
+                }
+
+                path.pollLast();
+                next.pollLast();
+                if (low[v] == index[v]) {
+                    final int c = counter.getAndIncrement();
+                    int u;
+                    do {
+                        u = stack.pollLast();
+                        component[u] = c;
+                    } while (u != v);
+                }
+                if (!path.isEmpty()) {
+                    final int parent = path.peekLast();
+                    if (low[v] < low[parent])
+                        low[parent] = low[v];
+                }
+            }
+        }
+
+        private void visit(int v) {
+            index[v] = low[v] = counter++;
+            stack.addLast(v);
+            path.addLast(v);
+            next.addLast(0);
+        }
+    }
+
+    // Forward-backward
+
+    /** Parallel forward-backward on the common pool. Components are numbered in no particular order. **/
+    public static Result forwardBackward(CsrGraph<?> graph) {
+        return ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> runForwardBackward(graph)));
+    }
+
+    /** Parallel forward-backward with the given number of worker threads. **/
+    public static Result forwardBackward(CsrGraph<?> graph, int parallelism) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Parallel streams and tasks started from within a pool task run in that pool.
+            return pool.invoke(ForkJoinTask.adapt(() -> runForwardBackward(graph)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Result runForwardBackward(CsrGraph<?> graph) {
+        final ForwardBackward search = new ForwardBackward(graph);
+        final int vertexCount = graph.vertexCount();
+
+        search.trim();
+
+        int remaining = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (search.labels[v] != DONE)
+                remaining++;
+        }
+        final int[] vertices = new int[remaining];
+        for (int v = 0, i = 0; v < vertexCount; v++) {
+            if (search.labels[v] != DONE)
+                vertices[i++] = v;
+        }
+        search.new Subproblem(vertices, 0).invoke();
+        return new Result(search.component, search.components.get());
+    }
+
+    /** The state shared by the subproblems of one forward-backward run. **/
+    private static final class ForwardBackward {
+        private final CsrGraph<?> graph;
+        private final CsrGraph<?> incoming;
+        private final int[] labels;              // The subproblem of every vertex, DONE once its component is known.
+        private final int[] component;
+        private final int[] index;               // Tarjan's index and low, for the small subproblems.
+        private final int[] low;
+        private final AtomicInteger components = new AtomicInteger();
+        private final AtomicInteger nextLabel = new AtomicInteger(1);
+
+        ForwardBackward(CsrGraph<?> graph) {
+            final int vertexCount = graph.vertexCount();
+            this.graph = graph;
+            this.incoming = graph.transpose();
+            this.labels = new int[vertexCount];
+            this.component = new int[vertexCount];
+            this.index = new int[vertexCount];
+            this.low = new int[vertexCount];
+            Arrays.fill(component, -1);
+            Arrays.fill(index, -1);
+        }
+
+        /**
+         * Gives a component of its own to every vertex on no cycle, found as in Kahn's algorithm: a vertex without
+         * incoming or outgoing edges is removed, which may in turn leave its neighbours without any. A single pass
+         * would leave most of a path, and forward-backward is slow on paths. The vertices removed in one round are
+         * expanded in parallel when there are many.
+         **/
+        void trim() {
+            final int vertexCount = graph.vertexCount();
+            final int[] inDegree = new int[vertexCount];
+            final int[] outDegree = new int[vertexCount];
+            Arrays.parallelSetAll(inDegree, incoming::degree);
+            Arrays.parallelSetAll(outDegree, graph::degree);
+
+            // The removed vertices double as the queue: removed[roundStart .. roundEnd) is the round being expanded.
+            int[] removed = new int[16];
+            int size = 0;
+            for (int v = 0; v < vertexCount; v++) {
+                if (inDegree[v] == 0 || outDegree[v] == 0) {
+                    labels[v] = DONE;
+                    if (size == removed.length)
+                        removed = Arrays.copyOf(removed, size * 2);
+                    removed[size++] = v;
+                }
+            }
+            int roundStart = 0;
+            while (roundStart < size) {
+                final int roundEnd = size;
+                if (roundEnd - roundStart <= PARALLEL_LEVEL) {
+                    for (int head = roundStart; head < roundEnd; head++) {
+                        final int u = removed[head];
+                        for (int pass = 0; pass < 2; pass++) {
+                            final CsrGraph<?> adjacency = pass == 0 ? graph : incoming;
+                            final int[] degree = pass == 0 ? inDegree : outDegree;
+                            for (int e = adjacency.firstEdge(u), end = adjacency.endEdge(u); e < end; e++) {
+                                final int w = adjacency.target(e);
+                                if (labels[w] != DONE && --degree[w] == 0) {
+                                    labels[w] = DONE;
+                                    if (size == removed.length)
+                                        removed = Arrays.copyOf(removed, size * 2);
+                                    removed[size++] = w;
+                                }
+                            }
+                        }
+                    }
+                } else {
+                    final int[] round = removed;
+                    final int start = roundStart;
+                    final IntDeque[] found = new IntDeque[(roundEnd - start + FRONTIER_GRAIN - 1) / FRONTIER_GRAIN];
+                    IntStream.range(0, found.length).parallel().forEach(chunk -> {
+                        final IntDeque local = new IntDeque();
+                        for (int i = start + chunk * FRONTIER_GRAIN, last = Math.min(roundEnd, i + FRONTIER_GRAIN); i < last; i++) {
+                            final int u = round[i];
+                            for (int pass = 0; pass < 2; pass++) {
+                                final CsrGraph<?> adjacency = pass == 0 ? graph : incoming;
+                                final int[] degree = pass == 0 ? inDegree : outDegree;
+                                for (int e = adjacency.firstEdge(u), end = adjacency.endEdge(u); e < end; e++) {
+                                    final int w = adjacency.target(e);
+                                    // Both degrees of a vertex may drop to 0: only the first to claim it queues it.
+                                    if (labels[w] != DONE && (int) INTS.getAndAdd(degree, w, -1) == 1
+                                            && INTS.compareAndSet(labels, w, 0, DONE))
+                                        local.addLast(w);
+                                }
+                            }
+                        }
+                        found[chunk] = local;
+                    });
+                    final int added = sizeOf(found);
+                    removed = append(removed, size, found);
+                    size += added;
+                }
+                roundStart = roundEnd;
+            }
+
+            final int first = components.getAndAdd(size);
+            for (int i = 0; i < size; i++)
+                component[removed[i]] = first + i;
+        }
+
+        /**
+         * The vertices labelled label, none of whose component is known. The pivots' components are split off one
+         * after the other, in a loop rather than by recursion: on sparse graphs a pivot often reaches only a few
+         * vertices, and the rest would otherwise recurse once per pivot.
+         **/
+        @SuppressWarnings("serial")
+        private final class Subproblem extends RecursiveAction {
+            private final int[] vertices;
+            private final int label;
+
+            Subproblem(int[] vertices, int label) {
+                this.vertices = vertices;
+                this.label = label;
+            }
+
+            @Override
+            protected void compute() {
+                final List<Subproblem> forked = new ArrayList<>();
+                // vertices[cursor ..] holds the remaining vertices still labelled label, and others.
+                int cursor = 0;
+                int remaining = vertices.length;
+                while (remaining > SEQUENTIAL_THRESHOLD) {
+                    int pivot = -1;
+                    for (int attempt = 0; attempt < 4 && pivot < 0; attempt++) {
+                        final int v = vertices[ThreadLocalRandom.current().nextInt(cursor, vertices.length)];
+                        if (labels[v] == label)
+                            pivot = v;
+                    }
+                    if (pivot < 0) {
+                        while (labels[vertices[cursor]] != label)
+                            cursor++;
+                        pivot = vertices[cursor];
+                    }
+
+                    final int forward = nextLabel.getAndIncrement();
+                    final int backward = nextLabel.getAndIncrement();
+                    final int scc = nextLabel.getAndIncrement();
+                    final boolean parallel = remaining > PARALLEL_REACH_THRESHOLD;
+                    // The vertices the pivot reaches...
+                    final int[] reached = reach(graph, pivot, label, forward, -1, -1, forward, parallel);
+                    // ...and those reaching it: the ones reached both ways form the pivot's component. A vertex
+                    // reached backward from one that was not reached forward cannot have been reached forward either.
+                    final int[] reaching = reach(incoming, pivot, forward, scc, label, backward, scc, parallel);
+                    remaining -= reached.length + reaching.length - countLabelled(reaching, scc);
+
+                    final int c = components.getAndIncrement();
+                    for (int v : reaching) {
+                        if (labels[v] == scc) {
+                            component[v] = c;
+                            labels[v] = DONE;
+                        }
+                    }
+                    fork(forked, reached, forward);
+                    fork(forked, reaching, backward);
+                }
+
+                if (remaining > 0) {
+                    final Tarjan tarjan = new Tarjan(graph, index, low, labels, label, component);
+                    for (int i = cursor; i < vertices.length; i++) {
+                        final int v = vertices[i];
+                        if (labels[v] == label && index[v] < 0)
+                            tarjan.run(v, components);
+                    }
+                }
+                for (int i = forked.size() - 1; i >= 0; i--)
+                    forked.get(i).join();
+            }
+
+            /** Starts the subproblem of the vertices labelled label among some. **/
+            private void fork(List<Subproblem> forked, int[] some, int label) {
+                final int count = countLabelled(some, label);
+                if (count == 0)
+                    return;
+                final int[] vertices = new int[count];
+                for (int i = 0, j = 0; j < count; i++) {
+                    if (labels[some[i]] == label)
+                        vertices[j++] = some[i];
+                }
+                final Subproblem subproblem = new Subproblem(vertices, label);
+                subproblem.fork();
+                forked.add(subproblem);
+            }
+
+            private int countLabelled(int[] some, int label) {
+                int count = 0;
+                for (int v : some) {
+                    if (labels[v] == label)
+                        count++;
+                }
+                return count;
+            }
+        }
+
+        /**
+         * Searches from the source over the edges of an adjacency, through the vertices labelled from or otherFrom,
+         * and relabels them to and otherTo. The source is relabelled sourceTo. Returns every vertex relabelled.
+         * If parallel, the levels of more than PARALLEL_LEVEL vertices are expanded in parallel: paths and other deep,
+         * thin graphs have too many small levels to pay for a parallel step each.
+         **/
+        private int[] reach(CsrGraph<?> adjacency, int source, int from, int to, int otherFrom, int otherTo, int sourceTo,
+                            boolean parallel) {
+            labels[source] = sourceTo;
+            // The result doubles as the queue: reached[levelStart .. levelEnd) is the level being expanded.
+            int[] reached = new int[16];
+            reached[0] = source;
+            int size = 1;
+            int levelStart = 0;
+            while (levelStart < size) {
+                final int levelEnd = size;
+                if (!parallel || levelEnd - levelStart <= PARALLEL_LEVEL) {
+                    for (int head = levelStart; head < levelEnd; head++) {
+                        final int u = reached[head];
+                        for (int e = adjacency.firstEdge(u), end = adjacency.endEdge(u); e < end; e++) {
+                            final int v = adjacency.target(e);
+                            final int l = labels[v];
+                            if (l == from)
+                                labels[v] = to;
+                            else if (l == otherFrom && l >= 0)
+                                labels[v] = otherTo;
+                            else
+                                continue;
+                            if (size == reached.length)
+                                reached = Arrays.copyOf(reached, size * 2);
+                            reached[size++] = v;
+                        }
+                    }
+                } else {
+                    final int[] level = reached;
+                    final int start = levelStart;
+                    final IntDeque[] found = new IntDeque[(levelEnd - start + FRONTIER_GRAIN - 1) / FRONTIER_GRAIN];
+                    IntStream.range(0, found.length).parallel().forEach(chunk -> {
+                        final IntDeque local = new IntDeque();
+                        for (int i = start + chunk * FRONTIER_GRAIN, last = Math.min(levelEnd, i + FRONTIER_GRAIN); i < last; i++) {
+                            final int u = level[i];
+                            for (int e = adjacency.firstEdge(u), end = adjacency.endEdge(u); e < end; e++) {
+                                final int v = adjacency.target(e);
+                                final int l = labels[v];
+                                if (l == from && INTS.compareAndSet(labels, v, from, to)
+                                        || l == otherFrom && l >= 0 && INTS.compareAndSet(labels, v, otherFrom, otherTo))
+                                    local.addLast(v);
+                            }
+                        }
+                        found[chunk] = local;
+                    });
+
+                    final int added = sizeOf(found);
+                    reached = append(reached, size, found);
+                    size += added;
+                }
+                levelStart = levelEnd;
+            }
+            return Arrays.copyOf(reached, size);
+        }
+    }
+
+    private static int sizeOf(IntDeque[] found) {
+        int size = 0;
+        for (IntDeque local : found)
+            size += local.size();
+        return size;
+    }
+
+    /** Moves the contents of the deques after array[0 .. size), into a larger copy of the array if needed. **/
+    private static int[] append(int[] array, int size, IntDeque[] found) {
+        final int total = size + sizeOf(found);
+        if (total > array.length)
+            array = Arrays.copyOf(array, Math.max(total, size * 2));
+        for (IntDeque local : found) {
+            while (!local.isEmpty())
+                array[size++] = local.pollFirst();
+        }
+        return array;
+    }
+
+    // Condensation
+
+    /**
+     * The condensation DAG of a graph whose components were computed by tarjan or forwardBackward.
+     * Time Complexity: O(|V| + |E| + E' log E'), where E' is the largest number of edges leaving one component.
+     **/
+    public static Condensation condensation(IntAdjacency graph, Result components) {
+        final int vertexCount = graph.vertexCount();
+        if (components.component.length != vertexCount)
+            throw new IllegalArgumentException("The graph has " + vertexCount + " vertices, the components were computed on "
+                    + components.component.length + ".");
+        final int[] component = components.component;
+        final int count = components.componentCount;
+
+        final int[] offsets = new int[count + 1];
+        for (int u = 0; u < vertexCount; u++) {
+            final int c = component[u];
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                if (component[graph.target(u, i)] != c)
+                    offsets[c + 1]++;
+            }
+        }
+        for (int c = 0; c < count; c++)
+            offsets[c + 1] += offsets[c];
+
+        // Each edge as target << 32 | cost, biased to sort as unsigned: sorting a component's edges puts the
+        // cheapest edge to each target first.
+        final long[] edges = new long[offsets[count]];
+        final int[] cursor = Arrays.copyOf(offsets, count);
+        for (int u = 0; u < vertexCount; u++) {
+            final int c = component[u];
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                final int d = component[graph.target(u, i)];
+                if (d != c)
+                    edges[cursor[c]++] = (long) d << 32 | ((graph.cost(u, i) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+            }
+        }
+
+        int edgeCount = 0;
+        for (int c = 0; c < count; c++) {
+            final int start = offsets[c];
+            final int end = offsets[c + 1];
+            offsets[c] = edgeCount;
+            Arrays.sort(edges, start, end);
+            for (int e = start; e < end; e++) {
+                if (e == start || edges[e] >>> 32 != edges[e - 1] >>> 32)
+                    edges[edgeCount++] = edges[e];
+            }
+        }
+        offsets[count] = edgeCount;
+
+        final int[] targets = new int[edgeCount];
+        final int[] costs = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            targets[e] = (int) (edges[e] >>> 32);
+            costs[e] = (int) edges[e] ^ Integer.MIN_VALUE;
+        }
+        return new Condensation(offsets, targets, costs, components.sizes());
+    }
+}
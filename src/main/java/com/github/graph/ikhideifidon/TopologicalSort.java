@@ -0,0 +1,129 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+
+/**
+ * Topological order of a directed IntAdjacency by Kahn's algorithm: vertices are taken in order of id among those
+ * whose predecessors were all taken, so the order is the same on every run. When the graph has a cycle, the vertices
+ * that could be ordered are returned with one cycle that keeps the others from being ordered.
+ * Everything is iterative and in int arrays, for dependency graphs of tens of millions of vertices.
+ **/
+public final class TopologicalSort {
+
+    private TopologicalSort() { }
+
+    public static final class Result {
+        private final int[] order;
+        private final int[] cycle;
+
+        private Result(int[] order, int[] cycle) {
+            this.order = order;
+            this.cycle = cycle;
+        }
+
+        /** Whether every vertex was ordered. **/
+        public boolean isAcyclic() { return cycle.length == 0; }
+
+        /**
+         * The vertex ids such that every edge leads from a vertex to one after it. When the graph has a cycle, the
+         * vertices on a cycle or reachable from one are missing, and the others are in that order.
+         **/
+        public int[] order() { return order; }
+
+        /** The vertex ids of a cycle, each with an edge to the next and the last with one to the first. Empty if none. **/
+        public int[] cycle() { return cycle; }
+
+        @Override
+        public String toString() {
+            return isAcyclic() ? "TopologicalSort[ordered=" + order.length + "]"
+                    : "TopologicalSort[ordered=" + order.length + ", cycle=" + Arrays.toString(cycle) + "]";
+        }
+    }
+
+    /**
+     * Kahn's algorithm.
+     * Time Complexity: O(|V| + |E|).
+     **/
+    public static Result sort(IntAdjacency graph) {
+        final int vertexCount = graph.vertexCount();
+        final int[] inDegree = new int[vertexCount];
+        for (int u = 0; u < vertexCount; u++) {
+            for (int i = 0, degree = graph.degree(u); i < degree; i++)
+                inDegree[graph.target(u, i)]++;
+        }
+
+        // The order doubles as the queue: order[head .. size) are ready but not expanded yet.
+        final int[] order = new int[vertexCount];
+        int size = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (inDegree[v] == 0)
+                order[size++] = v;
+        }
+        for (int head = 0; head < size; head++) {
+            final int u = order[head];
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                final int v = graph.target(u, i);
+                if (--inDegree[v] == 0)
+                    order[size++] = v;
+            }
+        }
+
+        if (size == vertexCount)
+            return new Result(order, new int[0]);
+        return new Result(Arrays.copyOf(order, size), findCycle(graph, inDegree));
+    }
+
+    /**
+     * A cycle among the vertices Kahn's algorithm could not take, those whose in-degree is left positive. Each of them
+     * has a predecessor among them, so they hold a cycle, which an iterative depth first search finds as an edge back
+     * to a vertex on its path.
+     **/
+    private static int[] findCycle(IntAdjacency graph, int[] inDegree) {
+        final int vertexCount = graph.vertexCount();
+        final byte[] state = new byte[vertexCount];           // 0 unvisited, 1 on the path, 2 done
+        final IntDeque path = new IntDeque();
+        final IntDeque next = new IntDeque();
+        for (int root = 0; root < vertexCount; root++) {
+            if (inDegree[root] == 0 || state[root] != 0)
+                continue;
+            state[root] = 1;
+            path.addLast(root);
+            next.addLast(0);
+            while (!path.isEmpty()) {
+                final int u = path.peekLast();
+                final int i = next.peekLast();
+                if (i == graph.degree(u)) {
+                    state[u] = 2;
+                    path.pollLast();
+                    next.pollLast();
+                    continue;
+                }
+                next.setLast(i + 1);
+                final int v = graph.target(u, i);
+                // The successors of an untaken vertex are untaken too, as it was not taken before them.
+                if (state[v] == 1)
+                    return cycleTo(path, v);
+                if (state[v] == 0) {
+                    state[v] = 1;
+                    path.addLast(v);
+                    next.addLast(0);
+                }
+            }
+        }
+        throw new IllegalStateException("No cycle among the vertices left unordered.");
+    }
+
+    /** The end of the path from v on, which closes a cycle with the edge from its last vertex back to v. **/
+    private static int[] cycleTo(IntDeque path, int v) {
+        final IntDeque cycle = new IntDeque();
+        int u;
+        do {
+            u = path.pollLast();
+            cycle.addLast(u);
+        } while (u != v);
+        final int[] result = new int[cycle.size()];
+        for (int i = result.length - 1; i >= 0; i--)
+            result[i] = cycle.pollFirst();
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+
+/**
+ * Reusable working memory for traversals over a CsrGraph.
+ * The visited set is an int array of generation stamps: a vertex is visited if its stamp equals the current
+ * generation, so starting a new traversal costs one increment instead of clearing |V| entries. The queue, the stack
+ * and the visiting order keep their capacity between traversals, so once a context has grown to the size of the
+ * graph, further traversals allocate nothing.
+ * A context is not thread safe. Use current() for a context confined to the calling thread.
+ **/
+public final class TraversalContext {
+
+    private static final ThreadLocal<TraversalContext> CURRENT = ThreadLocal.withInitial(TraversalContext::new);
+
+    private int[] stamps = new int[0];
+    private int generation = 0;
+
+    private int[] order = new int[0];   // Visited vertex ids, in visiting order.
+    private int visitedCount = 0;
+
+    final IntDeque queue = new IntDeque();
+    final IntDeque stack = new IntDeque();
+    int[] positions = new int[0];       // Per vertex position within its edges, for depth first searches.
+
+    public TraversalContext() { }
+
+    /** The context of the calling thread. **/
+    public static TraversalContext current() {
+        return CURRENT.get();
+    }
+
+    /** Starts a new traversal over a graph of the given number of vertices. **/
+    void reset(int vertexCount) {
+        if (stamps.length < vertexCount) {
+            stamps = new int[vertexCount];
+            order = new int[vertexCount];
+            positions = new int[vertexCount];
+            generation = 0;
+        }
+        if (++generation == 0) {
+            // The stamps wrapped around, old stamps could now look current.
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+        visitedCount = 0;
+        queue.clear();
+        stack.clear();
+    }
+
+    /** Marks a vertex as visited and appends it to the visiting order. Returns false if it already was visited. **/
+    boolean visit(int vertex) {
+        if (stamps[vertex] == generation)
+            return false;
+        stamps[vertex] = generation;
+        order[visitedCount++] = vertex;
+        return true;
+    }
+
+    /** Whether the last traversal visited the vertex. **/
+    public boolean isVisited(int vertex) {
+        return vertex < stamps.length && stamps[vertex] == generation;
+    }
+
+    /** Number of vertices visited by the last traversal. **/
+    public int visitedCount() {
+        return visitedCount;
+    }
+
+    /** The i-th vertex id visited by the last traversal. **/
+    public int visited(int i) {
+        if (i >= visitedCount)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for " + visitedCount + " visited vertices");
+        return order[i];
+    }
+
+    /** A copy of the visited vertex ids, in visiting order. **/
+    public int[] visitedIds() {
+        return Arrays.copyOf(order, visitedCount);
+    }
+}
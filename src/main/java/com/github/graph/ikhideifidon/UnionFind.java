@@ -0,0 +1,126 @@
+package com.github.graph.ikhideifidon;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Disjoint sets over the ints 0 .. elementCount() - 1, on primitive arrays: union by rank and path halving, so that
+ * any sequence of m operations takes O(m * alpha(n)) time. Elements can be added one at a time. Not thread safe,
+ * except for concurrentUnion.
+ **/
+final class UnionFind {
+
+    private static final VarHandle PARENT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private int[] parent;
+    private byte[] rank;                    // An upper bound on the height of a root's tree, at most log2(n).
+    private int[] size;                     // Number of elements in the set of a root.
+    private int elementCount;
+    private int setCount;
+
+    UnionFind(int elementCount) {
+        this.parent = new int[elementCount];
+        this.rank = new byte[elementCount];
+        this.size = new int[elementCount];
+        for (int i = 0; i < elementCount; i++)
+            parent[i] = i;
+        Arrays.fill(size, 1);
+        this.elementCount = elementCount;
+        this.setCount = elementCount;
+    }
+
+    int elementCount() { return elementCount; }
+
+    int setCount() { return setCount; }
+
+    /** Adds an element in a set of its own, and returns it. **/
+    int add() {
+        if (elementCount == parent.length) {
+            final int capacity = Math.max(8, elementCount + (elementCount >> 1));
+            parent = Arrays.copyOf(parent, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+            size = Arrays.copyOf(size, capacity);
+        }
+        final int x = elementCount++;
+        parent[x] = x;
+        size[x] = 1;
+        setCount++;
+        return x;
+    }
+
+    /** The representative of the set holding x. **/
+    int find(int x) {
+        while (parent[x] != x) {
+            // Path halving: every other node on the path is linked to its grandparent.
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /** Number of elements in the set holding x. **/
+    int sizeOf(int x) {
+        return size[find(x)];
+    }
+
+    /** Merges the sets holding a and b. Returns false if they already were one set. **/
+    boolean union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b)
+            return false;
+        if (rank[a] < rank[b]) {
+            final int swap = a;
+            a = b;
+            b = swap;
+        }
+        parent[b] = a;
+        size[a] += size[b];
+        if (rank[a] == rank[b])
+            rank[a]++;
+        setCount--;
+        return true;
+    }
+
+    /**
+     * union, safe to call from several threads at once, lock free. The root with the greater number is linked under
+     * the other one with a compare and set, so no cycle can form. Sizes, ranks and the set count are left stale until
+     * finishConcurrentUnions, and no other method may be called in between.
+     **/
+    void concurrentUnion(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b)
+                return;
+            if (a < b) {
+                final int swap = a;
+                a = b;
+                b = swap;
+            }
+            // Only a root's parent is ever set with a compare and set, and path halving only moves the parent of a
+            // non root up to one of its ancestors, so a stale read can only cost a retry.
+            if (PARENT.compareAndSet(parent, a, a, b))
+                return;
+        }
+    }
+
+    /** Links every element directly to its root, and brings sizes, ranks and the set count up to date. **/
+    void finishConcurrentUnions() {
+        IntStream.range(0, elementCount).parallel().forEach(x -> parent[x] = find(x));
+        Arrays.fill(size, 0, elementCount, 0);
+        Arrays.fill(rank, 0, elementCount, (byte) 0);
+        int sets = 0;
+        for (int x = 0; x < elementCount; x++) {
+            final int root = parent[x];
+            size[root]++;
+            if (root == x)
+                sets++;
+            else
+                rank[root] = 1;
+        }
+        setCount = sets;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.*;
+
+/**
+ * An append only list whose every element carries the version at which it was added.
+ * Appends must be serialized by the caller, reads need no lock: an appended slot is published by the volatile write
+ * of size, and a grown array is a full copy published through a volatile field, so a reader that has seen a size
+ * sees the elements below it in whichever array it reads. Elements are never moved or removed, which is what lets a
+ * GraphSnapshot see the list as it was at its version without any copy.
+ **/
+final class VersionedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+    private static final long[] EMPTY_VERSIONS = new long[0];
+
+    private volatile Object[] elements = EMPTY_ELEMENTS;
+    private volatile long[] versions = EMPTY_VERSIONS;
+    private volatile int size = 0;
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) elements[index];
+    }
+
+    /** The version at which the element at the index was added. **/
+    long version(int index) {
+        Objects.checkIndex(index, size);
+        return versions[index];
+    }
+
+    /**
+     * Number of elements added at or before the given version. As versions only grow, they are a prefix, found by a
+     * binary search. Time Complexity: O(log(n)).
+     **/
+    int sizeAt(long version) {
+        final int n = size;
+        final long[] versions = this.versions;
+        if (n == 0 || versions[n - 1] <= version)
+            return n;
+        int low = 0;
+        int high = n - 1;                   // versions[high] > version
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (versions[middle] <= version)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /** The first n elements, as an unmodifiable view that later appends do not change. **/
+    List<E> prefix(int n) {
+        Objects.checkIndex(n, size + 1);
+        return new Prefix<>(elements, n);
+    }
+
+    void add(E element, long version) {
+        final int n = size;
+        ensureCapacity(n + 1);
+        elements[n] = element;
+        versions[n] = version;
+        size = n + 1;
+    }
+
+    void addAll(E[] source, int from, int to, long version) {
+        final int n = size;
+        ensureCapacity(n + to - from);
+        System.arraycopy(source, from, elements, n, to - from);
+        Arrays.fill(versions, n, n + to - from, version);
+        size = n + to - from;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= elements.length)
+            return;
+        final int grown = Math.max(capacity, Math.max(4, elements.length + (elements.length >> 1)));
+        // The copies are complete before they are published.
+        versions = Arrays.copyOf(versions, grown);
+        elements = Arrays.copyOf(elements, grown);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        // Iterates over the elements present when the iteration starts.
+        final int n = size;
+        return new Itr<>(elements, n);
+    }
+
+    private static final class Prefix<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+
+        private Prefix(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        public int size() { return size; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            return (E) elements[index];
+        }
+
+        @Override
+        public Iterator<E> iterator() { return new Itr<>(elements, size); }
+    }
+
+    private static final class Itr<E> implements Iterator<E> {
+        private final Object[] elements;
+        private final int size;
+        private int cursor = 0;
+
+        private Itr(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() { return cursor < size; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= size)
+                throw new NoSuchElementException();
+            return (E) elements[cursor++];
+        }
+    }
+}
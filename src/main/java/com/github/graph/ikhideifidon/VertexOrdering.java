@@ -0,0 +1,291 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.Arrays;
+
+/**
+ * A renumbering of the vertices of an IntAdjacency that places vertices reached together next to each other, so that
+ * a traversal of the relabeled graph touches fewer cache lines. A CsrGraph numbers its vertices in the order they
+ * were added to the Graph, which often scatters neighbors across memory. CsrGraph.relabel applies an ordering and
+ * keeps valueOf and idOf on the original values.
+ *
+ * Searches follow outgoing edges. On a DIRECTED graph, vertices no search reached start new searches.
+ **/
+public final class VertexOrdering {
+
+    public enum Strategy {
+        /**
+         * Reverse Cuthill-McKee: a breadth first search from a pseudo peripheral vertex of each component, taking
+         * the neighbors of a vertex by increasing degree, reversed. Keeps the id gap across edges small on meshes,
+         * roads and other graphs of low and even degree. On a DIRECTED graph the search from a peripheral vertex may
+         * miss the vertex it was found from, which then starts a search of its own.
+         **/
+        REVERSE_CUTHILL_MCKEE,
+        /**
+         * By decreasing degree, ties by id. Packs the hubs of a skewed graph, which most edges lead to, into a few
+         * cache lines.
+         **/
+        DEGREE,
+        /** Breadth first search order, from vertices of decreasing degree. **/
+        BREADTH_FIRST,
+        /** One of the others, chosen by the degree distribution: see choose. **/
+        AUTOMATIC,
+    }
+
+    // A maximum degree this many times the average marks a skewed, power law like degree distribution.
+    private static final int SKEW = 32;
+    // Up to this average degree, a graph of even degrees is taken as mesh like.
+    private static final int MESH_DEGREE = 8;
+    // Searches run to find a pseudo peripheral vertex in each component, each from the far end of the previous one.
+    private static final int PERIPHERAL_SWEEPS = 2;
+
+    private final Strategy strategy;
+    private final int[] order;                  // new id -> old id
+    private final int[] rank;                   // old id -> new id
+
+    private VertexOrdering(Strategy strategy, int[] order) {
+        this.strategy = strategy;
+        this.order = order;
+        this.rank = new int[order.length];
+        for (int i = 0; i < order.length; i++)
+            rank[order[i]] = i;
+    }
+
+    /**
+     * Orders the vertices of a graph.
+     * Time Complexity: O(|V| + |E|) for DEGREE and BREADTH_FIRST, O(|V| + |E| log(maximum degree)) for
+     * REVERSE_CUTHILL_MCKEE.
+     **/
+    public static VertexOrdering of(IntAdjacency graph, Strategy strategy) {
+        if (strategy == Strategy.AUTOMATIC)
+            strategy = choose(graph);
+        switch (strategy) {
+            case REVERSE_CUTHILL_MCKEE:
+                return new VertexOrdering(strategy, reverseCuthillMcKee(graph));
+            case DEGREE:
+                return new VertexOrdering(strategy, byDecreasingDegree(graph));
+            case BREADTH_FIRST:
+                return new VertexOrdering(strategy, breadthFirst(graph));
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+    }
+
+    /** Orders the vertices of a graph with the strategy chosen for it. **/
+    public static VertexOrdering of(IntAdjacency graph) {
+        return of(graph, Strategy.AUTOMATIC);
+    }
+
+    /**
+     * The strategy AUTOMATIC resolves to: DEGREE when the maximum degree is over 32 times the average, as on social
+     * and web graphs, where breadth first orders spread the few hubs apart; REVERSE_CUTHILL_MCKEE when the average
+     * degree is 8 or less, as on meshes and road networks; BREADTH_FIRST otherwise.
+     **/
+    public static Strategy choose(IntAdjacency graph) {
+        final int vertexCount = graph.vertexCount();
+        if (vertexCount == 0)
+            return Strategy.BREADTH_FIRST;
+        int maximumDegree = 0;
+        for (int v = 0; v < vertexCount; v++)
+            maximumDegree = Math.max(maximumDegree, graph.degree(v));
+        final double averageDegree = (double) graph.edgeCount() / vertexCount;
+        if (maximumDegree > SKEW * Math.max(1.0, averageDegree))
+            return Strategy.DEGREE;
+        if (averageDegree <= MESH_DEGREE)
+            return Strategy.REVERSE_CUTHILL_MCKEE;
+        return Strategy.BREADTH_FIRST;
+    }
+
+    /**
+     * Average number of bits needed for the id gap |u - v| across the edges of a graph. The smaller, the closer the
+     * ends of an edge are in memory: a measure of locality, independent of the hardware.
+     * Time Complexity: O(|V| + |E|).
+     **/
+    public static double averageGapBits(IntAdjacency graph) {
+        long bits = 0;
+        long edges = 0;
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                bits += 32 - Integer.numberOfLeadingZeros(Math.abs(graph.target(u, i) - u));
+                edges++;
+            }
+        }
+        return edges == 0 ? 0.0 : (double) bits / edges;
+    }
+
+    // Getters
+    public Strategy strategy() { return strategy; }
+
+    public int vertexCount() { return order.length; }
+
+    /** The new id of a vertex of the original graph. **/
+    public int newId(int oldId) { return rank[oldId]; }
+
+    /** The original id of a vertex of the relabeled graph. **/
+    public int oldId(int newId) { return order[newId]; }
+
+    @Override
+    public String toString() {
+        return "VertexOrdering[strategy=" + strategy + ", vertices=" + order.length + "]";
+    }
+
+    // Orders. Each returns the old ids in their new order.
+
+    /** Old ids by decreasing degree, ties by id, with a counting sort on the degree. **/
+    private static int[] byDecreasingDegree(IntAdjacency graph) {
+        final int vertexCount = graph.vertexCount();
+        int maximumDegree = 0;
+        for (int v = 0; v < vertexCount; v++)
+            maximumDegree = Math.max(maximumDegree, graph.degree(v));
+        // start[maximumDegree - d] is the first slot of the vertices of degree d.
+        final int[] start = new int[maximumDegree + 2];
+        for (int v = 0; v < vertexCount; v++)
+            start[maximumDegree - graph.degree(v) + 1]++;
+        for (int d = 0; d <= maximumDegree; d++)
+            start[d + 1] += start[d];
+        final int[] order = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++)
+            order[start[maximumDegree - graph.degree(v)]++] = v;
+        return order;
+    }
+
+    /** Breadth first searches from every vertex not yet reached, by decreasing degree. **/
+    private static int[] breadthFirst(IntAdjacency graph) {
+        final int vertexCount = graph.vertexCount();
+        final int[] roots = byDecreasingDegree(graph);
+        final boolean[] visited = new boolean[vertexCount];
+        // The order doubles as the queue: order[head .. size) are reached but not expanded yet.
+        final int[] order = new int[vertexCount];
+        int size = 0;
+        for (int root : roots) {
+            if (visited[root])
+                continue;
+            visited[root] = true;
+            order[size++] = root;
+            for (int head = size - 1; head < size; head++) {
+                final int u = order[head];
+                for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                    final int v = graph.target(u, i);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        order[size++] = v;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Cuthill-McKee searches, started in order of increasing degree from a pseudo peripheral vertex of what the
+     * start reaches, then the whole order reversed. Every vertex is swept by the peripheral searches of one start
+     * only: the searches that follow visit everything the start reaches.
+     **/
+    private static int[] reverseCuthillMcKee(IntAdjacency graph) {
+        final int vertexCount = graph.vertexCount();
+        final int[] roots = byDecreasingDegree(graph);
+        final boolean[] visited = new boolean[vertexCount];
+        final int[] order = new int[vertexCount];
+        // Scratch for the peripheral searches: stamp[v] == sweep marks v as reached by the current one.
+        final int[] stamp = new int[vertexCount];
+        final int[] queue = new int[vertexCount];
+        int sweep = 0;
+        int size = 0;
+        for (int r = vertexCount - 1; r >= 0; r--) {
+            if (visited[roots[r]])
+                continue;
+            int root = roots[r];
+            for (int s = 0; s < PERIPHERAL_SWEEPS; s++)
+                root = farthest(graph, root, visited, stamp, ++sweep, queue);
+            size = cuthillMcKee(graph, root, visited, order, size);
+
+            // On a DIRECTED graph the search from the peripheral vertex may miss the start. Searching again from the
+            // start itself, rather than from a new peripheral vertex, keeps the sweeps linear overall.
+            if (!visited[roots[r]])
+                size = cuthillMcKee(graph, roots[r], visited, order, size);
+        }
+        for (int i = 0, j = vertexCount - 1; i < j; i++, j--) {
+            final int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * A breadth first search from a root over the vertices not yet visited, appending them to order[size ..] with
+     * the new neighbors of each vertex by increasing degree. Returns the new size.
+     **/
+    private static int cuthillMcKee(IntAdjacency graph, int root, boolean[] visited, int[] order, int size) {
+        visited[root] = true;
+        order[size++] = root;
+        for (int head = size - 1; head < size; head++) {
+            final int u = order[head];
+            final int first = size;
+            for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                final int v = graph.target(u, i);
+                if (!visited[v]) {
+                    visited[v] = true;
+                    order[size++] = v;
+                }
+            }
+            sortByDegree(graph, order, first, size);
+        }
+        return size;
+    }
+
+    /**
+     * A vertex of least degree on the last level of a breadth first search from a root, over the vertices not yet
+     * visited. Its search is deep, which keeps the levels of the Cuthill-McKee search narrow.
+     **/
+    private static int farthest(IntAdjacency graph, int root, boolean[] visited, int[] stamp, int sweep, int[] queue) {
+        stamp[root] = sweep;
+        queue[0] = root;
+        int size = 1;
+        int level = 0;
+        while (level < size) {
+            final int end = size;
+            for (int head = level; head < end; head++) {
+                final int u = queue[head];
+                for (int i = 0, degree = graph.degree(u); i < degree; i++) {
+                    final int v = graph.target(u, i);
+                    if (!visited[v] && stamp[v] != sweep) {
+                        stamp[v] = sweep;
+                        queue[size++] = v;
+                    }
+                }
+            }
+            if (size == end)
+                break;
+            level = end;
+        }
+        int best = queue[level];
+        for (int i = level + 1; i < size; i++) {
+            if (graph.degree(queue[i]) < graph.degree(best))
+                best = queue[i];
+        }
+        return best;
+    }
+
+    /** Sorts ids[from .. to) by increasing degree, ties by id: insertion sort for the usual short runs. **/
+    private static void sortByDegree(IntAdjacency graph, int[] ids, int from, int to) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                final int v = ids[i];
+                final int degree = graph.degree(v);
+                int j = i - 1;
+                while (j >= from && (graph.degree(ids[j]) > degree || graph.degree(ids[j]) == degree && ids[j] > v)) {
+                    ids[j + 1] = ids[j];
+                    j--;
+                }
+                ids[j + 1] = v;
+            }
+            return;
+        }
+        final long[] keys = new long[to - from];
+        for (int i = from; i < to; i++)
+            keys[i - from] = (long) graph.degree(ids[i]) << 32 | ids[i];
+        Arrays.sort(keys);
+        for (int i = from; i < to; i++)
+            ids[i] = (int) keys[i - from];
+    }
+}
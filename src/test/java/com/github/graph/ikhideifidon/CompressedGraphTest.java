@@ -0,0 +1,138 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Positional reads of a CompressedGraph against the adjacency it was built from, on lists of every length around the
+ * runs of 64 edges that the skip tables index, read forwards, backwards, at random and from several threads.
+ **/
+class CompressedGraphTest {
+
+    private static final int[] DEGREES = {0, 1, 2, 63, 64, 65, 127, 128, 129, 200, 1_000, 5_000};
+
+    @Test
+    void everyEdgeReadsBackAtItsPosition() {
+        for (boolean constantCost : new boolean[] {false, true}) {
+            final IntGraph graph = graph(600, constantCost, 25);
+            final CompressedGraph compressed = CompressedGraph.of(graph);
+            final String label = constantCost ? "constant cost" : "costs";
+            assertEquals(graph.vertexCount(), compressed.vertexCount(), label);
+            assertEquals(graph.edgeCount(), compressed.edgeCount(), label);
+
+            final int[] targets = new int[DEGREES[DEGREES.length - 1]];
+            final int[] costs = new int[targets.length];
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                final int degree = compressed.degree(v);
+                assertEquals(graph.degree(v), degree, label);
+                assertEquals(degree, compressed.targets(v, targets), label);
+                assertEquals(degree, compressed.costs(v, costs), label);
+                assertEquals(sortedEdges(graph, v), edges(targets, costs, degree), label + ": vertex " + v);
+
+                // Backwards, so that every run is entered at its last edge, found through the skip table.
+                for (int i = degree - 1; i >= 0; i--) {
+                    assertEquals(targets[i], compressed.target(v, i), label + ": vertex " + v + ", edge " + i);
+                    assertEquals(costs[i], compressed.cost(v, i), label + ": vertex " + v + ", edge " + i);
+                }
+                for (int i = 1; i < degree; i++)
+                    assertTrue(targets[i - 1] <= targets[i], label + ": vertex " + v + " unsorted");
+            }
+        }
+    }
+
+    @Test
+    void interleavedAndConcurrentReadsDecodeTheRightRun() throws InterruptedException, ExecutionException {
+        final IntGraph graph = graph(600, false, 25);
+        final CompressedGraph compressed = CompressedGraph.of(graph);
+        final int[][] targets = new int[graph.vertexCount()][];
+        final int[][] costs = new int[graph.vertexCount()][];
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            targets[v] = new int[graph.degree(v)];
+            costs[v] = new int[graph.degree(v)];
+            compressed.targets(v, targets[v]);
+            compressed.costs(v, costs[v]);
+        }
+
+        // Edges of random vertices at random positions, the way a depth first search resumes its lists, costs and
+        // targets read in either order.
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> readers = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final long seed = thread;
+                readers.add(pool.submit(() -> {
+                    final SplittableRandom random = new SplittableRandom(seed);
+                    for (int read = 0; read < 200_000; read++) {
+                        final int v = random.nextInt(graph.vertexCount());
+                        if (targets[v].length == 0)
+                            continue;
+                        final int i = random.nextInt(targets[v].length);
+                        if (random.nextBoolean()) {
+                            assertEquals(targets[v][i], compressed.target(v, i));
+                            assertEquals(costs[v][i], compressed.cost(v, i));
+                        } else {
+                            assertEquals(costs[v][i], compressed.cost(v, i));
+                            assertEquals(targets[v][i], compressed.target(v, i));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> reader : readers)
+                reader.get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void traversalsRunUnchanged() {
+        final IntGraph graph = graph(600, false, 25);
+        final CompressedGraph compressed = CompressedGraph.of(graph);
+        final int[] sources = {0, 7, 64, 599};
+        assertArrayEquals(MultiSourceBreadthFirstTraversal.distances(graph, sources),
+                MultiSourceBreadthFirstTraversal.distances(compressed, sources));
+    }
+
+    /**
+     * A DIRECTED IntGraph where vertex v has degree DEGREES[v % DEGREES.length], with repeated targets, targets on
+     * both sides of v and far from it, and costs of either sign.
+     **/
+    private static IntGraph graph(int vertexCount, boolean constantCost, long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final IntGraph graph = new IntGraph(Graph.TYPE.DIRECTED, vertexCount);
+        for (int v = 0; v < vertexCount; v++)
+            graph.addVertex(v);
+        for (int v = 0; v < vertexCount; v++) {
+            final int degree = DEGREES[v % DEGREES.length];
+            for (int i = 0; i < degree; i++) {
+                final int target = i % 5 == 0 ? random.nextInt(vertexCount)
+                        : Math.floorMod(v + random.nextInt(-20, 21), vertexCount);
+                graph.addEdge(v, target, constantCost ? 7 : random.nextInt(-1_000_000, 1_000_000));
+            }
+        }
+        return graph;
+    }
+
+    private static List<List<Integer>> sortedEdges(IntAdjacency graph, int v) {
+        final List<List<Integer>> edges = new ArrayList<>();
+        for (int i = 0; i < graph.degree(v); i++)
+            edges.add(List.of(graph.target(v, i), graph.cost(v, i)));
+        edges.sort(Comparator.comparing((List<Integer> edge) -> edge.get(0)).thenComparing(edge -> edge.get(1)));
+        return edges;
+    }
+
+    private static List<List<Integer>> edges(int[] targets, int[] costs, int degree) {
+        final List<List<Integer>> edges = new ArrayList<>();
+        for (int i = 0; i < degree; i++)
+            edges.add(List.of(targets[i], costs[i]));
+        edges.sort(Comparator.comparing((List<Integer> edge) -> edge.get(0)).thenComparing(edge -> edge.get(1)));
+        return edges;
+    }
+}
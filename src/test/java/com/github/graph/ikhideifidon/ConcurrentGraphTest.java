@@ -0,0 +1,114 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Multi threaded stress test of ConcurrentGraph. Writers add disjoint, known edges while readers traverse and check
+ * what they see: every neighbor is a vertex, a degree never decreases and a search never returns a vertex twice.
+ * Once the writers are done every edge must be there.
+ **/
+class ConcurrentGraphTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int EDGES_PER_WRITER = 50_000;
+    private static final int VERTEX_COUNT = 10_000;
+
+    @Test
+    void concurrentWritesAndReadsOnDirectedGraph() throws InterruptedException {
+        stress(Graph.TYPE.DIRECTED);
+    }
+
+    @Test
+    void concurrentWritesAndReadsOnUndirectedGraph() throws InterruptedException {
+        stress(Graph.TYPE.UNDIRECTED);
+    }
+
+    private static void stress(Graph.TYPE type) throws InterruptedException {
+        final ConcurrentGraph<Integer> graph = new ConcurrentGraph<>(type);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[WRITERS + READERS];
+
+        for (int w = 0; w < WRITERS; w++) {
+            final int writer = w;
+            threads[w] = new Thread(() -> {
+                await(start);
+                // Edge i of writer w has cost w * EDGES_PER_WRITER + i, so every edge is identifiable.
+                for (int i = 0; i < EDGES_PER_WRITER; i++) {
+                    final int from = (i * 31 + writer) % VERTEX_COUNT;
+                    final int to = (i * 17 + 7 * writer + 1) % VERTEX_COUNT;
+                    graph.addEdge(from, to, writer * EDGES_PER_WRITER + i);
+                }
+            });
+        }
+        for (int r = 0; r < READERS; r++) {
+            threads[WRITERS + r] = new Thread(() -> {
+                await(start);
+                final int[] lastDegree = new int[VERTEX_COUNT];
+                int value = 0;
+                while (writing.get() && failure.get() == null) {
+                    value = (value + 7919) % VERTEX_COUNT;
+                    final int degree = graph.degree(value);
+                    if (degree < lastDegree[value])
+                        failure.compareAndSet(null, "Degree of " + value + " went from " + lastDegree[value] + " to " + degree);
+                    lastDegree[value] = degree;
+
+                    final List<Integer> neighbors = graph.neighbors(value);
+                    if (neighbors != null) {
+                        for (Integer neighbor : neighbors) {
+                            if (neighbor == null || !graph.containsVertex(neighbor))
+                                failure.compareAndSet(null, "Neighbor " + neighbor + " of " + value + " is not a vertex");
+                        }
+                    }
+                    if (value % 97 == 0) {
+                        final List<Integer> reached = graph.breadthFirstSearch(value);
+                        if (new HashSet<>(reached).size() != reached.size())
+                            failure.compareAndSet(null, "Breadth first search from " + value + " repeated a vertex");
+                    }
+                }
+            });
+        }
+
+        for (Thread thread : threads)
+            thread.start();
+        start.countDown();
+        for (int w = 0; w < WRITERS; w++)
+            threads[w].join();
+        writing.set(false);
+        for (int r = 0; r < READERS; r++)
+            threads[WRITERS + r].join();
+
+        assertNull(failure.get());
+        final long expected = (long) WRITERS * EDGES_PER_WRITER;
+        assertEquals(expected, graph.edgeCount());
+        long stored = 0;
+        final Set<Integer> costs = new HashSet<>();
+        for (ConcurrentGraph.Vertex<Integer> vertex : graph.getAllVertices()) {
+            stored += vertex.degree();
+            vertex.forEachEdge((to, cost) -> costs.add(cost));
+        }
+        final long expectedStored = type == Graph.TYPE.UNDIRECTED ? 2 * expected : expected;
+        assertEquals(expectedStored, stored);
+        assertEquals(expected, costs.size(), "distinct edges");
+        assertEquals(expectedStored, graph.toGraph().getAllEdges().size(), "edges of the Graph copy");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
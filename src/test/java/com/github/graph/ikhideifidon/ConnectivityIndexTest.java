@@ -0,0 +1,124 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The live index of a Graph against a union-find rebuilt from its vertices, while edges are added before, after and
+ * between the joins of their ends, through the Graph and through Vertex.addEdge.
+ **/
+class ConnectivityIndexTest {
+
+    @Test
+    void edgesCountOnceBothEndsJoined() {
+        final SplittableRandom random = new SplittableRandom(23);
+        for (int round = 0; round < 20; round++) {
+            final Graph.TYPE type = round % 2 == 0 ? Graph.TYPE.DIRECTED : Graph.TYPE.UNDIRECTED;
+            final Graph<Integer> graph = new Graph<>(type);
+            final ConnectivityIndex<Integer> index = graph.trackConnectivity();
+            final List<Graph.Vertex<Integer>> vertices = new ArrayList<>();
+            final List<Graph.Vertex<Integer>> outside = new ArrayList<>();
+            for (int v = 0; v < 60; v++) {
+                final Graph.Vertex<Integer> vertex = new Graph.Vertex<>(v);
+                vertices.add(vertex);
+                outside.add(vertex);
+            }
+
+            for (int step = 0; step < 150; step++) {
+                final Graph.Vertex<Integer> u = vertices.get(random.nextInt(vertices.size()));
+                final Graph.Vertex<Integer> v = vertices.get(random.nextInt(vertices.size()));
+                switch (random.nextInt(4)) {
+                    case 0 -> {
+                        if (!outside.isEmpty())
+                            graph.addVertex(outside.remove(random.nextInt(outside.size())));
+                    }
+                    // Left unconnected unless both ends are already in.
+                    case 1 -> graph.addEdge(new Graph.Edge<>(1, u, v));
+                    // Kept whoever holds the ends, and counted once both joined.
+                    default -> u.addEdge(new Graph.Edge<>(1, u, v));
+                }
+                check(graph, index, "round " + round + ", step " + step);
+            }
+        }
+    }
+
+    @Test
+    void aLargeBuildKeepsTheEdgesLeadingOut() {
+        // Past the size at which the index is first built in parallel, with every other edge leading out of the Graph.
+        final int n = 10_000;
+        final SplittableRandom random = new SplittableRandom(23);
+        final List<Graph.Vertex<Integer>> vertices = new ArrayList<>();
+        for (int v = 0; v < 2 * n; v++)
+            vertices.add(new Graph.Vertex<>(v));
+        for (int e = 0; e < 2 * n; e++) {
+            final Graph.Vertex<Integer> from = vertices.get(random.nextInt(n));
+            from.addEdge(new Graph.Edge<>(1, from, vertices.get(random.nextInt(2 * n))));
+        }
+        final Graph<Integer> graph = new Graph<>(Graph.TYPE.DIRECTED);
+        for (int v = 0; v < n; v++)
+            graph.addVertex(vertices.get(v));
+        final ConnectivityIndex<Integer> index = graph.trackConnectivity();
+        check(graph, index, "built");
+
+        for (int v = n; v < 2 * n; v++) {
+            graph.addVertex(vertices.get(v));
+            if (v % 1_000 == 0)
+                check(graph, index, "joined " + v);
+        }
+        check(graph, index, "joined");
+    }
+
+    @Test
+    void builderIndexesMatchTheGraph() {
+        final Graph<Integer> graph = RandomGraphs.graph(Graph.TYPE.UNDIRECTED, 500, 300, 1, 23);
+        final Graph<Integer> built = new GraphBuilder<Integer>(Graph.TYPE.UNDIRECTED)
+                .addVertices(graph.getAllVertices()).connectivity(true).build();
+        check(built, built.connectivity(), "built");
+    }
+
+    private static void check(Graph<Integer> graph, ConnectivityIndex<Integer> index, String label) {
+        final List<Graph.Vertex<Integer>> vertices = graph.getAllVertices();
+        final Map<Graph.Vertex<Integer>, Integer> ids = new IdentityHashMap<>();
+        for (Graph.Vertex<Integer> vertex : vertices)
+            ids.putIfAbsent(vertex, ids.size());
+        final int[] parent = new int[ids.size()];
+        for (int i = 0; i < parent.length; i++)
+            parent[i] = i;
+        int components = parent.length;
+        for (Graph.Vertex<Integer> vertex : ids.keySet()) {
+            for (Graph.Edge<Integer> edge : vertex.getEdges()) {
+                final Integer to = ids.get(edge.getTo());
+                if (to == null)
+                    continue;
+                final int a = find(parent, ids.get(vertex));
+                final int b = find(parent, to);
+                if (a != b) {
+                    parent[a] = b;
+                    components--;
+                }
+            }
+        }
+
+        assertEquals(ids.size(), index.vertexCount(), label);
+        assertEquals(components, index.componentCount(), label);
+        assertEquals(components, ConnectivityIndex.build(vertices).componentCount(), label);
+        final List<Graph.Vertex<Integer>> distinct = new ArrayList<>(ids.keySet());
+        final int step = Math.max(1, distinct.size() / 60);
+        for (int i = 0; i < distinct.size(); i += step) {
+            for (int j = 0; j < distinct.size(); j += step) {
+                final boolean expected = find(parent, ids.get(distinct.get(i))) == find(parent, ids.get(distinct.get(j)));
+                assertEquals(expected, index.connected(distinct.get(i), distinct.get(j)), label);
+            }
+        }
+        assertFalse(index.connected(new Graph.Vertex<>(0), distinct.isEmpty() ? new Graph.Vertex<>(0) : distinct.get(0)), label);
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v)
+            v = parent[v] = parent[parent[v]];
+        return v;
+    }
+}
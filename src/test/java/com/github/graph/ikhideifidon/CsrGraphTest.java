@@ -0,0 +1,70 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrGraphTest {
+
+    /** a -> b -> c, with an edge from a to a vertex that never joined the Graph, added first. **/
+    private static Graph<Integer> withDanglingEdge(Graph.TYPE type) {
+        final Graph<Integer> graph = new Graph<>(type);
+        final Graph.Vertex<Integer> a = new Graph.Vertex<>(1);
+        final Graph.Vertex<Integer> b = new Graph.Vertex<>(2);
+        final Graph.Vertex<Integer> c = new Graph.Vertex<>(3);
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addVertex(c);
+        // The outsider holds the value of a member: it is still outside of the Graph.
+        a.addEdge(new Graph.Edge<>(0, a, new Graph.Vertex<>(3)));
+        graph.addEdge(new Graph.Edge<>(1, a, b));
+        graph.addEdge(new Graph.Edge<>(2, b, c));
+        return graph;
+    }
+
+    @Test
+    void danglingEdgesAreLeftOutOfEveryCopy() throws IOException {
+        final Graph<Integer> graph = withDanglingEdge(Graph.TYPE.DIRECTED);
+
+        final CsrGraph<Integer> csr = graph.freeze();
+        assertEquals(3, csr.vertexCount());
+        assertEquals(2, csr.edgeCount());
+        assertEquals(1, csr.degree(0));
+        assertEquals(1, csr.target(0, 0));
+        assertEquals(1, csr.cost(0, 0));
+
+        final IntGraph ints = IntGraph.of(graph);
+        assertEquals(2, ints.edgeCount());
+        assertEquals(1, ints.degree(0));
+
+        final Path file = Files.createTempFile("dangling", ".ugdf");
+        try {
+            GraphFile.write(graph, file, GraphFile.Codec.INTEGER);
+            final MappedGraph<Integer> mapped = MappedGraph.open(file, GraphFile.Codec.INTEGER);
+            assertEquals(2, mapped.edgeCount());
+            assertEquals(1, mapped.target(0, 0));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void spanningForestEdgesSkipTheDanglingEdges() {
+        final Graph<Integer> graph = withDanglingEdge(Graph.TYPE.UNDIRECTED);
+        final MinimumSpanningForest.Result forest = MinimumSpanningForest.boruvka(graph.freeze());
+        assertEquals(3, forest.totalCost());
+
+        final List<Graph.Vertex<Integer>> vertices = graph.getAllVertices();
+        final List<Graph.Edge<Integer>> edges = forest.edges(graph);
+        assertEquals(2, edges.size());
+        for (Graph.Edge<Integer> edge : edges) {
+            assertTrue(vertices.stream().anyMatch(v -> v == edge.getTo()), "edge " + edge.toString().trim());
+            assertTrue(edge.getCost() > 0);
+        }
+    }
+}
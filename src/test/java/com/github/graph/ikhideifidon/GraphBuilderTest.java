@@ -0,0 +1,132 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GraphBuilder against the Graph constructor: for every dedup mode, with and without parallel edges, the built Graph
+ * must hold the vertices and adjacency lists, in the same order, that the constructor gives the same input once it is
+ * deduplicated by hand.
+ **/
+class GraphBuilderTest {
+
+    private static final int VERTEX_COUNT = 300;
+    private static final int EDGE_COUNT = 3_000;
+
+    @Test
+    void distinctValuesMatchTheConstructorInEveryMode() {
+        for (GraphBuilder.Dedup dedup : GraphBuilder.Dedup.values())
+            for (Graph.TYPE type : Graph.TYPE.values())
+                for (boolean dropParallelEdges : new boolean[] {false, true})
+                    check(type, dedup, dropParallelEdges, VERTEX_COUNT, 1);
+    }
+
+    @Test
+    void repeatedValuesAreMergedOntoTheirFirstVertex() {
+        for (GraphBuilder.Dedup dedup : new GraphBuilder.Dedup[] {GraphBuilder.Dedup.HASH, GraphBuilder.Dedup.SORT})
+            for (Graph.TYPE type : Graph.TYPE.values())
+                for (boolean dropParallelEdges : new boolean[] {false, true})
+                    check(type, dedup, dropParallelEdges, VERTEX_COUNT / 3, 2);
+    }
+
+    @Test
+    void verticesHeldByAnotherGraphKeepItCurrent() {
+        final List<Graph.Vertex<Integer>> vertices = new ArrayList<>();
+        final List<Graph.Edge<Integer>> edges = new ArrayList<>();
+        input(Graph.TYPE.UNDIRECTED, VERTEX_COUNT, 3, vertices, edges);
+        final Graph<Integer> other = new Graph<>(Graph.TYPE.DIRECTED);
+        for (Graph.Vertex<Integer> vertex : vertices)
+            other.addVertex(vertex);
+        other.trackConnectivity();
+        final long version = other.version();
+
+        new GraphBuilder<Integer>(Graph.TYPE.UNDIRECTED).addVertices(vertices).addEdges(edges).parallelism(4).build();
+        assertEquals(other.recomputeStatistics(), other.statistics());
+        assertEquals(version + VERTEX_COUNT, other.version(), "one version per vertex connected");
+        assertEquals(ConnectivityIndex.build(other.getAllVertices()).componentCount(), other.connectivity().componentCount());
+    }
+
+    private static void check(Graph.TYPE type, GraphBuilder.Dedup dedup, boolean dropParallelEdges, int distinctValues, long seed) {
+        for (int parallelism : new int[] {1, 4}) {
+            final String label = type + " " + dedup + " dropParallelEdges=" + dropParallelEdges + " parallelism=" + parallelism;
+
+            final List<Graph.Vertex<Integer>> vertices = new ArrayList<>();
+            final List<Graph.Edge<Integer>> edges = new ArrayList<>();
+            input(type, distinctValues, seed, vertices, edges);
+            final Graph<Integer> built = new GraphBuilder<Integer>(type).addVertices(vertices).addEdges(edges)
+                    .dedup(dedup).dropParallelEdges(dropParallelEdges).parallelism(parallelism).build();
+
+            // The same input, on vertices of its own, merged and filtered by hand.
+            final List<Graph.Vertex<Integer>> referenceVertices = new ArrayList<>();
+            final List<Graph.Edge<Integer>> referenceEdges = new ArrayList<>();
+            input(type, distinctValues, seed, referenceVertices, referenceEdges);
+            final Map<Integer, Graph.Vertex<Integer>> first = new LinkedHashMap<>();
+            for (Graph.Vertex<Integer> vertex : referenceVertices)
+                first.putIfAbsent(vertex.getValue(), vertex);
+            final List<Graph.Edge<Integer>> merged = new ArrayList<>();
+            final Set<List<Integer>> pairs = new HashSet<>();
+            for (Graph.Edge<Integer> edge : referenceEdges) {
+                final int from = edge.getFrom().getValue();
+                final int to = edge.getTo().getValue();
+                final List<Integer> pair = type == Graph.TYPE.UNDIRECTED
+                        ? List.of(Math.min(from, to), Math.max(from, to)) : List.of(from, to);
+                if (!dropParallelEdges || pairs.add(pair))
+                    merged.add(new Graph.Edge<>(edge.getCost(), first.get(from), first.get(to)));
+            }
+            final List<Graph.Vertex<Integer>> distinct = new ArrayList<>(first.values());
+            if (dedup == GraphBuilder.Dedup.SORT)
+                distinct.sort(Comparator.comparing(Graph.Vertex::getValue));
+            final Graph<Integer> expected = new Graph<>(type, distinct, merged);
+
+            assertEquals(values(expected.getAllVertices()), values(built.getAllVertices()), label);
+            for (int v = 0; v < distinct.size(); v++)
+                assertEquals(adjacency(expected.getAllVertices().get(v)), adjacency(built.getAllVertices().get(v)), label);
+            assertEquals(expected.getAllEdges().size(), built.getAllEdges().size(), label);
+            assertEquals(expected.recomputeStatistics(), built.statistics(), label);
+        }
+    }
+
+    /**
+     * A seeded input of VERTEX_COUNT vertices over the given number of distinct values. Edges join vertices at random,
+     * with self loops, and every fourth repeats the ends of an earlier edge at another cost.
+     **/
+    private static void input(Graph.TYPE type, int distinctValues, long seed, List<Graph.Vertex<Integer>> vertices,
+                              List<Graph.Edge<Integer>> edges) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        // Value j * 7919 % VERTEX_COUNT for j below distinctValues: distinct, in no particular order.
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            final int j = i < distinctValues ? i : random.nextInt(distinctValues);
+            vertices.add(new Graph.Vertex<>(j * 7919 % VERTEX_COUNT));
+        }
+        for (int e = 0; e < EDGE_COUNT; e++) {
+            if (e > 0 && e % 4 == 0) {
+                final Graph.Edge<Integer> earlier = edges.get(random.nextInt(e));
+                // The other way round counts as the same pair in an UNDIRECTED Graph only.
+                final boolean reverse = type == Graph.TYPE.UNDIRECTED && random.nextBoolean();
+                edges.add(new Graph.Edge<>(random.nextInt(100), reverse ? earlier.getTo() : earlier.getFrom(),
+                        reverse ? earlier.getFrom() : earlier.getTo()));
+            } else {
+                edges.add(new Graph.Edge<>(random.nextInt(100), vertices.get(random.nextInt(VERTEX_COUNT)),
+                        vertices.get(random.nextInt(VERTEX_COUNT))));
+            }
+        }
+    }
+
+    private static List<Integer> values(List<Graph.Vertex<Integer>> vertices) {
+        final List<Integer> values = new ArrayList<>();
+        for (Graph.Vertex<Integer> vertex : vertices)
+            values.add(vertex.getValue());
+        return values;
+    }
+
+    /** The target value and cost of every edge of a vertex, in order. **/
+    private static List<List<Integer>> adjacency(Graph.Vertex<Integer> vertex) {
+        final List<List<Integer>> adjacency = new ArrayList<>();
+        for (Graph.Edge<Integer> edge : vertex.getEdges())
+            adjacency.add(List.of(edge.getTo().getValue(), edge.getCost()));
+        return adjacency;
+    }
+}
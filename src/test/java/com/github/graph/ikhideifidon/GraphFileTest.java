@@ -0,0 +1,121 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips through the binary graph file: a graph is written, mapped back and compared. The deserialized Graph must
+ * equal the original and traversals served from the mapping must match those of the CsrGraph.
+ **/
+class GraphFileTest {
+
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = Files.createTempFile("round-trip", ".ugdf");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void directedGraphRoundTrip() throws IOException {
+        roundTrip(Graph.TYPE.DIRECTED);
+    }
+
+    @Test
+    void undirectedGraphRoundTrip() throws IOException {
+        roundTrip(Graph.TYPE.UNDIRECTED);
+    }
+
+    @Test
+    void stringValuesRoundTrip() throws IOException {
+        // Values of varying length, ASCII or not.
+        final Graph<String> words = new Graph<>(Graph.TYPE.DIRECTED);
+        final List<String> values = List.of("", "a", "graph", "donn\u00e9es", "\u9802\u70b9");
+        for (String value : values)
+            words.addVertex(new Graph.Vertex<>(value, value.length()));
+        for (int i = 0; i < values.size(); i++)
+            words.addEdge(new Graph.Edge<>(i, words.getAllVertices().get(i), words.getAllVertices().get((i + 1) % values.size())));
+
+        GraphFile.write(words, file, GraphFile.Codec.STRING);
+        assertEquals(words, MappedGraph.open(file, GraphFile.Codec.STRING).toGraph());
+    }
+
+    @Test
+    void emptyGraphRoundTrip() throws IOException {
+        GraphFile.write(new Graph<Long>(), file, GraphFile.Codec.LONG);
+        final MappedGraph<Long> mapped = MappedGraph.open(file, GraphFile.Codec.LONG);
+        assertEquals(0, mapped.vertexCount());
+        assertEquals(new Graph<Long>(), mapped.toGraph());
+    }
+
+    @Test
+    void onlyConnectedEdgesRoundTrip() throws IOException {
+        final Graph<Integer> graph = new Graph<>(Graph.TYPE.DIRECTED);
+        final Graph.Vertex<Integer> a = new Graph.Vertex<>(1);
+        final Graph.Vertex<Integer> b = new Graph.Vertex<>(2);
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addEdge(new Graph.Edge<>(1, a, b));
+        // Recorded in getAllEdges() but never connected, as its destination is not in the Graph.
+        graph.addEdge(new Graph.Edge<>(2, a, new Graph.Vertex<>(3)));
+        // Connected, but towards a vertex outside of the Graph.
+        b.addEdge(new Graph.Edge<>(3, b, new Graph.Vertex<>(4)));
+
+        GraphFile.write(graph, file, GraphFile.Codec.INTEGER);
+        final Graph<Integer> read = MappedGraph.open(file, GraphFile.Codec.INTEGER).toGraph();
+        assertNotEquals(graph, read);
+
+        final Graph.Vertex<Integer> expectedA = new Graph.Vertex<>(1);
+        final Graph.Vertex<Integer> expectedB = new Graph.Vertex<>(2);
+        final Graph<Integer> expected = new Graph<>(Graph.TYPE.DIRECTED, List.of(expectedA, expectedB),
+                List.of(new Graph.Edge<>(1, expectedA, expectedB)));
+        assertEquals(expected, read);
+    }
+
+    private void roundTrip(Graph.TYPE type) throws IOException {
+        final Graph<Integer> graph = randomGraph(type, 5_000, 6, 23);
+        GraphFile.write(graph, file, GraphFile.Codec.INTEGER);
+        final MappedGraph<Integer> mapped = MappedGraph.open(file, GraphFile.Codec.INTEGER);
+        final CsrGraph<Integer> csr = graph.freeze();
+
+        assertEquals(graph, mapped.toGraph());
+        assertEquals(csr.vertexCount(), mapped.vertexCount());
+        assertEquals(csr.edgeCount(), mapped.edgeCount());
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            assertEquals(csr.valueOf(v), mapped.valueOf(v));
+            assertEquals(csr.idOf(csr.valueOf(v)), mapped.idOf(csr.valueOf(v)));
+            assertEquals(csr.weight(v), mapped.weight(v));
+        }
+        assertArrayEquals(BreadthFirstTraversal.breadthFirstSearchIds(csr, 0), BreadthFirstTraversal.breadthFirstSearchIds(mapped, 0));
+        assertArrayEquals(DepthFirstTraversal.depthFirstSearchIds(csr, 0), DepthFirstTraversal.depthFirstSearchIds(mapped, 0));
+    }
+
+    /** A random graph with self loops, parallel edges, negative costs and weights. **/
+    private static Graph<Integer> randomGraph(Graph.TYPE type, int vertexCount, int averageDegree, long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final List<Graph.Vertex<Integer>> vertices = new ArrayList<>(vertexCount);
+        for (int v = 0; v < vertexCount; v++)
+            vertices.add(new Graph.Vertex<>(v, random.nextInt(-100, 100)));
+        final List<Graph.Edge<Integer>> edges = new ArrayList<>();
+        for (long e = 0, edgeCount = (long) vertexCount * averageDegree / 2; e < edgeCount; e++) {
+            edges.add(new Graph.Edge<>(random.nextInt(-1_000, 1_000), vertices.get(random.nextInt(vertexCount)),
+                    vertices.get(random.nextInt(vertexCount))));
+        }
+        return new Graph<>(type, vertices, edges);
+    }
+}
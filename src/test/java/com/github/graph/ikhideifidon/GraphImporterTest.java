@@ -0,0 +1,262 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GraphImporter on small files of every format. Each file is read once in a single range, the reference, and again
+ * split into ranges of a few bytes by several threads, so that most lines straddle a range boundary: the Graph read
+ * must be the same every time, with its adjacency lists in the same order.
+ **/
+class GraphImporterTest {
+
+    private static final String SNAP = """
+            # Directed graph: comment lines and an empty line
+            % another comment
+            1 2
+            2\t3 5
+
+            30 1 7
+            3 3
+              # an indented comment
+            100000 2 4""";
+
+    private static final String DIMACS = """
+            c shortest path problem
+            p sp 4 5
+            a 1 2 3
+            c a comment between the arcs
+            a 2 3 4
+            a 3 4 1
+            a 4 1 2
+            a 1 3 9
+            """;
+
+    // fmt 111: a size, ncon vertex weights, then a weight after every neighbor. Vertex 4 has no neighbors.
+    private static final String METIS = """
+            % comment before the header
+            4 3 111 2
+            1 5 50 2 7
+            2 6 60 1 7 3 8
+            % comment between vertex lines
+            1 9 90 2 8
+            1 4 40
+            """;
+
+    @Test
+    void snapFilesListTheirIdsInAscendingOrder() throws IOException {
+        final List<String> expected = List.of(
+                "1 0: 2/1",
+                "2 0: 3/5",
+                "3 0: 3/1",
+                "30 0: 1/7",
+                "100000 0: 2/4");
+        check(GraphImporter.Format.SNAP, SNAP, expected);
+    }
+
+    @Test
+    void dimacsFilesNumberTheirVerticesFromOne() throws IOException {
+        final List<String> expected = List.of(
+                "1 0: 2/3 3/9",
+                "2 0: 3/4",
+                "3 0: 4/1",
+                "4 0: 1/2");
+        check(GraphImporter.Format.DIMACS, DIMACS, expected);
+    }
+
+    @Test
+    void metisFilesHonorTheirFormatFlags() throws IOException {
+        // Every edge is listed at both its ends, so a DIRECTED Graph holds it both ways. The Vertex weight is the first.
+        final List<String> expected = List.of(
+                "1 5: 2/7",
+                "2 6: 1/7 3/8",
+                "3 9: 2/8",
+                "4 4:");
+        check(GraphImporter.Format.METIS, METIS, expected);
+
+        // No flags: neighbors only, cost 1, weight 0. The empty line is vertex 2, which has no neighbors.
+        check(GraphImporter.Format.METIS, "3 1\n3\n\n1\n", List.of("1 0: 3/1", "2 0:", "3 0: 1/1"));
+
+        // fmt 100: a size before the neighbors, nothing else.
+        check(GraphImporter.Format.METIS, "2 1 100\n7 2\n7 1\n", List.of("1 0: 2/1", "2 0: 1/1"));
+
+        // fmt 001: edge weights only.
+        check(GraphImporter.Format.METIS, "2 1 1\n2 6\n1 6\n", List.of("1 0: 2/6", "2 0: 1/6"));
+    }
+
+    @Test
+    void crlfLineEndingsReadLikeLf() throws IOException {
+        for (GraphImporter.Format format : GraphImporter.Format.values()) {
+            final String text = switch (format) {
+                case SNAP -> SNAP;
+                case DIMACS -> DIMACS;
+                case METIS -> METIS;
+            };
+            for (Graph.TYPE type : Graph.TYPE.values()) {
+                final List<String> lf = describe(read(format, type, text, Long.MAX_VALUE, 1));
+                assertEquals(lf, describe(read(format, type, text.replace("\n", "\r\n"), Long.MAX_VALUE, 1)), format + " " + type);
+                assertEquals(lf, describe(read(format, type, text.replace("\n", "\r\n"), 1, 3)), format + " " + type);
+            }
+        }
+    }
+
+    @Test
+    void generatedFilesReadTheSameInAnyNumberOfRanges() throws IOException {
+        final SplittableRandom random = new SplittableRandom(14);
+        final int vertexCount = 2_000;
+
+        final StringBuilder snap = new StringBuilder("# generated\n");
+        final StringBuilder dimacs = new StringBuilder("c generated\np sp " + vertexCount + " 20000\n");
+        for (int e = 0; e < 20_000; e++) {
+            final int u = 1 + random.nextInt(vertexCount);
+            final int v = 1 + random.nextInt(vertexCount);
+            final int cost = random.nextInt(1_000);
+            snap.append(u * 37).append(e % 3 == 0 ? "\t" : " ").append(v * 37).append(' ').append(cost).append('\n');
+            dimacs.append("a ").append(u).append(' ').append(v).append(' ').append(cost).append(e % 5 == 0 ? "\r\n" : "\n");
+        }
+
+        // A symmetric METIS file, where vertex 1 is joined to every other vertex: its line is longer than the buffer
+        // of a small range and has to grow it.
+        final List<List<int[]>> neighbors = new ArrayList<>();
+        for (int v = 0; v <= vertexCount; v++)
+            neighbors.add(new ArrayList<>());
+        int edgeCount = 0;
+        for (int v = 2; v <= vertexCount; v++) {
+            final int cost = random.nextInt(100);
+            neighbors.get(1).add(new int[] {v, cost});
+            neighbors.get(v).add(new int[] {1, cost});
+            edgeCount++;
+            final int u = 2 + random.nextInt(vertexCount - 1);
+            if (u != v) {
+                neighbors.get(u).add(new int[] {v, cost + 1});
+                neighbors.get(v).add(new int[] {u, cost + 1});
+                edgeCount++;
+            }
+        }
+        final StringBuilder metis = new StringBuilder("% generated\n" + vertexCount + " " + edgeCount + " 011\n");
+        for (int v = 1; v <= vertexCount; v++) {
+            if (v % 100 == 0)
+                metis.append("% vertex ").append(v).append('\n');
+            metis.append(v % 7);
+            for (int[] neighbor : neighbors.get(v))
+                metis.append(' ').append(neighbor[0]).append(' ').append(neighbor[1]);
+            metis.append('\n');
+        }
+
+        check(GraphImporter.Format.SNAP, snap.toString(), null);
+        check(GraphImporter.Format.DIMACS, dimacs.toString(), null);
+        check(GraphImporter.Format.METIS, metis.toString(), null);
+    }
+
+    @Test
+    void verticesOutsideTheDeclaredRangeAreRejected() {
+        final String[][] malformed = {
+                {"DIMACS", "p sp 3 1\na 1 4 2\n"},
+                {"DIMACS", "p sp 3 1\na 0 2 2\n"},
+                {"DIMACS", "a 1 2 2\n"},
+                {"DIMACS", "p sp 3 1\np sp 3 1\n"},
+                {"METIS", "2 1\n3\n1\n"},
+                {"METIS", "2 1\n2\n1\n1\n"},
+                {"METIS", "% nothing but a comment\n"},
+                {"SNAP", "1 x\n"},
+                {"SNAP", "1 2 3 4\n"},
+        };
+        for (String[] file : malformed) {
+            final GraphImporter.Format format = GraphImporter.Format.valueOf(file[0]);
+            for (long rangeBytes : new long[] {Long.MAX_VALUE, 1}) {
+                assertThrows(IOException.class, () -> read(format, Graph.TYPE.DIRECTED, file[1], rangeBytes, 3),
+                        format + " " + file[1].replace("\n", "|"));
+            }
+        }
+    }
+
+    /**
+     * Reads the text in both types, as a Graph and as an IntGraph, first in one range and then in ranges of a few
+     * bytes, and checks that every read matches the first. A DIRECTED read must also give the expected adjacency,
+     * unless it is null.
+     **/
+    private static void check(GraphImporter.Format format, String text, List<String> expected) throws IOException {
+        for (Graph.TYPE type : Graph.TYPE.values()) {
+            final Path file = write(text);
+            try {
+                final List<String> reference = describe(importer(format, type, Long.MAX_VALUE, 1).read(file));
+                final List<String> referenceInts = describe(importer(format, type, Long.MAX_VALUE, 1).readIntGraph(file));
+                if (expected != null && type == Graph.TYPE.DIRECTED)
+                    assertEquals(expected, reference, format + " " + type);
+                assertEquals(sorted(reference), sorted(referenceInts), format + " " + type + " IntGraph");
+
+                for (long rangeBytes : new long[] {1, 3, 16, 1_000})
+                    for (int parallelism : new int[] {1, 2, 8}) {
+                        final String label = format + " " + type + " ranges of " + rangeBytes + " bytes, parallelism " + parallelism;
+                        final GraphImporter importer = importer(format, type, rangeBytes, parallelism);
+                        assertEquals(reference, describe(importer.read(file)), label);
+                        assertEquals(referenceInts, describe(importer.readIntGraph(file)), label + " IntGraph");
+                    }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static GraphImporter importer(GraphImporter.Format format, Graph.TYPE type, long rangeBytes, int parallelism) {
+        return new GraphImporter(format, type).minimumRangeBytes(rangeBytes).parallelism(parallelism);
+    }
+
+    private static Graph<Integer> read(GraphImporter.Format format, Graph.TYPE type, String text, long rangeBytes,
+                                       int parallelism) throws IOException {
+        final Path file = write(text);
+        try {
+            return importer(format, type, rangeBytes, parallelism).read(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Path write(String text) throws IOException {
+        final Path file = Files.createTempFile("import", ".txt");
+        Files.writeString(file, text, StandardCharsets.US_ASCII);
+        return file;
+    }
+
+    /** One line per vertex, in order: "value weight: to/cost to/cost ...". **/
+    private static List<String> describe(Graph<Integer> graph) {
+        final List<String> lines = new ArrayList<>();
+        for (Graph.Vertex<Integer> vertex : graph.getAllVertices()) {
+            final StringBuilder line = new StringBuilder(vertex.getValue() + " " + vertex.getWeight() + ":");
+            for (Graph.Edge<Integer> edge : vertex.getEdges())
+                line.append(' ').append(edge.getTo().getValue()).append('/').append(edge.getCost());
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static List<String> describe(IntGraph graph) {
+        final List<String> lines = new ArrayList<>();
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            final StringBuilder line = new StringBuilder(graph.key(v) + " " + graph.getWeight(graph.key(v)) + ":");
+            for (int i = 0; i < graph.degree(v); i++)
+                line.append(' ').append(graph.key(graph.target(v, i))).append('/').append(graph.cost(v, i));
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /** The same lines with their edges sorted, for adjacency lists that may list the same edges in another order. **/
+    private static List<String> sorted(List<String> lines) {
+        final List<String> sorted = new ArrayList<>();
+        for (String line : lines) {
+            final int colon = line.indexOf(':');
+            final String[] edges = line.substring(colon + 1).trim().split(" ");
+            Arrays.sort(edges);
+            sorted.add(line.substring(0, colon + 1) + " " + String.join(" ", edges));
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Point in time reads of a Graph while a writer keeps adding to it. **/
+class GraphSnapshotTest {
+
+    private static final int VERTEX_COUNT = 20_000;
+
+    @Test
+    void freezeIsConsistentWhileAWriterRuns() throws InterruptedException {
+        final Graph<Integer> graph = new Graph<>(Graph.TYPE.UNDIRECTED, true);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            try {
+                grow(graph, 0, VERTEX_COUNT, 5);
+            } finally {
+                writing.set(false);
+            }
+        });
+        writer.start();
+
+        int frozen = 0;
+        int lastVertexCount = 0;
+        while (writing.get() || frozen == 0) {
+            final CsrGraph<Integer> csr = graph.freeze();
+            assertTrue(csr.vertexCount() >= lastVertexCount);
+            lastVertexCount = csr.vertexCount();
+            assertSymmetric(csr);
+            frozen++;
+        }
+        writer.join();
+        assertEquals(VERTEX_COUNT, graph.freeze().vertexCount());
+    }
+
+    @Test
+    void traversalsOfASnapshotIgnoreLaterCommits() throws InterruptedException {
+        final Graph<Integer> graph = new Graph<>(Graph.TYPE.UNDIRECTED, true);
+        grow(graph, 0, 2_000, 3);
+        final Graph.Vertex<Integer> source = graph.getAllVertices().get(0);
+        final GraphSnapshot<Integer> snapshot = graph.snapshot();
+        final Object[] breadthFirst = BreadthFirstTraversal.breadthFirstSearch(graph, source);
+        final Object[] depthFirst = DepthFirstTraversal.depthFirstSearch(graph, source);
+        final DepthFirstPaths<Integer> paths = new DepthFirstPaths<>(graph, source);
+
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        // New vertices are joined to old ones, which gives the old vertices new edges as well.
+        final Thread writer = new Thread(() -> {
+            try {
+                grow(graph, 2_000, VERTEX_COUNT, 3);
+            } finally {
+                writing.set(false);
+            }
+        });
+        writer.start();
+        int reads = 0;
+        while (writing.get() || reads == 0) {
+            assertEquals(2_000, snapshot.vertexCount());
+            assertArrayEquals(breadthFirst, BreadthFirstTraversal.breadthFirstSearch(snapshot, source));
+            assertArrayEquals(depthFirst, DepthFirstTraversal.depthFirstSearch(snapshot, source));
+            final DepthFirstPaths<Integer> snapshotPaths = new DepthFirstPaths<>(snapshot, source);
+            for (int target = 0; target < 2_000; target += 97)
+                assertEquals(values(paths.pathTo(target)), values(snapshotPaths.pathTo(target)));
+            reads++;
+        }
+        writer.join();
+        assertEquals(VERTEX_COUNT, reached(BreadthFirstTraversal.breadthFirstSearch(graph.snapshot(), source)));
+    }
+
+    @Test
+    void snapshotsNeverSeeHalfAnUndirectedEdge() throws InterruptedException {
+        final Graph<Integer> graph = new Graph<>(Graph.TYPE.UNDIRECTED, true);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            try {
+                grow(graph, 0, VERTEX_COUNT, 5);
+            } finally {
+                writing.set(false);
+            }
+        });
+        writer.start();
+        long lastVersion = -1;
+        while (writing.get()) {
+            final GraphSnapshot<Integer> snapshot = graph.snapshot();
+            assertTrue(snapshot.getVersion() >= lastVersion);
+            lastVersion = snapshot.getVersion();
+
+            // Every edge leads to a vertex of the snapshot and is matched by its reciprocal, read from the snapshot.
+            final Set<Graph.Vertex<Integer>> members = Collections.newSetFromMap(new IdentityHashMap<>());
+            members.addAll(snapshot.getAllVertices());
+            for (Graph.Vertex<Integer> vertex : snapshot.getAllVertices()) {
+                for (Graph.Edge<Integer> edge : snapshot.edges(vertex)) {
+                    assertTrue(members.contains(edge.getTo()), "edge towards a later vertex");
+                    assertNotNull(reciprocal(snapshot, edge), "half an edge: " + edge.toString().trim());
+                }
+                assertEquals(snapshot.edges(vertex).size(), snapshot.degree(vertex));
+            }
+        }
+        writer.join();
+    }
+
+    @Test
+    void droppedSnapshotsLeaveNothingBehind() throws InterruptedException {
+        // A snapshot is a version number over the append only lists of its Graph: it copies nothing and there are no
+        // old versions kept for it. It holds the Graph while it is read, and once its readers drop it all is reclaimed.
+        Graph<Integer> graph = new Graph<>(Graph.TYPE.UNDIRECTED, true);
+        grow(graph, 0, 1_000, 3);
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+        grow(graph, 1_000, 2_000, 3);
+        final WeakReference<Graph<Integer>> reference = new WeakReference<>(graph);
+        final Graph.Vertex<Integer> source = graph.getAllVertices().get(0);
+        graph = null;
+
+        collect(reference);
+        assertNotNull(reference.get(), "a snapshot still read keeps its Graph");
+        assertEquals(1_000, reached(BreadthFirstTraversal.breadthFirstSearch(snapshot, source)));
+
+        snapshot = null;
+        collect(reference);
+        assertNull(reference.get(), "the Graph outlived its last snapshot");
+        assertNull(snapshot);
+    }
+
+    private static void collect(WeakReference<?> reference) throws InterruptedException {
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+
+    private static Graph.Edge<Integer> reciprocal(GraphSnapshot<Integer> snapshot, Graph.Edge<Integer> edge) {
+        for (Graph.Edge<Integer> back : snapshot.edges(edge.getTo())) {
+            if (back.getTo() == edge.getFrom() && back.getCost() == edge.getCost())
+                return back;
+        }
+        return null;
+    }
+
+    /** Number of vertices a search reached: its result has one slot per vertex, null past the last one reached. **/
+    private static int reached(Object[] order) {
+        int reached = 0;
+        while (reached < order.length && order[reached] != null)
+            reached++;
+        return reached;
+    }
+
+    private static List<Integer> values(Iterable<Integer> path) {
+        final List<Integer> values = new ArrayList<>();
+        if (path != null)
+            path.forEach(values::add);
+        return values;
+    }
+
+    /**
+     * Adds the vertices first .. end - 1, each joined to edgesPerVertex random earlier ones, as many single commits.
+     * Vertex v holds the value v, its edges cost v.
+     **/
+    static void grow(Graph<Integer> graph, int first, int end, int edgesPerVertex) {
+        final SplittableRandom random = new SplittableRandom(first);
+        final List<Graph.Vertex<Integer>> vertices = new ArrayList<>(graph.getAllVertices());
+        for (int v = first; v < end; v++) {
+            final Graph.Vertex<Integer> vertex = new Graph.Vertex<>(v);
+            graph.addVertex(vertex);
+            vertices.add(vertex);
+            for (int i = 0; i < edgesPerVertex && vertices.size() > 1; i++)
+                graph.addEdge(new Graph.Edge<>(v, vertex, vertices.get(random.nextInt(vertices.size() - 1))));
+        }
+    }
+
+    /** Every edge of an UNDIRECTED CSR is matched by its reciprocal, of the same cost. **/
+    static void assertSymmetric(CsrGraph<Integer> csr) {
+        final Map<List<Integer>, Integer> balance = new HashMap<>();
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            for (int e = csr.firstEdge(v); e < csr.endEdge(v); e++) {
+                final int w = csr.target(e);
+                assertTrue(w >= 0 && w < csr.vertexCount());
+                balance.merge(List.of(Math.min(v, w), Math.max(v, w), csr.cost(e)), v < w ? 1 : -1, Integer::sum);
+            }
+        }
+        for (Map.Entry<List<Integer>, Integer> entry : balance.entrySet())
+            assertTrue(entry.getKey().get(0).equals(entry.getKey().get(1)) || entry.getValue() == 0, "half an edge: " + entry.getKey());
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphTest {
+
+    @Test
+    void addEdgeConnectsTheSameVerticesWithOrWithoutIndex() {
+        for (boolean indexed : new boolean[] {false, true}) {
+            final Graph<Integer> graph = new Graph<>(Graph.TYPE.DIRECTED, indexed);
+            final Graph.Vertex<Integer> one = new Graph.Vertex<>(1);
+            final Graph.Vertex<Integer> two = new Graph.Vertex<>(2);
+            graph.addVertex(one);
+            graph.addVertex(two);
+
+            // Not a member, but equal to one: connected in both modes.
+            final Graph.Vertex<Integer> equalToOne = new Graph.Vertex<>(1);
+            graph.addEdge(new Graph.Edge<>(5, equalToOne, two));
+            assertEquals(1, equalToOne.getEdges().size(), "indexed = " + indexed);
+
+            // Same value, other weight: not equal to a member, so left unconnected in both modes.
+            final Graph.Vertex<Integer> heavierOne = new Graph.Vertex<>(1, 3);
+            graph.addEdge(new Graph.Edge<>(6, heavierOne, two));
+            assertEquals(0, heavierOne.getEdges().size(), "indexed = " + indexed);
+            assertEquals(2, graph.getAllEdges().size(), "indexed = " + indexed);
+        }
+    }
+
+    @Test
+    void vertexAndEdgeListsAreReadOnlyViews() {
+        final Graph<Integer> graph = new Graph<>(Graph.TYPE.UNDIRECTED);
+        final Graph.Vertex<Integer> one = new Graph.Vertex<>(1);
+        final Graph.Vertex<Integer> two = new Graph.Vertex<>(2);
+        graph.addVertex(one);
+        final List<Graph.Vertex<Integer>> vertices = graph.getAllVertices();
+        final List<Graph.Edge<Integer>> edges = one.getEdges();
+        assertThrows(UnsupportedOperationException.class, () -> vertices.add(two));
+        assertThrows(UnsupportedOperationException.class, () -> edges.add(new Graph.Edge<>(0, one, two)));
+
+        // The views follow the additions.
+        graph.addVertex(two);
+        graph.addEdge(new Graph.Edge<>(3, one, two));
+        assertEquals(2, vertices.size());
+        assertEquals(1, edges.size());
+        assertThrows(UnsupportedOperationException.class, () -> edges.remove(0));
+    }
+
+    @Test
+    void selfLoopsCountOnceInEitherType() {
+        for (Graph.TYPE type : Graph.TYPE.values()) {
+            final Graph<Integer> graph = new Graph<>(type);
+            final Graph.Vertex<Integer> one = new Graph.Vertex<>(1);
+            final Graph.Vertex<Integer> two = new Graph.Vertex<>(2);
+            graph.addVertex(one);
+            graph.addVertex(two);
+            graph.addEdge(new Graph.Edge<>(1, one, one));
+            graph.addEdge(new Graph.Edge<>(2, one, two));
+            graph.addEdge(new Graph.Edge<>(3, two, two));
+            // A DIRECTED Graph used to report half of its loops, here 1.
+            assertEquals(2, graph.numberOfSelfLoop(), type.toString());
+            assertEquals(graph.recomputeStatistics().selfLoopCount(), graph.numberOfSelfLoop(), type.toString());
+        }
+    }
+
+    @Test
+    void addingAMemberAgainChangesNothing() {
+        final Graph<Integer> graph = new Graph<>(Graph.TYPE.UNDIRECTED, true);
+        final Graph.Vertex<Integer> one = new Graph.Vertex<>(1);
+        final Graph.Vertex<Integer> two = new Graph.Vertex<>(2);
+        assertTrue(graph.addVertex(one));
+        assertTrue(graph.addVertex(two));
+        graph.addEdge(new Graph.Edge<>(4, one, two));
+        final long version = graph.version();
+        final GraphStatistics statistics = graph.recomputeStatistics();
+
+        assertFalse(graph.addVertex(one));
+        assertEquals(2, graph.getAllVertices().size());
+        assertEquals(version, graph.version());
+        assertEquals(statistics, graph.statistics());
+        assertEquals(1, graph.freeze().degree(0));
+
+        // An equal vertex is another vertex: it is added, and the index keeps the first.
+        assertTrue(graph.addVertex(new Graph.Vertex<>(1)));
+        assertEquals(3, graph.getAllVertices().size());
+        assertSame(one, graph.getVertex(1));
+    }
+}
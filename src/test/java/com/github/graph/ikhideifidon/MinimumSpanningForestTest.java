@@ -0,0 +1,116 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Boruvka and filter-Kruskal against a plain Kruskal over the sorted edges. **/
+class MinimumSpanningForestTest {
+
+    @Test
+    void bothAlgorithmsFindAForestOfTheKruskalCost() {
+        final SplittableRandom random = new SplittableRandom(21);
+        for (int round = 0; round < 40; round++) {
+            final Graph.TYPE type = round % 2 == 0 ? Graph.TYPE.DIRECTED : Graph.TYPE.UNDIRECTED;
+            final int vertexCount = 1 + random.nextInt(300);
+            // Few distinct costs, so that most edges tie with others.
+            final int maxCost = round % 3 == 0 ? 3 : 1_000;
+            check(RandomGraphs.csr(type, vertexCount, random.nextInt(5 * vertexCount), maxCost, round), "round " + round);
+        }
+    }
+
+    @Test
+    void largeGraphsSplitTheWorkAlike() {
+        // More edges than one task or one sorted range of filter-Kruskal takes.
+        for (Graph.TYPE type : Graph.TYPE.values())
+            check(RandomGraphs.csr(type, 5_000, 60_000, 50, 21), type + " large");
+    }
+
+    private static void check(CsrGraph<Integer> graph, String label) {
+        final int n = graph.vertexCount();
+        final long[] expected = kruskal(graph);
+        final MinimumSpanningForest.Result filterKruskal = MinimumSpanningForest.filterKruskal(graph);
+        for (MinimumSpanningForest.Result result : new MinimumSpanningForest.Result[] {
+                MinimumSpanningForest.boruvka(graph), MinimumSpanningForest.boruvka(graph, 3), filterKruskal}) {
+            assertEquals(expected[0], result.totalCost(), label);
+            assertEquals(expected[1], result.componentCount(), label);
+
+            // A forest of edges of the graph, of the cost it claims.
+            final int[] parent = identity(n);
+            long cost = 0;
+            for (int i = 0; i < result.edgeCount(); i++) {
+                final int v = result.from(i);
+                final int w = result.to(i);
+                assertTrue(hasEdge(graph, v, w, result.cost(i)), label + ": no edge " + v + " - " + w);
+                assertNotEquals(find(parent, v), find(parent, w), label + ": cycle through " + v + " - " + w);
+                parent[find(parent, v)] = find(parent, w);
+                cost += result.cost(i);
+            }
+            assertEquals(result.totalCost(), cost, label);
+
+            // Ties are broken by edge position, so the forest is unique.
+            assertEquals(edges(filterKruskal), edges(result), label);
+        }
+    }
+
+    /** The cost of a minimum spanning forest and its number of trees. **/
+    private static long[] kruskal(CsrGraph<Integer> graph) {
+        final List<int[]> edges = new ArrayList<>();
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                final int w = graph.target(e);
+                // Each UNDIRECTED edge is stored at both ends, an arc once.
+                if (v != w && (graph.getType() == Graph.TYPE.DIRECTED || v < w))
+                    edges.add(new int[] {v, w, graph.cost(e)});
+            }
+        }
+        edges.sort(Comparator.comparingInt(edge -> edge[2]));
+        final int[] parent = identity(graph.vertexCount());
+        long cost = 0;
+        int trees = graph.vertexCount();
+        for (int[] edge : edges) {
+            final int a = find(parent, edge[0]);
+            final int b = find(parent, edge[1]);
+            if (a != b) {
+                parent[a] = b;
+                cost += edge[2];
+                trees--;
+            }
+        }
+        return new long[] {cost, trees};
+    }
+
+    private static boolean hasEdge(CsrGraph<Integer> graph, int v, int w, int cost) {
+        for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+            if (graph.target(e) == w && graph.cost(e) == cost)
+                return true;
+        }
+        for (int e = graph.firstEdge(w); e < graph.endEdge(w); e++) {
+            if (graph.target(e) == v && graph.cost(e) == cost)
+                return true;
+        }
+        return false;
+    }
+
+    private static List<List<Integer>> edges(MinimumSpanningForest.Result result) {
+        final List<List<Integer>> edges = new ArrayList<>();
+        for (int i = 0; i < result.edgeCount(); i++)
+            edges.add(List.of(result.from(i), result.to(i), result.cost(i)));
+        return edges;
+    }
+
+    private static int[] identity(int n) {
+        final int[] parent = new int[n];
+        for (int v = 0; v < n; v++)
+            parent[v] = v;
+        return parent;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v)
+            v = parent[v] = parent[parent[v]];
+        return v;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Batched multi-source searches against one plain breadth first search per source. **/
+class MultiSourceBreadthFirstTraversalTest {
+
+    @Test
+    void everySourceGetsItsOwnBreadthFirstSearch() {
+        final SplittableRandom random = new SplittableRandom(17);
+        for (int round = 0; round < 30; round++) {
+            final Graph.TYPE type = round % 2 == 0 ? Graph.TYPE.DIRECTED : Graph.TYPE.UNDIRECTED;
+            final int vertexCount = 1 + random.nextInt(200);
+            final CsrGraph<Integer> graph = RandomGraphs.csr(type, vertexCount, random.nextInt(3 * vertexCount), 10, round);
+            // Up to two batches of reachable() and a dozen of distances(), with repeated sources.
+            final int[] sources = new int[random.nextInt(2 * MultiSourceBreadthFirstTraversal.BATCH_SIZE)];
+            for (int s = 0; s < sources.length; s++)
+                sources[s] = random.nextInt(vertexCount);
+            check(graph, sources, "round " + round);
+        }
+    }
+
+    @Test
+    void longPathsTakeOneLevelPerEdge() {
+        // A directed path 0 -> 1 -> ... -> n - 1 with a shortcut from 0 to the middle.
+        final int n = 1_000;
+        final IntGraph graph = new IntGraph(Graph.TYPE.DIRECTED, n);
+        for (int v = 0; v < n; v++)
+            graph.addVertex(v);
+        for (int v = 1; v < n; v++)
+            graph.addEdge(v - 1, v, 1);
+        graph.addEdge(0, n / 2, 1);
+
+        final int[] sources = {0, n - 1, n / 2, 0, 1};
+        check(graph, sources, "path");
+        final int[][] distances = MultiSourceBreadthFirstTraversal.distances(graph, sources);
+        assertEquals(1, distances[0][n / 2]);
+        assertEquals(n / 2, distances[0][n - 1]);
+        assertEquals(-1, distances[1][0]);
+        assertEquals(n - 2, distances[4][n - 1]);
+    }
+
+    @Test
+    void sourcesOutsideTheGraphAreRejected() {
+        final CsrGraph<Integer> graph = RandomGraphs.csr(Graph.TYPE.DIRECTED, 5, 5, 1, 0);
+        assertThrows(IllegalArgumentException.class, () -> MultiSourceBreadthFirstTraversal.distances(graph, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> MultiSourceBreadthFirstTraversal.reachable(graph, -1));
+        assertEquals(0, MultiSourceBreadthFirstTraversal.distances(graph).length);
+        assertEquals(0, MultiSourceBreadthFirstTraversal.reachable(graph).length);
+    }
+
+    private static void check(IntAdjacency graph, int[] sources, String label) {
+        final int[][] distances = MultiSourceBreadthFirstTraversal.distances(graph, sources);
+        final BitSet[] reachable = MultiSourceBreadthFirstTraversal.reachable(graph, sources);
+        assertEquals(sources.length, distances.length, label);
+        assertEquals(sources.length, reachable.length, label);
+        for (int s = 0; s < sources.length; s++) {
+            final int[] expected = breadthFirst(graph, sources[s]);
+            assertArrayEquals(expected, distances[s], label + ", source " + s);
+            final BitSet reached = new BitSet();
+            for (int v = 0; v < expected.length; v++) {
+                if (expected[v] >= 0)
+                    reached.set(v);
+            }
+            assertEquals(reached, reachable[s], label + ", source " + s);
+        }
+    }
+
+    private static int[] breadthFirst(IntAdjacency graph, int source) {
+        final int[] distance = new int[graph.vertexCount()];
+        Arrays.fill(distance, -1);
+        distance[source] = 0;
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            final int v = queue.poll();
+            for (int i = 0; i < graph.degree(v); i++) {
+                final int w = graph.target(v, i);
+                if (distance[w] < 0) {
+                    distance[w] = distance[v] + 1;
+                    queue.add(w);
+                }
+            }
+        }
+        return distance;
+    }
+}
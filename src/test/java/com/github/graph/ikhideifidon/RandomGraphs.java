@@ -0,0 +1,29 @@
+package com.github.graph.ikhideifidon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/** Seeded random graphs for the tests, with self loops and parallel edges. **/
+final class RandomGraphs {
+
+    private RandomGraphs() { }
+
+    /** Vertices 0 .. vertexCount - 1, joined by edgeCount edges between random ends, of costs in [0, maxCost). **/
+    static Graph<Integer> graph(Graph.TYPE type, int vertexCount, int edgeCount, int maxCost, long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final List<Graph.Vertex<Integer>> vertices = new ArrayList<>(vertexCount);
+        for (int v = 0; v < vertexCount; v++)
+            vertices.add(new Graph.Vertex<>(v));
+        final List<Graph.Edge<Integer>> edges = new ArrayList<>(edgeCount);
+        for (int e = 0; e < edgeCount && vertexCount > 0; e++) {
+            edges.add(new Graph.Edge<>(random.nextInt(maxCost), vertices.get(random.nextInt(vertexCount)),
+                    vertices.get(random.nextInt(vertexCount))));
+        }
+        return new Graph<>(type, vertices, edges);
+    }
+
+    static CsrGraph<Integer> csr(Graph.TYPE type, int vertexCount, int edgeCount, int maxCost, long seed) {
+        return graph(type, vertexCount, edgeCount, maxCost, seed).freeze();
+    }
+}
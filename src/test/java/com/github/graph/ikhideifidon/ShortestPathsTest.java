@@ -0,0 +1,104 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Dijkstra, A* and bidirectional Dijkstra against Bellman-Ford, on random graphs of every density. **/
+class ShortestPathsTest {
+
+    @Test
+    void everySearchFindsTheBellmanFordDistances() {
+        final SplittableRandom random = new SplittableRandom(8);
+        for (int round = 0; round < 60; round++) {
+            final Graph.TYPE type = round % 2 == 0 ? Graph.TYPE.DIRECTED : Graph.TYPE.UNDIRECTED;
+            final int vertexCount = 1 + random.nextInt(120);
+            // From a forest of isolated vertices to a dense graph, with zero costs among the others.
+            final int edgeCount = random.nextInt(4 * vertexCount);
+            final CsrGraph<Integer> graph = RandomGraphs.csr(type, vertexCount, edgeCount, 1 + random.nextInt(50), round);
+            final ShortestPaths paths = new ShortestPaths(graph);
+
+            for (int query = 0; query < 10; query++) {
+                final int source = random.nextInt(vertexCount);
+                final long[] expected = bellmanFord(graph, source);
+                assertArrayEquals(expected, paths.distancesFrom(source), "round " + round);
+
+                final int target = random.nextInt(vertexCount);
+                final String label = "round " + round + ", " + source + " to " + target;
+                assertEquals(expected[target], paths.distance(source, target), label);
+                checkPath(graph, source, target, expected[target], paths.lastPath(), label);
+
+                // Exact distances to the target are the most informed admissible heuristic, half of them a weaker one.
+                final long[] toTarget = bellmanFord(type == Graph.TYPE.DIRECTED ? graph.transpose() : graph, target);
+                assertEquals(expected[target], paths.distance(source, target, (v, t) -> 0), label);
+                assertEquals(expected[target], paths.distance(source, target, (v, t) -> estimate(toTarget[v])), label);
+                assertEquals(expected[target], paths.distance(source, target, (v, t) -> estimate(toTarget[v]) / 2), label);
+                checkPath(graph, source, target, expected[target], paths.lastPath(), label);
+
+                assertEquals(expected[target], paths.bidirectionalDistance(source, target), label);
+                checkPath(graph, source, target, expected[target], paths.lastPath(), label);
+            }
+        }
+    }
+
+    @Test
+    void negativeCostsAreRejected() {
+        final Graph<Integer> graph = new Graph<>(Graph.TYPE.DIRECTED);
+        final Graph.Vertex<Integer> a = new Graph.Vertex<>(1);
+        final Graph.Vertex<Integer> b = new Graph.Vertex<>(2);
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addEdge(new Graph.Edge<>(-1, a, b));
+        assertThrows(IllegalArgumentException.class, () -> new ShortestPaths(graph.freeze()));
+    }
+
+    /** Zero for the vertices that cannot reach the target: any estimate would do, they never lead to it. **/
+    private static long estimate(long distance) {
+        return distance == ShortestPaths.UNREACHABLE ? 0 : distance;
+    }
+
+    private static long[] bellmanFord(CsrGraph<?> graph, int source) {
+        final long[] distance = new long[graph.vertexCount()];
+        Arrays.fill(distance, ShortestPaths.UNREACHABLE);
+        distance[source] = 0;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int u = 0; u < graph.vertexCount(); u++) {
+                if (distance[u] == ShortestPaths.UNREACHABLE)
+                    continue;
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    if (distance[u] + graph.cost(e) < distance[graph.target(e)]) {
+                        distance[graph.target(e)] = distance[u] + graph.cost(e);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return distance;
+    }
+
+    /** The path runs from source to target along edges of the graph, and costs the distance. **/
+    private static void checkPath(CsrGraph<?> graph, int source, int target, long distance, int[] path, String label) {
+        if (distance == ShortestPaths.UNREACHABLE) {
+            assertNull(path, label);
+            return;
+        }
+        assertNotNull(path, label);
+        assertEquals(source, path[0], label);
+        assertEquals(target, path[path.length - 1], label);
+        long cost = 0;
+        for (int i = 1; i < path.length; i++) {
+            long cheapest = Long.MAX_VALUE;
+            for (int e = graph.firstEdge(path[i - 1]); e < graph.endEdge(path[i - 1]); e++) {
+                if (graph.target(e) == path[i])
+                    cheapest = Math.min(cheapest, graph.cost(e));
+            }
+            assertNotEquals(Long.MAX_VALUE, cheapest, label + ": no edge from " + path[i - 1] + " to " + path[i]);
+            cost += cheapest;
+        }
+        assertEquals(distance, cost, label);
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tarjan and forward-backward against mutual reachability, and Kahn's order against the edges it must respect. **/
+class StronglyConnectedComponentsTest {
+
+    @Test
+    void componentsAreTheMutuallyReachableVertices() {
+        final SplittableRandom random = new SplittableRandom(22);
+        for (int round = 0; round < 40; round++) {
+            final Graph.TYPE type = round % 4 == 3 ? Graph.TYPE.UNDIRECTED : Graph.TYPE.DIRECTED;
+            final int vertexCount = 1 + random.nextInt(150);
+            // From DAG-like sparse graphs, which trimming takes apart, to a single giant component.
+            final CsrGraph<Integer> graph = RandomGraphs.csr(type, vertexCount, random.nextInt(3 * vertexCount), 5, round);
+            final String label = "round " + round;
+
+            final boolean[][] reaches = new boolean[vertexCount][];
+            for (int v = 0; v < vertexCount; v++)
+                reaches[v] = reachable(graph, v);
+            final StronglyConnectedComponents.Result tarjan = StronglyConnectedComponents.tarjan(graph);
+            for (StronglyConnectedComponents.Result result : new StronglyConnectedComponents.Result[] {
+                    tarjan, StronglyConnectedComponents.forwardBackward(graph), StronglyConnectedComponents.forwardBackward(graph, 3)}) {
+                for (int u = 0; u < vertexCount; u++) {
+                    assertTrue(result.component(u) >= 0 && result.component(u) < result.componentCount(), label);
+                    for (int v = 0; v < vertexCount; v++)
+                        assertEquals(reaches[u][v] && reaches[v][u], result.isStronglyConnected(u, v), label + ": " + u + ", " + v);
+                }
+                assertEquals(vertexCount, Arrays.stream(result.sizes()).sum(), label);
+                assertEquals(result.componentCount(), Arrays.stream(result.sizes()).filter(size -> size > 0).count(), label);
+            }
+
+            // Tarjan numbers the components in topological order.
+            for (int v = 0; v < vertexCount; v++)
+                for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++)
+                    assertTrue(tarjan.component(v) <= tarjan.component(graph.target(e)), label);
+
+            checkCondensation(graph, tarjan, label);
+            checkTopologicalSort(graph, reaches, label);
+        }
+    }
+
+    @Test
+    void forwardBackwardSplitsLargeGraphsLikeTarjan() {
+        // Past the sizes at which forward-backward stops handing its subproblems to tarjan and searches in parallel.
+        for (int edges : new int[] {80_000, 150_000}) {
+            final CsrGraph<Integer> graph = RandomGraphs.csr(Graph.TYPE.DIRECTED, 100_000, edges, 1, edges);
+            final StronglyConnectedComponents.Result tarjan = StronglyConnectedComponents.tarjan(graph);
+            for (int parallelism : new int[] {1, 4})
+                assertSamePartition(tarjan, StronglyConnectedComponents.forwardBackward(graph, parallelism), edges + " edges");
+        }
+    }
+
+    /** A DAG over the components, with no edge inside one, holding an edge wherever the graph crosses two. **/
+    private static void checkCondensation(CsrGraph<Integer> graph, StronglyConnectedComponents.Result components, String label) {
+        final StronglyConnectedComponents.Condensation condensation = StronglyConnectedComponents.condensation(graph, components);
+        assertEquals(components.componentCount(), condensation.vertexCount(), label);
+        final Set<List<Integer>> crossing = new HashSet<>();
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                final int from = components.component(v);
+                final int to = components.component(graph.target(e));
+                if (from != to)
+                    crossing.add(List.of(from, to));
+            }
+        }
+        final Set<List<Integer>> condensed = new HashSet<>();
+        for (int c = 0; c < condensation.vertexCount(); c++) {
+            assertEquals(components.sizes()[c], condensation.size(c), label);
+            for (int i = 0; i < condensation.degree(c); i++)
+                condensed.add(List.of(c, condensation.target(c, i)));
+        }
+        assertEquals(crossing, condensed, label);
+        assertTrue(TopologicalSort.sort(condensation).isAcyclic(), label);
+    }
+
+    /**
+     * Every edge between ordered vertices goes forward, and the vertices left out are those on a cycle or reachable
+     * from one, which the reported cycle proves.
+     **/
+    private static void checkTopologicalSort(CsrGraph<Integer> graph, boolean[][] reaches, String label) {
+        final int n = graph.vertexCount();
+        final TopologicalSort.Result sort = TopologicalSort.sort(graph);
+        final int[] position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < sort.order().length; i++)
+            position[sort.order()[i]] = i;
+
+        final boolean[] onCycle = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                final int w = graph.target(e);
+                if (reaches[w][v])
+                    onCycle[v] = true;
+                if (position[v] >= 0 && position[w] >= 0)
+                    assertTrue(position[v] < position[w], label + ": " + v + " -> " + w);
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            boolean afterCycle = false;
+            for (int u = 0; u < n; u++)
+                afterCycle |= onCycle[u] && reaches[u][v];
+            assertEquals(afterCycle, position[v] < 0, label + ": vertex " + v);
+        }
+
+        final int[] cycle = sort.cycle();
+        assertEquals(sort.order().length == n, sort.isAcyclic(), label);
+        for (int i = 0; i < cycle.length; i++) {
+            final int v = cycle[i];
+            final int next = cycle[(i + 1) % cycle.length];
+            boolean edge = false;
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++)
+                edge |= graph.target(e) == next;
+            assertTrue(edge, label + ": the cycle has no edge " + v + " -> " + next);
+        }
+    }
+
+    private static void assertSamePartition(StronglyConnectedComponents.Result expected, StronglyConnectedComponents.Result actual,
+                                            String label) {
+        assertEquals(expected.componentCount(), actual.componentCount(), label);
+        final int[] map = new int[expected.componentCount()];
+        Arrays.fill(map, -1);
+        for (int v = 0; v < expected.components().length; v++) {
+            final int component = expected.component(v);
+            if (map[component] < 0)
+                map[component] = actual.component(v);
+            assertEquals(map[component], actual.component(v), label + ": vertex " + v);
+        }
+    }
+
+    private static boolean[] reachable(CsrGraph<Integer> graph, int source) {
+        final boolean[] reached = new boolean[graph.vertexCount()];
+        final ArrayDeque<Integer> stack = new ArrayDeque<>();
+        reached[source] = true;
+        stack.push(source);
+        while (!stack.isEmpty()) {
+            final int v = stack.pop();
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                if (!reached[graph.target(e)]) {
+                    reached[graph.target(e)] = true;
+                    stack.push(graph.target(e));
+                }
+            }
+        }
+        return reached;
+    }
+}
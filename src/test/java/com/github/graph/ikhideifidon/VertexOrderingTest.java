@@ -0,0 +1,83 @@
+package com.github.graph.ikhideifidon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Every strategy must give a permutation of the vertices, and relabel the same graph under it. **/
+class VertexOrderingTest {
+
+    @Test
+    void everyStrategyIsAPermutation() {
+        final SplittableRandom random = new SplittableRandom(24);
+        for (int round = 0; round < 40; round++) {
+            final Graph.TYPE type = round % 3 == 0 ? Graph.TYPE.UNDIRECTED : Graph.TYPE.DIRECTED;
+            final int vertexCount = random.nextInt(300);
+            // Sparse DIRECTED graphs leave many vertices that no search from a peripheral vertex reaches.
+            final CsrGraph<Integer> graph = RandomGraphs.csr(type, vertexCount, random.nextInt(3 * vertexCount + 1), 10, round);
+            for (VertexOrdering.Strategy strategy : VertexOrdering.Strategy.values())
+                check(graph, VertexOrdering.of(graph, strategy), "round " + round + " " + strategy);
+        }
+    }
+
+    @Test
+    void reverseCuthillMcKeeOrdersDirectedTreesAndCycles() {
+        // An in-tree: a search from a leaf only reaches the path up to the root, so most vertices start searches of their own.
+        final List<Graph.Vertex<Integer>> vertices = new ArrayList<>();
+        final List<Graph.Edge<Integer>> edges = new ArrayList<>();
+        for (int v = 0; v < 500; v++)
+            vertices.add(new Graph.Vertex<>(v));
+        for (int v = 1; v < 400; v++)
+            edges.add(new Graph.Edge<>(v, vertices.get(v), vertices.get((v - 1) / 3)));
+        // A directed cycle, and vertices with no edges at all.
+        for (int v = 400; v < 450; v++)
+            edges.add(new Graph.Edge<>(v, vertices.get(v), vertices.get(v == 449 ? 400 : v + 1)));
+        final CsrGraph<Integer> graph = new Graph<>(Graph.TYPE.DIRECTED, vertices, edges).freeze();
+
+        final VertexOrdering ordering = VertexOrdering.of(graph, VertexOrdering.Strategy.REVERSE_CUTHILL_MCKEE);
+        check(graph, ordering, "trees");
+        // The cycle is searched in one go, so it takes 50 consecutive ids.
+        final int[] ids = new int[50];
+        for (int v = 400; v < 450; v++)
+            ids[v - 400] = ordering.newId(v);
+        Arrays.sort(ids);
+        assertEquals(49, ids[49] - ids[0]);
+    }
+
+    private static void check(CsrGraph<Integer> graph, VertexOrdering ordering, String label) {
+        final int n = graph.vertexCount();
+        assertEquals(n, ordering.vertexCount(), label);
+        final boolean[] taken = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            final int newId = ordering.newId(v);
+            assertTrue(newId >= 0 && newId < n && !taken[newId], label + ": vertex " + v + " -> " + newId);
+            taken[newId] = true;
+            assertEquals(v, ordering.oldId(newId), label);
+        }
+
+        final CsrGraph<Integer> relabeled = graph.relabel(ordering);
+        assertEquals(graph.getType(), relabeled.getType(), label);
+        assertEquals(graph.edgeCount(), relabeled.edgeCount(), label);
+        for (int v = 0; v < n; v++) {
+            final int w = ordering.newId(v);
+            assertEquals(graph.valueOf(v), relabeled.valueOf(w), label);
+            assertEquals(graph.weight(v), relabeled.weight(w), label);
+            assertEquals(w, relabeled.idOf(graph.valueOf(v)), label);
+
+            final List<List<Integer>> expected = new ArrayList<>();
+            for (int i = 0; i < graph.degree(v); i++)
+                expected.add(List.of(ordering.newId(graph.target(v, i)), graph.cost(v, i)));
+            final List<List<Integer>> actual = new ArrayList<>();
+            for (int i = 0; i < relabeled.degree(w); i++) {
+                actual.add(List.of(relabeled.target(w, i), relabeled.cost(w, i)));
+                if (i > 0)
+                    assertTrue(relabeled.target(w, i - 1) <= relabeled.target(w, i), label + ": row " + w + " unsorted");
+            }
+            expected.sort(Comparator.comparing((List<Integer> edge) -> edge.get(0)).thenComparing(edge -> edge.get(1)));
+            actual.sort(Comparator.comparing((List<Integer> edge) -> edge.get(0)).thenComparing(edge -> edge.get(1)));
+            assertEquals(expected, actual, label + ": vertex " + v);
+        }
+    }
+}